@@ -0,0 +1,22 @@
+package ipog;
+
+/**
+ * When uniform models q^k with a prime power q (and t <= q) are covered by an orthogonal array over GF(q)
+ * (Bush's construction with the optimal number of q^t rows for up to q + 1 columns).
+ */
+public enum AlgebraicConstruction {
+    /**
+     * Always uses IPOG.
+     */
+    NEVER,
+    /**
+     * Uses the orthogonal array if k <= q + 1, IPOG otherwise.
+     */
+    EXACT,
+    /**
+     * Like EXACT, but if k > q + 1 the orthogonal array covers the first q + 1 columns
+     * and the remaining columns are added by IPOG. As the orthogonal array has no don't-care values,
+     * this is not always smaller than IPOG alone (but usually much faster for large domains).
+     */
+    EXACT_OR_SEED
+}
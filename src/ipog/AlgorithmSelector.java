@@ -0,0 +1,173 @@
+package ipog;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves {@link BaseAlgorithm#AUTO}: estimates the time of the generation from the model
+ * and picks the most thorough option combination whose estimated time fits into the time budget.
+ * The work of IPOG is dominated by the horizontal growth, i.e. by the number of rows times
+ * the number of column selections, plus the number of value combinations that have to be covered.
+ * The number of rows is estimated from the product of the t largest domains, which grows logarithmically
+ * with the number of parameters. IPOG-F compares all rows and values in every step (factor 1 + N * v / 40
+ * for the largest domain v). The work of SIPO does not depend on the rows: for every column i it runs
+ * 500 * (t - 1) * (i + 1) iterations, each of which updates the coverage of the C(i, t - 1) column selections
+ * with the column, and its full variant runs 10 times as many.
+ * The constants are upper bounds of measurements on models from 2^100 (t = 2) to 2^30 (t = 4),
+ * so that the estimate rather overestimates the time and the budget holds.
+ * IPOG-D is only chosen if nothing else fits, since it is not faster than IPOG for every model.
+ * IPOG_F2 and the graph coloring of the vertical growth are never chosen,
+ * because they did not lead to smaller covering arrays than IPOG-F in the measurements.
+ */
+final class AlgorithmSelector {
+    private static final Logger LOGGER = Logger.getLogger(AlgorithmSelector.class.getName());
+    private static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(10);
+    private static final double SECONDS_PER_WORK_UNIT = 1.6e-7;  // rather too slow than too fast, so that the budget holds
+    private static final double WARM_UP_SECONDS = 0.2;  // of the JVM, before the generation runs at full speed
+    private static final double MINIMUM_PILOT_SECONDS = 0.01;  // shorter pilot runs are too imprecise for the speed
+    private static final double SIPO_ITERATIONS_PER_COLUMN = 500, FULL_SIPO_FACTOR = 10;
+    private static final double IPOG_F_ROWS_AND_VALUES_PER_STEP = 40;
+    private final RunConfiguration runConfiguration;
+    private final int strength;
+    private String reason;
+
+    AlgorithmSelector(RunConfiguration runConfiguration) {
+        this.runConfiguration = runConfiguration;
+        this.strength = runConfiguration.getStrength();
+    }
+
+    /**
+     * @return the run configuration with the chosen base algorithm and options
+     */
+    RunConfiguration select() {
+        List<Parameter<?>> parameters = runConfiguration.getParameters();
+        int numberOfParameters = parameters.size();
+        double budgetSeconds = runConfiguration.getTimeBudget()
+                .orElse(runConfiguration.getTimeout().orElse(DEFAULT_TIME_BUDGET)).toNanos() / 1e9;
+        int[] sizes = parameters.stream().mapToInt(Parameter::size)
+                .boxed().sorted(Comparator.reverseOrder()).mapToInt(Integer::intValue).toArray();
+        double numberOfRows = estimatedNumberOfRows(sizes);
+        double secondsPerWorkUnit = SECONDS_PER_WORK_UNIT;
+        String calibration = "";
+        if (runConfiguration.isPilotRun() && numberOfParameters > 2 * strength) {
+            // the largest parameters, so that the pilot has the same minimum number of rows
+            List<Parameter<?>> pilotParameters = parameters.stream()
+                    .sorted(Comparator.comparingInt(parameter -> -parameter.size()))
+                    .limit(Math.max(2 * strength, numberOfParameters / 3)).collect(Collectors.toList());
+            int[] pilotSizes = Arrays.copyOf(sizes, pilotParameters.size());
+            RunConfiguration pilotConfiguration =
+                    RunConfiguration.builder(pilotParameters, strength, BaseAlgorithm.IPOG).build();
+            // the faster of two runs, because the first one also measures the warm-up of the JVM
+            long pilotNanos = Long.MAX_VALUE;
+            int pilotRows = 0;
+            for (int run = 0; run < 2; run++) {
+                long start = System.nanoTime();
+                pilotRows = new IpogRunner(pilotConfiguration).generate().numberOfRows();
+                pilotNanos = Math.min(pilotNanos, System.nanoTime() - start);
+            }
+            numberOfRows *= pilotRows / estimatedNumberOfRows(pilotSizes);
+            if (pilotNanos / 1e9 >= MINIMUM_PILOT_SECONDS) {
+                secondsPerWorkUnit = pilotNanos / 1e9 / workUnits(pilotSizes, pilotRows);
+            }
+            calibration = String.format(Locale.ROOT, ", calibrated by a pilot run with %d parameters: %d rows in %.3f s",
+                    pilotParameters.size(), pilotRows, pilotNanos / 1e9);
+        }
+        double ipogSeconds = workUnits(sizes, numberOfRows) * secondsPerWorkUnit;
+        double sipoSeconds = sipoWorkUnits(numberOfParameters) * secondsPerWorkUnit;
+        double ipogFFactor = 1 + numberOfRows * sizes[0] / IPOG_F_ROWS_AND_VALUES_PER_STEP;
+        // from the smallest expected covering array to the fastest generation
+        List<Candidate> candidates = new ArrayList<>(List.of(
+                new Candidate("IPOG_F with full SIPO", BaseAlgorithm.IPOG_F, true, true,
+                        ipogFFactor * ipogSeconds + FULL_SIPO_FACTOR * sipoSeconds),
+                new Candidate("IPOG_F with SIPO", BaseAlgorithm.IPOG_F, true, false,
+                        ipogFFactor * ipogSeconds + sipoSeconds),
+                new Candidate("IPOG with SIPO", BaseAlgorithm.IPOG, true, false, ipogSeconds + sipoSeconds),
+                new Candidate("IPOG_F", BaseAlgorithm.IPOG_F, false, false, ipogFFactor * ipogSeconds),
+                new Candidate("IPOG", BaseAlgorithm.IPOG, false, false, ipogSeconds)));
+        if (numberOfParameters >= 2 * strength) {
+            candidates.add(new Candidate("IPOG_D", BaseAlgorithm.IPOG_D, false, false, ipogSeconds));
+        }
+        Candidate chosen = candidates.get(candidates.size() - 1);
+        for (Candidate candidate : candidates) {
+            if (WARM_UP_SECONDS + candidate.seconds <= budgetSeconds) {
+                chosen = candidate;
+                break;
+            }
+        }
+        reason = String.format(Locale.ROOT, "%s: estimated %.2f s of the %.2f s budget "
+                        + "(%d parameters, %.0f column selections, %.0f value combinations, about %.0f rows%s)",
+                chosen.description, WARM_UP_SECONDS + chosen.seconds, budgetSeconds, numberOfParameters,
+                choose(numberOfParameters, strength), numberOfValueCombinations(sizes),
+                numberOfRows, calibration);
+        LOGGER.info(reason);
+        return runConfiguration.withBaseAlgorithm(chosen.baseAlgorithm, chosen.enhanceHorizontal,
+                chosen.fullHorizontal, false);
+    }
+
+    /**
+     * @return why the base algorithm and the options have been chosen
+     */
+    String getReason() {
+        return reason;
+    }
+
+    // sizes in descending order
+    private double estimatedNumberOfRows(int[] sizes) {
+        double numberOfRows = 1;
+        for (int j = 0; j < strength; j++) {
+            numberOfRows *= sizes[j];
+        }
+        return numberOfRows * (1 + 0.6 * (strength - 1) * Math.log((double) sizes.length / strength + 1));
+    }
+
+    private double workUnits(int[] sizes, double numberOfRows) {
+        return numberOfRows * choose(sizes.length, strength) + numberOfValueCombinations(sizes);
+    }
+
+    // the iterations of SIPO times the column selections that an iteration updates
+    private double sipoWorkUnits(int numberOfParameters) {
+        double workUnits = 0;
+        for (int i = strength; i < numberOfParameters; i++) {
+            workUnits += SIPO_ITERATIONS_PER_COLUMN * (strength - 1) * (i + 1) * choose(i, strength - 1);
+        }
+        return workUnits;
+    }
+
+    private static double choose(int n, int k) {
+        double result = 1;
+        for (int j = 0; j < k; j++) {
+            result = result * (n - j) / (j + 1);
+        }
+        return result;
+    }
+
+    // the sum of the products of the sizes of all t parameters (elementary symmetric polynomial)
+    private double numberOfValueCombinations(int[] sizes) {
+        double[] sums = new double[strength + 1];
+        sums[0] = 1;
+        for (int size : sizes) {
+            for (int j = strength; j > 0; j--) {
+                sums[j] += sums[j - 1] * size;
+            }
+        }
+        return sums[strength];
+    }
+
+    private static final class Candidate {
+        private final String description;
+        private final BaseAlgorithm baseAlgorithm;
+        private final boolean enhanceHorizontal, fullHorizontal;
+        private final double seconds;  // estimated, without the warm-up
+
+        private Candidate(String description, BaseAlgorithm baseAlgorithm, boolean enhanceHorizontal,
+                          boolean fullHorizontal, double seconds) {
+            this.description = description;
+            this.baseAlgorithm = baseAlgorithm;
+            this.enhanceHorizontal = enhanceHorizontal;
+            this.fullHorizontal = fullHorizontal;
+            this.seconds = seconds;
+        }
+    }
+}
@@ -1,5 +1,25 @@
 package ipog;
 
 public enum BaseAlgorithm {
-    IPOG, IPOG_F, IPOG_F2
+    IPOG, IPOG_F, IPOG_F2,
+    /**
+     * IPOG-D for models with many parameters: IPOG is only run on the first half of the parameters (internal order),
+     * the second half is a copy of the first one (values reduced modulo the smaller domain sizes),
+     * which leaves just the combinations with a parameter and its copy to be covered by vertical growth.
+     * The first half is doubled in the same way again, as long as it has at least 16 parameters.
+     * Each doubling adds fewer rows than it copies (e.g. 2^64 at t = 3: 23 rows for the first 16 parameters,
+     * 39 for 32 and 51 for all of them), so the covering array has less than 2^d times the rows of the first
+     * parameters after d doublings. It is usually larger than the one of IPOG, but it is generated much faster,
+     * because the expensive horizontal growth is skipped for most of the columns
+     * (e.g. 2^1000 at t = 3: 142 instead of 79 rows, but 60 times faster).
+     * Runs with constraints, seed rows or sub-models are generated by IPOG instead.
+     */
+    IPOG_D,
+    /**
+     * Chooses the base algorithm and the options (SIPO) that are expected to give the smallest covering array
+     * within the time budget (see {@link RunConfiguration.Builder#timeBudget(java.time.Duration, boolean)}),
+     * based on an estimate of the work from the model. The choice is logged and reported
+     * (see {@link GenerationReport#getAlgorithmSelection()}); the options of the run configuration are ignored.
+     */
+    AUTO
 }
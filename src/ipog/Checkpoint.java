@@ -0,0 +1,211 @@
+package ipog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Binary snapshot of the state of an {@link IpogRunner} at a column boundary.
+ * Layout (big endian): magic, version, strength, k, base algorithm, option flags, seed,
+ * fingerprint of the seed rows, constraints and sub-models, next column, original order (k ints), alphabet sizes in the order of the parameters (k ints),
+ * N, cell width in bytes, N * k cells (value + 1, so that don't-care values are stored as 0)
+ * and - if present - the number of don't-care values per row (N ints).
+ * The file is written to a temporary sibling first and then moved over the old checkpoint,
+ * so that a pre-empted write never leaves a corrupt checkpoint behind.
+ * The file is not forced to the disk, which would cost a sync per column: after a crash of the system,
+ * the checkpoint can be an older one or be incomplete, which {@link #read(Path)} detects.
+ */
+final class Checkpoint {
+    private static final int MAGIC = 0x49504F43;  // "IPOC"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES + 1 + 2 * Long.BYTES;
+
+    final int strength;
+    final BaseAlgorithm baseAlgorithm;
+    final byte optionFlags;
+    final long seed;
+    final long fingerprint;
+    final int nextColumn;
+    final int[] originalOrder;
+    final int[] parameterSizes;
+    final List<int[]> coveringArray;
+    final Map<Integer, Integer> dontCareValuesPerRowCount;
+
+    Checkpoint(int strength, BaseAlgorithm baseAlgorithm, byte optionFlags, long seed, long fingerprint, int nextColumn,
+               int[] originalOrder, int[] parameterSizes, List<int[]> coveringArray,
+               Map<Integer, Integer> dontCareValuesPerRowCount) {
+        this.strength = strength;
+        this.baseAlgorithm = baseAlgorithm;
+        this.optionFlags = optionFlags;
+        this.seed = seed;
+        this.fingerprint = fingerprint;
+        this.nextColumn = nextColumn;
+        this.originalOrder = originalOrder;
+        this.parameterSizes = parameterSizes;
+        this.coveringArray = coveringArray;
+        this.dontCareValuesPerRowCount = dontCareValuesPerRowCount;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file is not a (complete) checkpoint
+     */
+    static Checkpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Preconditions.checkArgument(size >= HEADER_BYTES && size <= Integer.MAX_VALUE,
+                    Preconditions.CORRUPT_CHECKPOINT);
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file
+            }
+            buffer.flip();
+            return read(buffer);
+        }
+    }
+
+    private static Checkpoint read(ByteBuffer buffer) {
+        try {
+            Preconditions.checkArgument(buffer.getInt() == MAGIC && buffer.getInt() == VERSION,
+                    Preconditions.CORRUPT_CHECKPOINT);
+            int strength = buffer.getInt();
+            int numberOfParameters = buffer.getInt();
+            Preconditions.checkArgument(numberOfParameters > 0
+                    && numberOfParameters <= buffer.remaining() / (2 * Integer.BYTES), Preconditions.CORRUPT_CHECKPOINT);
+            BaseAlgorithm baseAlgorithm = BaseAlgorithm.values()[buffer.getInt()];
+            byte optionFlags = buffer.get();
+            long seed = buffer.getLong();
+            long fingerprint = buffer.getLong();
+            int nextColumn = buffer.getInt();
+            int[] originalOrder = new int[numberOfParameters], parameterSizes = new int[numberOfParameters];
+            for (int i = 0; i < numberOfParameters; i++) {
+                originalOrder[i] = buffer.getInt();
+            }
+            for (int i = 0; i < numberOfParameters; i++) {
+                parameterSizes[i] = buffer.getInt();
+            }
+            int numberOfRows = buffer.getInt();
+            int cellWidth = buffer.get();
+            Preconditions.checkArgument(Integer.bitCount(cellWidth) == 1 && cellWidth <= Integer.BYTES
+                    && numberOfRows >= 0 && (long) numberOfRows * numberOfParameters * cellWidth
+                    <= buffer.remaining(), Preconditions.CORRUPT_CHECKPOINT);
+            List<int[]> coveringArray = new ArrayList<>(numberOfRows);
+            for (int row = 0; row < numberOfRows; row++) {
+                int[] nextRow = new int[numberOfParameters];
+                for (int column = 0; column < numberOfParameters; column++) {
+                    nextRow[column] = readCell(buffer, cellWidth) - 1;
+                }
+                coveringArray.add(nextRow);
+            }
+            Map<Integer, Integer> dontCareValuesPerRowCount = null;
+            if (buffer.get() == 1) {
+                dontCareValuesPerRowCount = new HashMap<>();
+                for (int row = 0; row < numberOfRows; row++) {
+                    dontCareValuesPerRowCount.put(row, buffer.getInt());
+                }
+            }
+            return new Checkpoint(strength, baseAlgorithm, optionFlags, seed, fingerprint, nextColumn,
+                    originalOrder, parameterSizes, coveringArray, dontCareValuesPerRowCount);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new IllegalArgumentException(Preconditions.CORRUPT_CHECKPOINT, exception);
+        }
+    }
+
+    private static int readCell(ByteBuffer buffer, int cellWidth) {
+        switch (cellWidth) {
+            case Byte.BYTES:
+                return Byte.toUnsignedInt(buffer.get());
+            case Short.BYTES:
+                return Short.toUnsignedInt(buffer.getShort());
+            default:
+                return buffer.getInt();
+        }
+    }
+
+    /**
+     * Keeps the (direct) buffer between the checkpoints of the same run,
+     * so that writing a checkpoint after every column does not produce garbage.
+     */
+    static final class Writer {
+        private final Path file;
+        private final Path temporaryFile;
+        private ByteBuffer buffer;
+
+        Writer(Path file) {
+            this.file = file.toAbsolutePath();
+            this.temporaryFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        }
+
+        void write(Checkpoint checkpoint) throws IOException {
+            int numberOfParameters = checkpoint.originalOrder.length;
+            int numberOfRows = checkpoint.coveringArray.size();
+            int maxParameterSize = 0;
+            for (int parameterSize : checkpoint.parameterSizes) {
+                maxParameterSize = Math.max(maxParameterSize, parameterSize);
+            }
+            int cellWidth = maxParameterSize < 0xFF ? Byte.BYTES
+                    : maxParameterSize < 0xFFFF ? Short.BYTES : Integer.BYTES;
+            long size = HEADER_BYTES + 2L * numberOfParameters * Integer.BYTES + Integer.BYTES + 1 + 1
+                    + (long) numberOfRows * numberOfParameters * cellWidth
+                    + (checkpoint.dontCareValuesPerRowCount != null ? (long) numberOfRows * Integer.BYTES : 0);
+            Preconditions.checkArgument(size <= Integer.MAX_VALUE, Preconditions.CHECKPOINT_TOO_LARGE);
+            if (buffer == null || buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, size + (size >> 1)));
+            }
+            buffer.clear();
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(checkpoint.strength).putInt(numberOfParameters)
+                    .putInt(checkpoint.baseAlgorithm.ordinal()).put(checkpoint.optionFlags)
+                    .putLong(checkpoint.seed).putLong(checkpoint.fingerprint).putInt(checkpoint.nextColumn);
+            for (int column : checkpoint.originalOrder) {
+                buffer.putInt(column);
+            }
+            for (int parameterSize : checkpoint.parameterSizes) {
+                buffer.putInt(parameterSize);
+            }
+            buffer.putInt(numberOfRows).put((byte) cellWidth);
+            for (int[] row : checkpoint.coveringArray) {
+                for (int value : row) {
+                    writeCell(value == DONT_CARE_VALUE ? 0 : value + 1, cellWidth);
+                }
+            }
+            buffer.put((byte) (checkpoint.dontCareValuesPerRowCount != null ? 1 : 0));
+            if (checkpoint.dontCareValuesPerRowCount != null) {
+                for (int row = 0; row < numberOfRows; row++) {
+                    buffer.putInt(checkpoint.dontCareValuesPerRowCount.get(row));
+                }
+            }
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private void writeCell(int cell, int cellWidth) {
+            switch (cellWidth) {
+                case Byte.BYTES:
+                    buffer.put((byte) cell);
+                    break;
+                case Short.BYTES:
+                    buffer.putShort((short) cell);
+                    break;
+                default:
+                    buffer.putInt(cell);
+            }
+        }
+    }
+}
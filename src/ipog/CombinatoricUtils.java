@@ -49,17 +49,33 @@ public class CombinatoricUtils {
         for (int i = 0; i < k; i++) {
             Preconditions.checkArgument(kElementSubset[i] >= 0 && kElementSubset[i] < n,
                     Preconditions.INVALID_ELEMENT_IN_KSUBSET);
-            if ((i == 0 && kElementSubset[i] >= 1) || (i > 0 && kElementSubset[i - 1] + 1 <= kElementSubset[i] - 1)) {
-                int j = i == 0 ? 0 : kElementSubset[i - 1] + 1;
-                while (j < kElementSubset[i]) {
-                    rank += binomCoeffs.choose(n - (j + 1), k - (i + 1));
-                    j++;
-                }
+            // the subsets with a smaller element j at position i: the sum of choose(n - (j + 1), k - (i + 1))
+            // over j = first, ..., kElementSubset[i] - 1, which telescopes by the hockey-stick identity
+            int first = i == 0 ? 0 : kElementSubset[i - 1] + 1;
+            if (first < kElementSubset[i]) {
+                rank += binomCoeffs.choose(n - first, k - i) - binomCoeffs.choose(n - kElementSubset[i], k - i);
             }
         }
         return rank;
     }
 
+    // inverse of kSubsetLexRank
+    public static int[] kSubsetLexUnrank(int rank, int k, int n, BinomialCoefficient binomCoeffs) {
+        Preconditions.checkArgument(rank >= 0 && rank < binomCoeffs.choose(n, k),
+                Preconditions.INVALID_ELEMENT_IN_KSUBSET);
+        int[] kElementSubset = new int[k];
+        int element = 0;
+        for (int i = 0; i < k; i++) {
+            // skip the subsets that have a smaller element at position i
+            while (binomCoeffs.choose(n - (element + 1), k - (i + 1)) <= rank) {
+                rank -= binomCoeffs.choose(n - (element + 1), k - (i + 1));
+                element++;
+            }
+            kElementSubset[i] = element++;
+        }
+        return kElementSubset;
+    }
+
     // https://stackoverflow.com/questions/714108/cartesian-product-of-an-arbitrary-number-of-sets
     public static class CartesianProduct implements Iterable<int[]>, Iterator<int[]> {
         private final int[] lengths;  // length[i] = alphabet size of the i'th set
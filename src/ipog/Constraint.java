@@ -0,0 +1,57 @@
+package ipog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Restricts which value combinations may occur together in a row (test) of the covering array,
+ * e.g. that "Windows" cannot be combined with "Corretto 7".
+ * Constraints are compiled into forbidden tuples before the generation,
+ * so the predicate is only evaluated once for each value combination of the involved parameters.
+ */
+public final class Constraint {
+    private final List<String> parameterNames;
+    private final Predicate<List<Object>> isValidCombination;
+
+    private Constraint(List<String> parameterNames, Predicate<List<Object>> isValidCombination) {
+        this.parameterNames = parameterNames;
+        this.isValidCombination = isValidCombination;
+    }
+
+    /**
+     * @param forbiddenCombination maps the names of the involved parameters to the values
+     *                             which must not occur together in a row
+     */
+    public static Constraint forbid(Map<String, ?> forbiddenCombination) {
+        Preconditions.checkNotNull(forbiddenCombination);
+        Preconditions.checkArgument(!forbiddenCombination.isEmpty());
+        List<String> parameterNames = new ArrayList<>(forbiddenCombination.keySet());
+        List<Object> forbiddenValues = new ArrayList<>(parameterNames.size());
+        for (String parameterName : parameterNames) {
+            forbiddenValues.add(forbiddenCombination.get(parameterName));
+        }
+        return new Constraint(parameterNames, values -> !values.equals(forbiddenValues));
+    }
+
+    /**
+     * @param parameterNames the names of the involved parameters
+     * @param isValidCombination gets the values of the involved parameters (in the order of the names)
+     *                           and decides whether they may occur together in a row
+     */
+    public static Constraint require(List<String> parameterNames, Predicate<List<Object>> isValidCombination) {
+        Preconditions.checkNotNull(parameterNames);
+        Preconditions.checkNotNull(isValidCombination);
+        Preconditions.checkArgument(!parameterNames.isEmpty());
+        return new Constraint(List.copyOf(parameterNames), isValidCombination);
+    }
+
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    boolean isValid(List<Object> values) {
+        return isValidCombination.test(values);
+    }
+}
@@ -0,0 +1,382 @@
+package ipog;
+
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * The constraints compiled into forbidden tuples over value indices.
+ * All column indices are in the order of the parameters (not in the internal order of the generation),
+ * except for the columns of a checker from {@link #inInternalOrder(int[])}, which are positions in the internal order.
+ * For every (column, value) we keep the forbidden values of the other columns of forbidden pairs
+ * as bitmasks, so that checking whether a value may be assigned to a cell is a mask lookup
+ * per partner column instead of an evaluation of the constraints.
+ * Forbidden tuples with more than two parameters are checked one by one.
+ */
+final class ConstraintChecker {
+    private static final int MAX_COMBINATIONS_PER_CONSTRAINT = 1 << 20;
+    private static final int[] NO_COLUMNS = new int[0];
+    private static final long[][] NO_MASKS = new long[0][];
+    private static final int[][][] NO_TUPLES = new int[0][][];
+
+    private final int[] parameterSizes;
+    private final List<int[][]> forbiddenTuples;  // {columns (sorted), values}
+    private final boolean[][] forbiddenValues;
+    private final int[][][] partnerColumns;  // [column][value] -> columns of the forbidden pairs
+    private final long[][][][] partnerMasks;  // [column][value][partner] -> forbidden values of the partner column
+    private final int[][][][][] largerTuples;  // [column][value] -> forbidden tuples with more than two parameters
+
+    private ConstraintChecker(int[] parameterSizes, List<int[][]> forbiddenTuples) {
+        this.parameterSizes = parameterSizes;
+        this.forbiddenTuples = forbiddenTuples;
+        int numberOfParameters = parameterSizes.length;
+        forbiddenValues = new boolean[numberOfParameters][];
+        partnerColumns = new int[numberOfParameters][][];
+        partnerMasks = new long[numberOfParameters][][][];
+        largerTuples = new int[numberOfParameters][][][][];
+        List<Map<Integer, long[]>> pairs = new ArrayList<>();
+        List<List<int[][]>> larger = new ArrayList<>();
+        for (int column = 0; column < numberOfParameters; column++) {
+            forbiddenValues[column] = new boolean[parameterSizes[column]];
+            partnerColumns[column] = new int[parameterSizes[column]][];
+            partnerMasks[column] = new long[parameterSizes[column]][][];
+            largerTuples[column] = new int[parameterSizes[column]][][][];
+            for (int value = 0; value < parameterSizes[column]; value++) {
+                pairs.add(new TreeMap<>());
+                larger.add(new ArrayList<>());
+            }
+        }
+        int[] offsets = new int[numberOfParameters];
+        for (int column = 1; column < numberOfParameters; column++) {
+            offsets[column] = offsets[column - 1] + parameterSizes[column - 1];
+        }
+        for (int[][] forbiddenTuple : forbiddenTuples) {
+            int[] columns = forbiddenTuple[0], values = forbiddenTuple[1];
+            if (columns.length == 1) {
+                forbiddenValues[columns[0]][values[0]] = true;
+                continue;
+            }
+            for (int j = 0; j < columns.length; j++) {
+                int key = offsets[columns[j]] + values[j];
+                if (columns.length == 2) {
+                    int partner = columns[1 - j], partnerValue = values[1 - j];
+                    long[] mask = pairs.get(key).computeIfAbsent(partner,
+                            p -> new long[(parameterSizes[p] + Long.SIZE - 1) / Long.SIZE]);
+                    mask[partnerValue / Long.SIZE] |= 1L << partnerValue;
+                }
+                else {
+                    larger.get(key).add(forbiddenTuple);
+                }
+            }
+        }
+        for (int column = 0; column < numberOfParameters; column++) {
+            for (int value = 0; value < parameterSizes[column]; value++) {
+                Map<Integer, long[]> masks = pairs.get(offsets[column] + value);
+                partnerColumns[column][value] = masks.isEmpty() ? NO_COLUMNS
+                        : masks.keySet().stream().mapToInt(Integer::intValue).toArray();
+                partnerMasks[column][value] = masks.isEmpty() ? NO_MASKS : masks.values().toArray(new long[0][]);
+                List<int[][]> tuples = larger.get(offsets[column] + value);
+                largerTuples[column][value] = tuples.isEmpty() ? NO_TUPLES : tuples.toArray(new int[0][][]);
+            }
+        }
+    }
+
+    static ConstraintChecker compile(List<Parameter<?>> parameters, List<Constraint> constraints) {
+        int[] parameterSizes = parameters.stream().mapToInt(Parameter::size).toArray();
+        Map<String, Integer> parameterNameToColumn = new HashMap<>();
+        for (int column = 0; column < parameters.size(); column++) {
+            parameterNameToColumn.put(parameters.get(column).getName(), column);
+        }
+        Set<List<Integer>> seen = new HashSet<>();
+        List<int[][]> forbiddenTuples = new ArrayList<>();
+        for (Constraint constraint : constraints) {
+            List<String> names = constraint.getParameterNames();
+            int[] columns = new int[names.size()], sizes = new int[names.size()];
+            long numberOfCombinations = 1;
+            for (int j = 0; j < columns.length; j++) {
+                Integer column = parameterNameToColumn.get(names.get(j));
+                Preconditions.checkArgument(column != null, Preconditions.UNKNOWN_PARAMETER);
+                columns[j] = column;
+                sizes[j] = parameterSizes[column];
+                numberOfCombinations *= sizes[j];
+                Preconditions.checkArgument(numberOfCombinations <= MAX_COMBINATIONS_PER_CONSTRAINT,
+                        Preconditions.CONSTRAINT_TOO_LARGE);
+            }
+            for (int[] valueCombination : new CombinatoricUtils.CartesianProduct(sizes)) {
+                List<Object> values = new ArrayList<>(columns.length);
+                for (int j = 0; j < columns.length; j++) {
+                    values.add(parameters.get(columns[j]).getValues().get(valueCombination[j]));
+                }
+                if (constraint.isValid(values)) {
+                    continue;
+                }
+                int[][] forbiddenTuple = sortedByColumn(columns, valueCombination);
+                List<Integer> key = new ArrayList<>();
+                for (int j = 0; j < columns.length; j++) {
+                    key.add(forbiddenTuple[0][j]);
+                    key.add(forbiddenTuple[1][j]);
+                }
+                if (seen.add(key)) {
+                    forbiddenTuples.add(forbiddenTuple);
+                }
+            }
+        }
+        return new ConstraintChecker(parameterSizes, forbiddenTuples);
+    }
+
+    private static int[][] sortedByColumn(int[] columns, int[] values) {
+        Integer[] positions = new Integer[columns.length];
+        for (int j = 0; j < positions.length; j++) {
+            positions[j] = j;
+        }
+        Arrays.sort(positions, Comparator.comparingInt(position -> columns[position]));
+        int[][] sorted = new int[2][columns.length];
+        for (int j = 0; j < positions.length; j++) {
+            sorted[0][j] = columns[positions[j]];
+            sorted[1][j] = values[positions[j]];
+        }
+        return sorted;
+    }
+
+    /**
+     * @return the same constraints for rows in the internal order, i.e. with positions instead of columns
+     */
+    ConstraintChecker inInternalOrder(int[] originalOrder) {
+        int[] positionOf = new int[originalOrder.length];
+        int[] sizes = new int[originalOrder.length];
+        for (int position = 0; position < originalOrder.length; position++) {
+            positionOf[originalOrder[position]] = position;
+            sizes[position] = parameterSizes[originalOrder[position]];
+        }
+        List<int[][]> tuples = new ArrayList<>(forbiddenTuples.size());
+        for (int[][] forbiddenTuple : forbiddenTuples) {
+            int[] positions = Arrays.stream(forbiddenTuple[0]).map(column -> positionOf[column]).toArray();
+            tuples.add(sortedByColumn(positions, forbiddenTuple[1]));
+        }
+        return new ConstraintChecker(sizes, tuples);
+    }
+
+    boolean isEmpty() {
+        return forbiddenTuples.isEmpty();
+    }
+
+    /**
+     * @return a hash of the forbidden tuples that does not depend on their order,
+     *         so that constraints with the same effect have the same fingerprint
+     */
+    long fingerprint() {
+        long fingerprint = 0;
+        for (int[][] forbiddenTuple : forbiddenTuples) {
+            long tupleHash = 31L * Arrays.hashCode(forbiddenTuple[0]) + Arrays.hashCode(forbiddenTuple[1]);
+            tupleHash *= 0x9E3779B97F4A7C15L;
+            fingerprint += tupleHash ^ (tupleHash >>> 29);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return whether the value can be assigned to the cell without forming
+     *         a forbidden tuple together with the other (non don't-care) values of the row
+     */
+    boolean isAllowed(int[] row, int column, int value) {
+        return isAllowed(row, 0, column, value);
+    }
+
+    /**
+     * Like {@link #isAllowed(int[], int, int)} for the row that starts at cells[offset].
+     */
+    boolean isAllowed(int[] cells, int offset, int column, int value) {
+        if (forbiddenValues[column][value]) {
+            return false;
+        }
+        int[] partners = partnerColumns[column][value];
+        long[][] masks = partnerMasks[column][value];
+        for (int p = 0; p < partners.length; p++) {
+            int partnerValue = cells[offset + partners[p]];
+            if (partnerValue != DONT_CARE_VALUE
+                    && (masks[p][partnerValue / Long.SIZE] & (1L << partnerValue)) != 0) {
+                return false;
+            }
+        }
+        tuple_loop:
+        for (int[][] forbiddenTuple : largerTuples[column][value]) {
+            int[] columns = forbiddenTuple[0], values = forbiddenTuple[1];
+            for (int j = 0; j < columns.length; j++) {
+                if (columns[j] != column && cells[offset + columns[j]] != values[j]) {
+                    continue tuple_loop;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Assigns the values of a value combination to the don't-care cells of the row,
+     * unless this would form a forbidden tuple, in which case the row stays unchanged.
+     * @param parameterCombination the columns in the internal order
+     * @param length only the first length columns of the combination are assigned
+     * @return whether the values have been assigned
+     */
+    boolean tryAssign(int[] row, int[] parameterCombination, int[] valueCombination, int length,
+                      int[] originalOrder) {
+        int[] columns = new int[length];
+        for (int j = 0; j < length; j++) {
+            columns[j] = originalOrder[parameterCombination[j]];
+        }
+        return tryAssign(row, 0, columns, valueCombination, length);
+    }
+
+    /**
+     * Like {@link #tryAssign(int[], int[], int[], int, int[])} for the row that starts at cells[offset].
+     * @param columns the columns of the checker (i.e. positions in the internal order
+     *                for a checker from {@link #inInternalOrder(int[])})
+     */
+    boolean tryAssign(int[] cells, int offset, int[] columns, int[] valueCombination, int length) {
+        boolean[] assigned = new boolean[length];
+        for (int j = 0; j < length; j++) {
+            int column = columns[j];
+            if (cells[offset + column] != DONT_CARE_VALUE) {
+                continue;
+            }
+            if (!isEmpty() && !isAllowed(cells, offset, column, valueCombination[j])) {
+                for (int k = 0; k < j; k++) {
+                    if (assigned[k]) {
+                        cells[offset + columns[k]] = DONT_CARE_VALUE;
+                    }
+                }
+                return false;
+            }
+            cells[offset + column] = valueCombination[j];
+            assigned[j] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Restricts the best value of the horizontal growth to the values that are allowed in the cell.
+     * @param gains gains[i] = coverage of value i
+     * @param best best[0] = value with max coverage; best[1] = max coverage
+     */
+    void restrictToAllowedValues(int[] row, int column, int[] gains, int[] best) {
+        restrictToAllowedValues(row, 0, column, gains, best);
+    }
+
+    /**
+     * Like {@link #restrictToAllowedValues(int[], int, int[], int[])} for the row that starts at cells[offset].
+     */
+    void restrictToAllowedValues(int[] cells, int offset, int column, int[] gains, int[] best) {
+        best[0] = 0;
+        best[1] = 0;
+        for (int value = 0; value < gains.length; value++) {
+            if (gains[value] > best[1] && isAllowed(cells, offset, column, value)) {
+                best[0] = value;
+                best[1] = gains[value];
+            }
+        }
+    }
+
+    /**
+     * @return for every column, the sum of the shares of the value combinations that are forbidden
+     *         by the forbidden tuples which contain the column
+     */
+    double[] forbiddenDensities() {
+        double[] densities = new double[parameterSizes.length];
+        for (int[][] forbiddenTuple : forbiddenTuples) {
+            double share = 1;
+            for (int column : forbiddenTuple[0]) {
+                share /= parameterSizes[column];
+            }
+            for (int column : forbiddenTuple[0]) {
+                densities[column] += share;
+            }
+        }
+        return densities;
+    }
+
+    /**
+     * Marks the value combinations of the coverage map that contain a forbidden tuple as covered,
+     * so that neither the horizontal nor the vertical growth tries to cover them.
+     * @param i the column (in the internal order) that is fixed in the coverage map
+     * @return the number of combinations that have been marked
+     */
+    int markInfeasibleCombinationsAsCovered(CoverageMap coverageMap, int i,
+                                            int[] originalOrder, int[] alphabetSizes) {
+        int[] positionOf = new int[originalOrder.length];
+        for (int position = 0; position < originalOrder.length; position++) {
+            positionOf[originalOrder[position]] = position;
+        }
+        int coveredBefore = coverageMap.totalCoveredValueCombinationsCount();
+        for (int[] columnSelection : coverageMap.getColumnSelections()) {
+            int length = columnSelection.length;
+            int[] indexInSelection = new int[i + 1];
+            Arrays.fill(indexInSelection, -1);
+            for (int j = 0; j < length; j++) {
+                indexInSelection[columnSelection[j]] = j;
+            }
+            int[] parameterCombination = Arrays.copyOf(columnSelection, length - 1);
+            forbidden_loop:
+            for (int[][] forbiddenTuple : forbiddenTuples) {
+                int[] columns = forbiddenTuple[0], values = forbiddenTuple[1];
+                if (columns.length > length) {
+                    continue;  // cannot be contained in this column selection
+                }
+                // fix the values of the forbidden tuple, all the other values of the selection are free
+                int[] fixedValues = new int[length];
+                Arrays.fill(fixedValues, DONT_CARE_VALUE);
+                for (int j = 0; j < columns.length; j++) {
+                    int position = positionOf[columns[j]];
+                    if (position > i || indexInSelection[position] == -1) {
+                        continue forbidden_loop;
+                    }
+                    fixedValues[indexInSelection[position]] = values[j];
+                }
+                int[] sizes = new int[length];
+                for (int j = 0; j < length; j++) {
+                    sizes[j] = fixedValues[j] == DONT_CARE_VALUE ? alphabetSizes[columnSelection[j]] : 1;
+                }
+                for (int[] free : new CombinatoricUtils.CartesianProduct(sizes)) {
+                    int[] valueCombination = new int[length - 1];
+                    for (int j = 0; j < length - 1; j++) {
+                        valueCombination[j] = fixedValues[j] == DONT_CARE_VALUE ? free[j] : fixedValues[j];
+                    }
+                    coverageMap.markAsCovered(parameterCombination, valueCombination,
+                            fixedValues[length - 1] == DONT_CARE_VALUE ? free[length - 1] : fixedValues[length - 1]);
+                }
+            }
+        }
+        return coverageMap.totalCoveredValueCombinationsCount() - coveredBefore;
+    }
+
+    /**
+     * Replaces the don't-care values of the row by values that do not form a forbidden tuple
+     * (depth-first search with backtracking, trying the values in ascending order).
+     * @return false if there is no such assignment, in which case the row stays unchanged
+     */
+    boolean fillDontCareValues(int[] row) {
+        List<Integer> dontCareColumns = new ArrayList<>();
+        for (int column = 0; column < row.length; column++) {
+            if (row[column] == DONT_CARE_VALUE) {
+                dontCareColumns.add(column);
+            }
+        }
+        return fillDontCareValues(row, dontCareColumns, 0);
+    }
+
+    private boolean fillDontCareValues(int[] row, List<Integer> dontCareColumns, int index) {
+        if (index == dontCareColumns.size()) {
+            return true;
+        }
+        int column = dontCareColumns.get(index);
+        for (int value = 0; value < parameterSizes[column]; value++) {
+            if (isAllowed(row, column, value)) {
+                row[column] = value;
+                if (fillDontCareValues(row, dontCareColumns, index + 1)) {
+                    return true;
+                }
+            }
+        }
+        row[column] = DONT_CARE_VALUE;
+        return false;
+    }
+}
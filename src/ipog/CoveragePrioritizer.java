@@ -0,0 +1,161 @@
+package ipog;
+
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Reorders the rows of a covering array so that the number of covered t-way value combinations
+ * grows as fast as possible, i.e. a prefix of the tests already covers most of the combinations
+ * (for test runs that stop at the first failure or are cut short).
+ * The rows are chosen greedily: the next row is the one that covers the most combinations that
+ * the rows before have not covered. The covered combinations are kept in a bit set that is indexed by
+ * the rank of the column selection and the value combination. Since the gain of a row can only decrease,
+ * the rows are kept in a priority queue by their last computed gain and only the gain of the head
+ * is recomputed (lazy greedy): if it is still not smaller than the gain of the next row, the row is chosen.
+ */
+public final class CoveragePrioritizer {
+    private final int numberOfParameters, strength;
+    private final int[] alphabetSizes;
+    private final int[] columnSelections;  // the column selections of t columns in lexicographic order, one after another
+    private final long[] offsets;  // offsets[s] = index of the first value combination of column selection s in the bit set
+    private long[] coverageCurve = new long[0];
+
+    /**
+     * @throws IllegalArgumentException if the strength is not positive or larger than the number of parameters,
+     *                                  or if there are too many value combinations for the bit set
+     */
+    public CoveragePrioritizer(List<Parameter<?>> parameters, int strength) {
+        Preconditions.checkNotNull(parameters);
+        Preconditions.checkArgument(strength > 0, Preconditions.STRENGTH_TOO_SMALL);
+        Preconditions.checkArgument(strength <= parameters.size(), Preconditions.STRENGTH_TOO_BIG);
+        this.numberOfParameters = parameters.size();
+        this.strength = strength;
+        this.alphabetSizes = parameters.stream().mapToInt(Parameter::size).toArray();
+        long numberOfColumnSelections = 1;
+        for (int j = 0; j < strength; j++) {
+            numberOfColumnSelections = numberOfColumnSelections * (numberOfParameters - j) / (j + 1);
+        }
+        Preconditions.checkArgument(numberOfColumnSelections * strength < Integer.MAX_VALUE,
+                Preconditions.TOO_MANY_COMBOS);
+        columnSelections = new int[(int) numberOfColumnSelections * strength];
+        offsets = new long[(int) numberOfColumnSelections + 1];
+        int[] columnSelection = new int[strength];
+        for (int j = 0; j < strength; j++) {
+            columnSelection[j] = j;
+        }
+        int s = 0;
+        do {
+            System.arraycopy(columnSelection, 0, columnSelections, s * strength, strength);
+            long numberOfValueCombinations = 1;
+            for (int column : columnSelection) {
+                numberOfValueCombinations *= alphabetSizes[column];
+            }
+            offsets[s + 1] = offsets[s] + numberOfValueCombinations;
+            s++;
+        }
+        while (CombinatoricUtils.nextKCombination(columnSelection, numberOfParameters));
+        Preconditions.checkArgument(offsets[s] / Long.SIZE < Integer.MAX_VALUE, Preconditions.TOO_MANY_COMBOS);
+    }
+
+    /**
+     * @return a covering array with the same rows in the order of their coverage gains
+     * @throws IllegalArgumentException if the covering array has other parameters
+     */
+    public CoveringArray prioritize(CoveringArray coveringArray) {
+        checkParameters(coveringArray.getParameters());
+        // unpacked once, the gains of the rows are computed many times
+        List<int[]> rows = new ArrayList<>(coveringArray.getTable());
+        List<int[]> prioritizedRows = new ArrayList<>(rows.size());
+        for (int row : order(rows)) {
+            prioritizedRows.add(rows.get(row));
+        }
+        return new CoveringArray(coveringArray.getParameters(), prioritizedRows);
+    }
+
+    /**
+     * @return coverageCurve[j] = the number of t-way value combinations that the first j + 1 rows
+     *         of the last prioritized covering array cover
+     */
+    public long[] getCoverageCurve() {
+        return coverageCurve.clone();
+    }
+
+    /**
+     * @return the number of t-way value combinations of the parameters, i.e. the end of the coverage curve
+     *         of a covering array of strength t (without constraints)
+     */
+    public long getNumberOfValueCombinations() {
+        return offsets[offsets.length - 1];
+    }
+
+    void checkParameters(List<Parameter<?>> parameters) {
+        Preconditions.checkArgument(Arrays.equals(alphabetSizes,
+                parameters.stream().mapToInt(Parameter::size).toArray()), Preconditions.PRIORITIZATION_MISMATCH);
+    }
+
+    /**
+     * @return the indices of the rows in the order of their coverage gains (rows that cover nothing new
+     *         at the end, in their original order); also computes the coverage curve
+     */
+    int[] order(List<int[]> rows) {
+        long[] covered = new long[(int) ((getNumberOfValueCombinations() + Long.SIZE - 1) / Long.SIZE)];
+        // {gain, row, step of the computation of the gain}, the largest gain first, ties in the original order
+        PriorityQueue<int[]> queue = new PriorityQueue<>(Math.max(1, rows.size()),
+                Comparator.<int[]>comparingInt(entry -> -entry[0]).thenComparingInt(entry -> entry[1]));
+        for (int row = 0; row < rows.size(); row++) {
+            queue.add(new int[]{gain(rows.get(row), covered, false), row, 0});
+        }
+        int[] order = new int[rows.size()];
+        long[] curve = new long[rows.size()];
+        long coveredCount = 0;
+        int step = 0;
+        while (!queue.isEmpty() && queue.peek()[0] > 0) {
+            int[] head = queue.poll();
+            if (head[2] != step) {
+                // the gain is stale, the rows chosen since it was computed might cover some of its combinations
+                head[0] = gain(rows.get(head[1]), covered, false);
+                head[2] = step;
+                if (head[0] == 0 || !queue.isEmpty() && queue.comparator().compare(head, queue.peek()) > 0) {
+                    queue.add(head);
+                    continue;
+                }
+            }
+            coveredCount += gain(rows.get(head[1]), covered, true);
+            curve[step] = coveredCount;
+            order[step++] = head[1];
+        }
+        int[] remainingRows = queue.stream().mapToInt(entry -> entry[1]).sorted().toArray();
+        for (int row : remainingRows) {
+            curve[step] = coveredCount;
+            order[step++] = row;
+        }
+        coverageCurve = curve;
+        return order;
+    }
+
+    // the number of the value combinations of the row that are not covered yet, marks them as covered if asked to
+    private int gain(int[] row, long[] covered, boolean markAsCovered) {
+        int gain = 0;
+        selections:
+        for (int s = 0; s < offsets.length - 1; s++) {
+            long valueCombinationRank = 0;
+            for (int j = s * strength; j < (s + 1) * strength; j++) {
+                int value = row[columnSelections[j]];
+                if (value == DONT_CARE_VALUE) {
+                    continue selections;
+                }
+                valueCombinationRank = valueCombinationRank * alphabetSizes[columnSelections[j]] + value;
+            }
+            long index = offsets[s] + valueCombinationRank;
+            long bit = 1L << index;
+            if ((covered[(int) (index >>> 6)] & bit) == 0) {
+                gain++;
+                if (markAsCovered) {
+                    covered[(int) (index >>> 6)] |= bit;
+                }
+            }
+        }
+        return gain;
+    }
+}
@@ -1,11 +1,17 @@
 package ipog;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
     private final List<Parameter<?>> parameters;
-    private final List<int[]> coveringArray;
+    private final PackedTable table;
     private final int numberOfColumns;  // number of parameters (k)
     private final int numberOfRows;  // number of tests (N)
 
@@ -15,15 +21,20 @@ public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
     private Map<String, Integer> parameterNameToColumnIndexMap;
 
     CoveringArray(List<Parameter<?>> parameters, List<int[]> coveringArray) {
+        this(parameters, PackedTable.of(Preconditions.checkNotNull(coveringArray),
+                Preconditions.checkNotNull(parameters).stream().mapToInt(Parameter::size).toArray(),
+                PackedTable.Layout.ROW_MAJOR));
+    }
+
+    CoveringArray(List<Parameter<?>> parameters, PackedTable table) {
         Preconditions.checkNotNull(parameters);
-        Preconditions.checkNotNull(coveringArray);
-        Preconditions.checkArgument(coveringArray.size() > 0);
+        Preconditions.checkNotNull(table);
         Preconditions.checkArgument(parameters.size() > 0);
-        Preconditions.checkArgument(parameters.size() == coveringArray.get(0).length);
-        this.numberOfRows = coveringArray.size();
-        this.numberOfColumns = coveringArray.get(0).length;
+        Preconditions.checkArgument(parameters.size() == table.numberOfColumns());
+        this.numberOfRows = table.numberOfRows();
+        this.numberOfColumns = parameters.size();
         this.parameters = parameters;
-        this.coveringArray = coveringArray;
+        this.table = table;
         fillParameterNameToColumnIndexMap(parameters);
     }
 
@@ -36,7 +47,7 @@ public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
 
     public List<LinkedHashMap<String, Object>> getCoveringArrayAsLinkedHashMap(boolean randomizeDontCares) {
         List<LinkedHashMap<String, Object>> ca = new ArrayList<>(numberOfRows);
-        for (int row = 0; row < coveringArray.size(); row++) {
+        for (int row = 0; row < numberOfRows; row++) {
             LinkedHashMap<String, Object> nextRow = new LinkedHashMap<>(numberOfColumns);
             for (int column = 0; column < numberOfColumns; column++) {
                 nextRow.put(getParameterName(column), getValue(column, row, randomizeDontCares));
@@ -48,7 +59,7 @@ public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
 
     public Object getValue(int column, int row, boolean randomizeDontCares) {
         Object value;
-        int valueIndex = coveringArray.get(row)[column];
+        int valueIndex = table.get(row, column);
         if (valueIndex != DONT_CARE_VALUE) {
             value = parameters.get(column).getValues().get(valueIndex);
         }
@@ -79,8 +90,26 @@ public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
         return parameters;
     }
 
+    /**
+     * @return the value indices of the rows; every access of a row copies it from the packed table
+     *         (see {@link #getPackedTable()}), so changes of the arrays do not change the covering array
+     */
     public List<int[]> getTable() {
-        return coveringArray;
+        return table.asList();
+    }
+
+    /**
+     * @return the cells in their compact representation
+     */
+    public PackedTable getPackedTable() {
+        return table;
+    }
+
+    /**
+     * @return a covering array with the same rows whose cells are stored in the given layout
+     */
+    public CoveringArray withLayout(PackedTable.Layout layout) {
+        return new CoveringArray(parameters, table.withLayout(layout));
     }
 
     public int numberOfColumns() {
@@ -91,6 +120,146 @@ public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
         return numberOfRows;
     }
 
+    /**
+     * Splits the rows into shards with about the same total cost, e.g. for executing the tests in parallel.
+     * The rows are assigned in the order of their descending costs, each to the shard with the smallest
+     * total cost so far (longest processing time first), so the most expensive shard costs at most
+     * 4/3 times the optimum. Within a shard the rows keep their order.
+     * @param rowCost the cost of the row with the given index, e.g. the expected runtime of the test
+     * @return numberOfShards shards (some are empty if there are fewer rows)
+     * @throws IllegalArgumentException if the number of shards is not positive or a cost is negative or NaN
+     */
+    public List<Shard> shard(int numberOfShards, IntToDoubleFunction rowCost) {
+        return shard(numberOfShards, rowCost, null);
+    }
+
+    /**
+     * Like {@link #shard(int, IntToDoubleFunction)}, but the rows of every shard are ordered
+     * by the prioritizer, so that every shard covers as many value combinations as early as possible.
+     * @param prioritizer null to keep the order of the rows
+     */
+    public List<Shard> shard(int numberOfShards, IntToDoubleFunction rowCost, CoveragePrioritizer prioritizer) {
+        Preconditions.checkArgument(numberOfShards > 0, Preconditions.SHARDS_NOT_POSITIVE);
+        if (prioritizer != null) {
+            prioritizer.checkParameters(parameters);
+        }
+        double[] costs = new double[numberOfRows];
+        for (int row = 0; row < numberOfRows; row++) {
+            costs[row] = rowCost.applyAsDouble(row);
+            Preconditions.checkArgument(costs[row] >= 0, Preconditions.INVALID_ROW_COST);
+        }
+        int[] rowsByCost = IntStream.range(0, numberOfRows).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(row -> -costs[row]).thenComparingInt(row -> row))
+                .mapToInt(Integer::intValue).toArray();
+        double[] shardCosts = new double[numberOfShards];
+        int[] shardOfRow = new int[numberOfRows];
+        int[] shardSizes = new int[numberOfShards];
+        // the shard with the smallest cost first, ties by the index of the shard
+        PriorityQueue<Integer> shards = new PriorityQueue<>(numberOfShards,
+                Comparator.<Integer>comparingDouble(shard -> shardCosts[shard]).thenComparingInt(shard -> shard));
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            shards.add(shard);
+        }
+        for (int row : rowsByCost) {
+            int shard = shards.poll();
+            shardOfRow[row] = shard;
+            shardSizes[shard]++;
+            shardCosts[shard] += costs[row];
+            shards.add(shard);
+        }
+        int[][] rowIndices = new int[numberOfShards][];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            rowIndices[shard] = new int[shardSizes[shard]];
+            shardSizes[shard] = 0;
+        }
+        for (int row = 0; row < numberOfRows; row++) {
+            rowIndices[shardOfRow[row]][shardSizes[shardOfRow[row]]++] = row;
+        }
+        List<Shard> result = new ArrayList<>(numberOfShards);
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            int[] indices = rowIndices[shard];
+            if (prioritizer != null) {
+                List<int[]> rows = new ArrayList<>(indices.length);
+                for (int row : indices) {
+                    rows.add(table.getRow(row));
+                }
+                int[] order = prioritizer.order(rows);
+                for (int j = 0; j < order.length; j++) {
+                    order[j] = indices[order[j]];
+                }
+                indices = order;
+            }
+            result.add(new Shard(this, shard, indices, shardCosts[shard]));
+        }
+        return result;
+    }
+
+    /**
+     * A part of the rows of a covering array; the rows are read from the covering array when they are accessed.
+     */
+    public static final class Shard {
+        private final CoveringArray coveringArray;
+        private final int index;
+        private final int[] rowIndices;
+        private final double cost;
+
+        private Shard(CoveringArray coveringArray, int index, int[] rowIndices, double cost) {
+            this.coveringArray = coveringArray;
+            this.index = index;
+            this.rowIndices = rowIndices;
+            this.cost = cost;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the indices of the rows of the shard in the covering array, in the order of the shard
+         */
+        public int[] getRowIndices() {
+            return rowIndices.clone();
+        }
+
+        public int numberOfRows() {
+            return rowIndices.length;
+        }
+
+        /**
+         * @return the sum of the costs of the rows
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        /**
+         * @return a copy of the value indices of the row of the shard
+         */
+        public int[] getRow(int row) {
+            return coveringArray.table.getRow(rowIndices[row]);
+        }
+
+        public Object getValue(int column, int row, boolean randomizeDontCares) {
+            return coveringArray.getValue(column, rowIndices[row], randomizeDontCares);
+        }
+
+        /**
+         * @return the value indices of the rows, one row after another, without creating maps of the values
+         */
+        public Stream<int[]> rows() {
+            return Arrays.stream(rowIndices).mapToObj(coveringArray.table::getRow);
+        }
+
+        @Override
+        public String toString() {
+            return "Shard{" +
+                    "index=" + index +
+                    ", numberOfRows=" + rowIndices.length +
+                    ", cost=" + cost +
+                    '}';
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder caAsString = new StringBuilder();
@@ -108,19 +277,21 @@ public class CoveringArray implements Iterable<LinkedHashMap<String, Object>> {
         return caAsString.toString();
     }
 
+    /**
+     * @return the covering array as CSV (see {@link CoveringArrayWriter} for writing large ones without
+     *         building the whole text in memory)
+     */
     public String toCsv(boolean randomizeDontCares) {
-        StringBuilder table = new StringBuilder();
-        for (int parameter = 0; parameter < numberOfColumns(); parameter++) {
-            table.append(parameters.get(parameter).getName())
-                    .append(parameter < numberOfColumns() - 1 ? "," : "");
-        }
-        table.append("\n");
-        for (int test = 0; test < numberOfRows(); test++) {
-            for (int parameter = 0; parameter < numberOfColumns(); parameter++) {
-                table.append(getValue(parameter, test, randomizeDontCares));
-                table.append(parameter < numberOfColumns() - 1 ? "," : "");
-            }
-            table.append("\n");
+        CoveringArrayWriter writer = new CoveringArrayWriter(CoveringArrayWriter.Format.CSV);
+        if (randomizeDontCares) {
+            writer.randomizeDontCares();
+        }
+        StringWriter table = new StringWriter();
+        try {
+            writer.write(this, table);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
         }
         return table.toString();
     }
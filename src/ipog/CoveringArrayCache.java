@@ -0,0 +1,277 @@
+package ipog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Two-level cache (in-memory LRU and an optional directory on disk) of generated covering arrays.
+ * The generation only depends on the parameter sizes, the strength, the algorithm options and the seed,
+ * so the index tables are stored in the internal order (the sizes in the order of the parameter ordering,
+ * by default descending) and can be reused for every model with the same size signature (e.g. 3^4 2^6).
+ * A disk entry is named after a hash of its key and repeats the key, so that collisions are detected.
+ * Layout (big endian): magic, version, strength, k, base algorithm, option flags, seed,
+ * sizes (k ints), N, cell width in bytes, N * k cells (value + 1).
+ */
+public final class CoveringArrayCache {
+    private static final int MAGIC = 0x49504341;  // "IPCA"
+    private static final int VERSION = 2;
+    private static final String FILE_EXTENSION = ".ipca";
+
+    private final int maximumSize;
+    private final Path directory;
+    private final LinkedHashMap<Key, int[][]> entries;
+    private long hitCount, missCount;
+
+    /**
+     * In-memory cache only.
+     * @param maximumSize the number of covering arrays that are kept in memory
+     */
+    public CoveringArrayCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * @param maximumSize the number of covering arrays that are kept in memory
+     * @param directory where the covering arrays are stored on disk (created if necessary);
+     *                  the least recently used ones are only evicted from memory
+     */
+    public CoveringArrayCache(int maximumSize, Path directory) {
+        Preconditions.checkArgument(maximumSize > 0);
+        this.maximumSize = maximumSize;
+        this.directory = directory;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, int[][]> eldest) {
+                return size() > CoveringArrayCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached rows (in the internal order) or an empty optional on a cache miss
+     */
+    synchronized Optional<List<int[]>> get(Key key) {
+        int[][] table = entries.get(key);
+        if (table == null && directory != null) {
+            table = read(key);
+            if (table != null) {
+                entries.put(key, table);
+            }
+        }
+        if (table == null) {
+            missCount++;
+            return Optional.empty();
+        }
+        hitCount++;
+        List<int[]> rows = new ArrayList<>(table.length);
+        for (int[] row : table) {
+            rows.add(row.clone());
+        }
+        return Optional.of(rows);
+    }
+
+    /**
+     * @param rows the rows of the covering array in the internal order
+     */
+    synchronized void put(Key key, List<int[]> rows) {
+        int[][] table = new int[rows.size()][];
+        for (int row = 0; row < table.length; row++) {
+            table[row] = rows.get(row).clone();
+        }
+        entries.put(key, table);
+        if (directory != null) {
+            try {
+                write(key, table);
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Removes all the covering arrays from memory (but not from disk).
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    // a missing or corrupt file is a cache miss
+    private int[][] read(Key key) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(fileOf(key), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file
+            }
+        }
+        catch (NoSuchFileException exception) {
+            return null;
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        buffer.flip();
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != key.strength) {
+                return null;
+            }
+            int numberOfParameters = buffer.getInt();
+            if (numberOfParameters != key.parameterSizes.length || buffer.getInt() != key.baseAlgorithm.ordinal()
+                    || buffer.get() != key.optionFlags || buffer.getLong() != key.seed) {
+                return null;
+            }
+            for (int parameterSize : key.parameterSizes) {
+                if (buffer.getInt() != parameterSize) {
+                    return null;
+                }
+            }
+            int numberOfRows = buffer.getInt();
+            int cellWidth = buffer.get();
+            int[][] table = new int[numberOfRows][numberOfParameters];
+            for (int[] row : table) {
+                for (int column = 0; column < numberOfParameters; column++) {
+                    switch (cellWidth) {
+                        case Byte.BYTES:
+                            row[column] = Byte.toUnsignedInt(buffer.get()) - 1;
+                            break;
+                        case Short.BYTES:
+                            row[column] = Short.toUnsignedInt(buffer.getShort()) - 1;
+                            break;
+                        default:
+                            row[column] = buffer.getInt() - 1;
+                    }
+                }
+            }
+            return table;
+        }
+        catch (BufferUnderflowException exception) {
+            return null;
+        }
+    }
+
+    private void write(Key key, int[][] table) throws IOException {
+        Files.createDirectories(directory);
+        int numberOfParameters = key.parameterSizes.length;
+        // the largest domain is not necessarily the first one, e.g. with a random parameter ordering
+        int maxParameterSize = Arrays.stream(key.parameterSizes).max().orElse(0);
+        int cellWidth = maxParameterSize < 0xFF ? Byte.BYTES
+                : maxParameterSize < 0xFFFF ? Short.BYTES : Integer.BYTES;
+        long size = 5 * Integer.BYTES + 1 + Long.BYTES + (long) numberOfParameters * Integer.BYTES
+                + Integer.BYTES + 1 + (long) table.length * numberOfParameters * cellWidth;
+        if (size > Integer.MAX_VALUE) {
+            return;  // only kept in memory
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(key.strength).putInt(numberOfParameters)
+                .putInt(key.baseAlgorithm.ordinal()).put(key.optionFlags).putLong(key.seed);
+        for (int parameterSize : key.parameterSizes) {
+            buffer.putInt(parameterSize);
+        }
+        buffer.putInt(table.length).put((byte) cellWidth);
+        for (int[] row : table) {
+            for (int value : row) {
+                int cell = value == DONT_CARE_VALUE ? 0 : value + 1;
+                switch (cellWidth) {
+                    case Byte.BYTES:
+                        buffer.put((byte) cell);
+                        break;
+                    case Short.BYTES:
+                        buffer.putShort((short) cell);
+                        break;
+                    default:
+                        buffer.putInt(cell);
+                }
+            }
+        }
+        buffer.flip();
+        Path file = fileOf(key);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path fileOf(Key key) {
+        return directory.resolve(String.format("%016x", key.longHashCode()) + FILE_EXTENSION);
+    }
+
+    /**
+     * Everything the generated index table depends on.
+     */
+    static final class Key {
+        private final int[] parameterSizes;  // in the internal order
+        private final int strength;
+        private final BaseAlgorithm baseAlgorithm;
+        private final byte optionFlags;
+        private final long seed;
+
+        Key(int[] parameterSizes, int strength, BaseAlgorithm baseAlgorithm, byte optionFlags, long seed) {
+            this.parameterSizes = parameterSizes.clone();
+            this.strength = strength;
+            this.baseAlgorithm = baseAlgorithm;
+            this.optionFlags = optionFlags;
+            this.seed = seed;
+        }
+
+        // 64-bit FNV-1a, so that file names of different keys rarely collide
+        private long longHashCode() {
+            long hash = 0xCBF29CE484222325L;
+            long[] fields = new long[]{strength, baseAlgorithm.ordinal(), optionFlags, seed};
+            for (long field : fields) {
+                hash = (hash ^ field) * 0x100000001B3L;
+            }
+            for (int parameterSize : parameterSizes) {
+                hash = (hash ^ parameterSize) * 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return strength == key.strength && optionFlags == key.optionFlags && seed == key.seed
+                    && baseAlgorithm == key.baseAlgorithm && Arrays.equals(parameterSizes, key.parameterSizes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(longHashCode());
+        }
+    }
+}
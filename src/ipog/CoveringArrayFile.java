@@ -0,0 +1,238 @@
+package ipog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Binary file of a covering array for passing it between the stages of a pipeline: it is written
+ * without converting the cells to text and opened by mapping the file into memory, so that opening
+ * only reads the header and the rows are read from the mapped file when they are accessed.
+ * Layout (little endian): magic, version, strength, generator options (string), k, per parameter
+ * its name (string), size and values (a type tag followed by the value), N, bits per cell, layout,
+ * padding to a multiple of 8 bytes and the cells of the {@link PackedTable}.
+ * Strings are stored as their number of UTF-8 bytes followed by the bytes. Values of the types String,
+ * Integer, Long, Boolean, Double and Character are read back as such, other values as their strings.
+ * The file is written to a temporary sibling first and then moved to its name,
+ * so that readers never see a partially written file.
+ */
+public final class CoveringArrayFile {
+    private static final int MAGIC = 0x49504346;  // "IPCF"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte STRING = 0, INTEGER = 1, LONG = 2, BOOLEAN = 3, DOUBLE = 4, CHARACTER = 5;
+
+    private final CoveringArray coveringArray;
+    private final int strength;
+    private final String generatorOptions;
+
+    private CoveringArrayFile(CoveringArray coveringArray, int strength, String generatorOptions) {
+        this.coveringArray = coveringArray;
+        this.strength = strength;
+        this.generatorOptions = generatorOptions;
+    }
+
+    /**
+     * @return the covering array, whose cells are read from the mapped file
+     */
+    public CoveringArray getCoveringArray() {
+        return coveringArray;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * @return the base algorithm and the options that have generated the covering array
+     *         (empty if they are unknown)
+     */
+    public String getGeneratorOptions() {
+        return generatorOptions;
+    }
+
+    /**
+     * Writes the covering array with the strength and the options of the run configuration that has generated it.
+     */
+    public static void write(CoveringArray coveringArray, RunConfiguration runConfiguration, Path file)
+            throws IOException {
+        StringJoiner options = new StringJoiner(" ");
+        options.add(runConfiguration.getBaseAlgorithm().name());
+        if (runConfiguration.isEnhanceHorizontal()) {
+            options.add(runConfiguration.isFullHorizontal() ? "fullHorizontal" : "enhanceHorizontal");
+        }
+        if (runConfiguration.isAdaptVertical()) {
+            options.add("adaptVertical");
+        }
+        if (runConfiguration.isMergeDontCareRows()) {
+            options.add("mergeDontCareRows");
+        }
+        if (runConfiguration.isRemoveRedundantRows()) {
+            options.add("removeRedundantRows");
+        }
+        if (runConfiguration.isFillDontCaresForHigherStrength()) {
+            options.add("fillDontCaresForHigherStrength");
+        }
+        options.add("algebraicConstruction=" + runConfiguration.getAlgebraicConstruction());
+        runConfiguration.getSeed().ifPresent(seed -> options.add("seed=" + seed));
+        write(coveringArray, runConfiguration.getStrength(), options.toString(), file);
+    }
+
+    /**
+     * @param generatorOptions a description of how the covering array has been generated (may be empty)
+     */
+    public static void write(CoveringArray coveringArray, int strength, String generatorOptions, Path file)
+            throws IOException {
+        Preconditions.checkNotNull(coveringArray);
+        Preconditions.checkNotNull(generatorOptions);
+        PackedTable table = coveringArray.getPackedTable();
+        ByteBuffer header = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(strength);
+        header = putString(header, generatorOptions);
+        header = ensureRemaining(header, Integer.BYTES);
+        header.putInt(coveringArray.numberOfColumns());
+        for (Parameter<?> parameter : coveringArray.getParameters()) {
+            header = putString(header, parameter.getName());
+            header = ensureRemaining(header, Integer.BYTES);
+            header.putInt(parameter.size());
+            for (Object value : parameter.getValues()) {
+                header = putValue(header, value);
+            }
+        }
+        header = ensureRemaining(header, 3 * Integer.BYTES + Long.BYTES);
+        header.putInt(table.numberOfRows()).putInt(table.getBitsPerCell()).putInt(table.getLayout().ordinal());
+        while (header.position() % Long.BYTES != 0) {
+            header.put((byte) 0);
+        }
+        header.flip();
+        Path target = file.toAbsolutePath();
+        Path temporaryFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            table.writeCells(channel, BUFFER_SIZE);
+        }
+        Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the file into memory and reads its header. The cells are not validated,
+     * a corrupt cell is only noticed when it is accessed.
+     * @throws IllegalArgumentException if the file is not a covering array file
+     */
+    public static CoveringArrayFile open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Preconditions.checkArgument(channel.size() <= Integer.MAX_VALUE, Preconditions.TABLE_TOO_LARGE);
+            // the mapping stays valid after the channel has been closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            Preconditions.checkArgument(buffer.getInt() == MAGIC && buffer.getInt() == VERSION,
+                    Preconditions.CORRUPT_COVERING_ARRAY_FILE);
+            int strength = buffer.getInt();
+            String generatorOptions = getString(buffer);
+            int numberOfColumns = buffer.getInt();
+            Preconditions.checkArgument(numberOfColumns > 0, Preconditions.CORRUPT_COVERING_ARRAY_FILE);
+            List<Parameter<?>> parameters = new ArrayList<>(numberOfColumns);
+            for (int column = 0; column < numberOfColumns; column++) {
+                String name = getString(buffer);
+                int size = buffer.getInt();
+                Preconditions.checkArgument(size > 0 && size <= buffer.remaining(),
+                        Preconditions.CORRUPT_COVERING_ARRAY_FILE);
+                List<Object> values = new ArrayList<>(size);
+                for (int value = 0; value < size; value++) {
+                    values.add(getValue(buffer));
+                }
+                parameters.add(new Parameter<>(name, values));
+            }
+            int numberOfRows = buffer.getInt(), bitsPerCell = buffer.getInt(), layout = buffer.getInt();
+            Preconditions.checkArgument(numberOfRows >= 0 && layout >= 0 && layout < PackedTable.Layout.values().length,
+                    Preconditions.CORRUPT_COVERING_ARRAY_FILE);
+            buffer.position((buffer.position() + Long.BYTES - 1) / Long.BYTES * Long.BYTES);
+            PackedTable table = PackedTable.wrap(buffer, numberOfRows, numberOfColumns, bitsPerCell,
+                    PackedTable.Layout.values()[layout]);
+            return new CoveringArrayFile(new CoveringArray(parameters, table), strength, generatorOptions);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+            throw new IllegalArgumentException(Preconditions.CORRUPT_COVERING_ARRAY_FILE, exception);
+        }
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), buffer.position() + bytes))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer = ensureRemaining(buffer, Integer.BYTES + bytes.length);
+        return buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        Preconditions.checkArgument(length >= 0 && length <= buffer.remaining(),
+                Preconditions.CORRUPT_COVERING_ARRAY_FILE);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer putValue(ByteBuffer buffer, Object value) {
+        buffer = ensureRemaining(buffer, 1 + Long.BYTES);
+        if (value instanceof Integer) {
+            return buffer.put(INTEGER).putInt((Integer) value);
+        }
+        if (value instanceof Long) {
+            return buffer.put(LONG).putLong((Long) value);
+        }
+        if (value instanceof Boolean) {
+            return buffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+        }
+        if (value instanceof Double) {
+            return buffer.put(DOUBLE).putDouble((Double) value);
+        }
+        if (value instanceof Character) {
+            return buffer.put(CHARACTER).putChar((Character) value);
+        }
+        return putString(buffer.put(STRING), String.valueOf(value));
+    }
+
+    private static Object getValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case STRING:
+                return getString(buffer);
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case DOUBLE:
+                return buffer.getDouble();
+            case CHARACTER:
+                return buffer.getChar();
+            default:
+                throw new IllegalArgumentException(Preconditions.CORRUPT_COVERING_ARRAY_FILE);
+        }
+    }
+}
@@ -34,50 +34,45 @@ public class CoveringArrayUtils {
         return strength - 1;
     }
 
+    // the covered value combinations are collected per column selection, in a bit set indexed by their rank
     public static boolean isStrengthCovered(CoveringArray coveringArray, int strength) {
         List<? extends Parameter<?>> parameters = coveringArray.getParameters();
-        Set<Set<Map.Entry<Integer, Integer>>> actualCoveredTuples = new HashSet<>();
+        List<int[]> rows = new ArrayList<>(coveringArray.getTable());  // decoded once
         int numberOfParameters = parameters.size();
-        for (int row = 0; row < coveringArray.numberOfRows(); row++) {
-            int[] parameterCombination = new int[strength];
-            for (int i = 0; i < strength; i++) {
-                parameterCombination[i] = i;
-            }
-            do {
-                Set<Map.Entry<Integer, Integer>> currentTuple = new HashSet<>(strength);
-                for (int tupleIndex = 0; tupleIndex < strength; tupleIndex++) {
-                    int parameter = parameterCombination[tupleIndex];
-                    Map.Entry<Integer, Integer> entry =
-                            new AbstractMap.SimpleEntry<>(parameter, coveringArray.getTable().get(row)[parameter]);
-                    currentTuple.add(entry);
-                }
-                actualCoveredTuples.add(currentTuple);
-            }
-            while (CombinatoricUtils.nextKCombination(parameterCombination, numberOfParameters));
-        }
-        // go over the all the tuples which are expected to be covered (mandatory that all those t-way tuples are covered)
-        int[] allAlphabetSizes = new int[numberOfParameters];
-        for (int i = 0; i < numberOfParameters; i++) {
-            allAlphabetSizes[i] = parameters.get(i).size();
-        }
         int[] alphabetSizes = new int[strength];
         int[] parameterCombination = new int[strength];
         for (int i = 0; i < strength; i++) {
             parameterCombination[i] = i;
         }
         do {
+            int numberOfCombinations = 1;
             for (int i = 0; i < strength; i++) {
-                alphabetSizes[i] = allAlphabetSizes[parameterCombination[i]];
+                alphabetSizes[i] = parameters.get(parameterCombination[i]).size();
+                numberOfCombinations *= alphabetSizes[i];
             }
-            for (int[] tuple : new CombinatoricUtils.CartesianProduct(alphabetSizes)) {
-                Set<Map.Entry<Integer, Integer>> valueCombination = new HashSet<>(strength);
-                for (int j = 0; j < strength; j++) {
-                    valueCombination.add(new AbstractMap.SimpleEntry<>(parameterCombination[j], tuple[j]));
+            BitSet actualCoveredTuples = new BitSet(numberOfCombinations);
+            row_loop:
+            for (int[] row : rows) {
+                int index = 0;
+                for (int i = strength - 1; i >= 0; i--) {
+                    int value = row[parameterCombination[i]];
+                    if (value == CoveringArray.DONT_CARE_VALUE) {
+                        continue row_loop;
+                    }
+                    index = index * alphabetSizes[i] + value;
                 }
-                if (!actualCoveredTuples.contains(valueCombination)) {
-                    System.out.println("tuple " + valueCombination + " is not covered");
-                    return false;
+                actualCoveredTuples.set(index);
+            }
+            int uncoveredIndex = actualCoveredTuples.nextClearBit(0);
+            if (uncoveredIndex < numberOfCombinations) {
+                Set<Map.Entry<Integer, Integer>> valueCombination = new LinkedHashSet<>(strength);
+                for (int i = 0; i < strength; i++) {
+                    valueCombination.add(new AbstractMap.SimpleEntry<>(parameterCombination[i],
+                            uncoveredIndex % alphabetSizes[i]));
+                    uncoveredIndex /= alphabetSizes[i];
                 }
+                System.out.println("tuple " + valueCombination + " is not covered");
+                return false;
             }
         }
         while (CombinatoricUtils.nextKCombination(parameterCombination, numberOfParameters));
@@ -92,7 +87,7 @@ public class CoveringArrayUtils {
         List<? extends Parameter<?>> parameters = coveringArray.getParameters();
         Set<Set<Map.Entry<Integer, Integer>>> actualCoveredTuples = new HashSet<>();
         int numberOfParameters = parameters.size();
-        for (int row = 0; row < coveringArray.numberOfRows(); row++) {
+        for (int[] row : coveringArray.getTable()) {
             int[] parameterCombination = new int[strength];
             for (int i = 0; i < strength; i++) {
                 parameterCombination[i] = i;
@@ -102,7 +97,7 @@ public class CoveringArrayUtils {
                 Set<Map.Entry<Integer, Integer>> currentTuple = new HashSet<>(strength);
                 for (int tupleIndex = 0; tupleIndex < strength; tupleIndex++) {
                     int parameter = parameterCombination[tupleIndex];
-                    int value = coveringArray.getTable().get(row)[parameter];
+                    int value = row[parameter];
                     if (value == CoveringArray.DONT_CARE_VALUE) {
                         continue k_subset_loop;
                     }
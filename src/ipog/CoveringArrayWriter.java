@@ -0,0 +1,216 @@
+package ipog;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+
+import static ipog.CoveringArray.DONT_CARE_SYMBOL;
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Writes a covering array as CSV or TSV (a header with the parameter names, then one line per row)
+ * without building the whole text in memory. The text of every value is encoded (and quoted, if it contains
+ * the delimiter, a quote or a line break) once per column and value; the rows are encoded in chunks
+ * directly from the packed table into a byte array, which is written before the next chunk is encoded.
+ * With several threads, the chunks are encoded in parallel and written in their order,
+ * with at most two chunks per thread in memory.
+ */
+public final class CoveringArrayWriter {
+    public enum Format {
+        CSV(','), TSV('\t');
+
+        private final char delimiter;
+
+        Format(char delimiter) {
+            this.delimiter = delimiter;
+        }
+    }
+
+    private static final int ROWS_PER_CHUNK = 4096;
+
+    private final Format format;
+    private boolean randomizeDontCares;
+    private long seed = ThreadLocalRandom.current().nextLong();
+    private int threads = 1;
+
+    public CoveringArrayWriter(Format format) {
+        this.format = Preconditions.checkNotNull(format);
+    }
+
+    /**
+     * Writes random values instead of {@link CoveringArray#DONT_CARE_SYMBOL} for the don't-care values.
+     * @param seed the seed of the random values, so that the output is reproducible
+     */
+    public CoveringArrayWriter randomizeDontCares(long seed) {
+        this.randomizeDontCares = true;
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Writes random values instead of {@link CoveringArray#DONT_CARE_SYMBOL} for the don't-care values.
+     */
+    public CoveringArrayWriter randomizeDontCares() {
+        return randomizeDontCares(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Encodes the chunks of rows with the given number of threads.
+     */
+    public CoveringArrayWriter threads(int threads) {
+        Preconditions.checkArgument(threads > 0, Preconditions.THREADS_NOT_POSITIVE);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Writes UTF-8; the stream is flushed, but not closed.
+     */
+    public void write(CoveringArray coveringArray, OutputStream outputStream) throws IOException {
+        write(coveringArray, (chunk, length) -> outputStream.write(chunk, 0, length));
+        outputStream.flush();
+    }
+
+    /**
+     * Writes UTF-8; the channel is not closed.
+     */
+    public void write(CoveringArray coveringArray, WritableByteChannel channel) throws IOException {
+        write(coveringArray, (chunk, length) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * The writer is flushed, but not closed. Slower than writing to a stream or channel,
+     * because the chunks are decoded into characters again.
+     */
+    public void write(CoveringArray coveringArray, Writer writer) throws IOException {
+        write(coveringArray, (chunk, length) -> writer.write(new String(chunk, 0, length, StandardCharsets.UTF_8)));
+        writer.flush();
+    }
+
+    @FunctionalInterface
+    private interface ChunkSink {
+        void accept(byte[] chunk, int length) throws IOException;
+    }
+
+    private void write(CoveringArray coveringArray, ChunkSink sink) throws IOException {
+        int numberOfColumns = coveringArray.numberOfColumns();
+        byte[][][] encodedValues = new byte[numberOfColumns][][];
+        Chunk header = new Chunk();
+        for (int column = 0; column < numberOfColumns; column++) {
+            Parameter<?> parameter = coveringArray.getParameter(column);
+            encodedValues[column] = new byte[parameter.size()][];
+            for (int value = 0; value < parameter.size(); value++) {
+                encodedValues[column][value] = encode(parameter.getValues().get(value));
+            }
+            if (column > 0) {
+                header.append((byte) format.delimiter);
+            }
+            header.append(encode(parameter.getName()));
+        }
+        header.append((byte) '\n');
+        sink.accept(header.bytes, header.length);
+        byte[] dontCareSymbol = encode(DONT_CARE_SYMBOL);
+        PackedTable table = coveringArray.getPackedTable();
+        int numberOfChunks = (table.numberOfRows() + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK;
+        if (threads == 1 || numberOfChunks < 2) {
+            for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+                Chunk encodedChunk = encodeChunk(table, chunk, encodedValues, dontCareSymbol);
+                sink.accept(encodedChunk.bytes, encodedChunk.length);
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayDeque<Future<Chunk>> pendingChunks = new ArrayDeque<>();
+            int nextChunk = 0;
+            while (nextChunk < numberOfChunks || !pendingChunks.isEmpty()) {
+                while (nextChunk < numberOfChunks && pendingChunks.size() < 2 * threads) {
+                    int chunk = nextChunk++;
+                    pendingChunks.add(executor.submit(() -> encodeChunk(table, chunk, encodedValues, dontCareSymbol)));
+                }
+                Chunk encodedChunk = pendingChunks.poll().get();
+                sink.accept(encodedChunk.bytes, encodedChunk.length);
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Chunk encodeChunk(PackedTable table, int chunk, byte[][][] encodedValues, byte[] dontCareSymbol) {
+        // the random values of a chunk only depend on the seed and the chunk, so that they do not depend on the threads
+        SplittableRandom random = new SplittableRandom(seed + chunk * 0x9E3779B97F4A7C15L);
+        int[] row = new int[table.numberOfColumns()];
+        Chunk encodedChunk = new Chunk();
+        for (int rowIndex = chunk * ROWS_PER_CHUNK;
+             rowIndex < Math.min(table.numberOfRows(), (chunk + 1) * ROWS_PER_CHUNK); rowIndex++) {
+            table.getRow(rowIndex, row);
+            for (int column = 0; column < row.length; column++) {
+                if (column > 0) {
+                    encodedChunk.append((byte) format.delimiter);
+                }
+                if (row[column] != DONT_CARE_VALUE) {
+                    encodedChunk.append(encodedValues[column][row[column]]);
+                }
+                else if (randomizeDontCares) {
+                    encodedChunk.append(encodedValues[column][random.nextInt(encodedValues[column].length)]);
+                }
+                else {
+                    encodedChunk.append(dontCareSymbol);
+                }
+            }
+            encodedChunk.append((byte) '\n');
+        }
+        return encodedChunk;
+    }
+
+    // RFC 4180 quoting
+    private byte[] encode(Object value) {
+        String text = String.valueOf(value);
+        if (text.indexOf(format.delimiter) >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            text = '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Chunk {
+        private byte[] bytes = new byte[1 << 16];
+        private int length;
+
+        private void append(byte b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+            }
+            bytes[length++] = b;
+        }
+
+        private void append(byte[] b) {
+            if (length + b.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + b.length));
+            }
+            System.arraycopy(b, 0, bytes, length, b.length);
+            length += b.length;
+        }
+    }
+}
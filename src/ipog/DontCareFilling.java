@@ -0,0 +1,138 @@
+package ipog;
+
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Replaces the don't-care values after the generation by values that cover as many (t + 1)-way
+ * value combinations as possible, so that the same rows detect more of the faults that need t + 1 values.
+ * The (t + 1)-way combinations that the rows (and the seed rows) already cover are marked in one
+ * coverage map of strength t + 1 per column, the rows are then visited in their order and their don't-care
+ * cells in the internal order: like in the horizontal growth, a cell gets the value that forms the most
+ * uncovered combinations with the cells before it (according to the coverage map of its column),
+ * ties are broken by the value that occurs least often in the column so far and then by the smallest value.
+ * With constraints, a value is only chosen if the remaining don't-care cells of the row can still be filled.
+ */
+final class DontCareFilling {
+    private final List<int[]> coveringArray;
+    private final List<int[]> seedRows;
+    private final int[] originalOrder, alphabetSizes;
+    private final int strength;
+    private final ConstraintChecker constraints;
+    private final GenerationGuard guard;
+    private int filledCellsCount;
+
+    /**
+     * @param strength the strength t of the covering array (the coverage maps have strength t + 1)
+     */
+    DontCareFilling(List<int[]> coveringArray, List<int[]> seedRows, int[] originalOrder, int[] alphabetSizes,
+                    int strength, ConstraintChecker constraints, GenerationGuard guard) {
+        this.coveringArray = coveringArray;
+        this.seedRows = seedRows;
+        this.originalOrder = originalOrder;
+        this.alphabetSizes = alphabetSizes;
+        this.strength = strength;
+        this.constraints = constraints;
+        this.guard = guard;
+    }
+
+    /**
+     * Fills the don't-care cells of the covering array (cells whose values would violate a constraint
+     * stay don't-care cells).
+     * @return the number of (t + 1)-way value combinations that are covered additionally by the filled cells
+     */
+    long fillDontCareValues() {
+        int numberOfParameters = originalOrder.length;
+        // the columns from position t onwards are the last columns of (t + 1)-column selections
+        CoverageMap[] coverageMaps = new CoverageMap[Math.max(0, numberOfParameters - strength)];
+        CombinatoricUtils.BinomialCoefficient binomialCoefficient;
+        try {
+            binomialCoefficient = new CombinatoricUtils.BinomialCoefficient(numberOfParameters - 1, strength);
+        }
+        catch (Exception exception) {
+            throw new IllegalArgumentException(Preconditions.TOO_MANY_COMBOS);
+        }
+        long coveredBefore = 0;
+        for (int i = strength; i < numberOfParameters; i++) {
+            CoverageMap coverageMap = CoverageMap.create(Arrays.copyOf(alphabetSizes, i + 1), strength + 1,
+                    binomialCoefficient, originalOrder, false, new int[0][], new int[0]);
+            for (int[] seedRow : seedRows) {
+                coverageMap.markAsCovered(seedRow);
+            }
+            for (int[] row : coveringArray) {
+                guard.check();
+                coverageMap.markAsCovered(row);
+            }
+            coveredBefore += coverageMap.totalCoveredValueCombinationsCount();
+            coverageMaps[i - strength] = coverageMap;
+        }
+        int[][] valueCounts = new int[numberOfParameters][];  // [position][value]
+        for (int position = 0; position < numberOfParameters; position++) {
+            valueCounts[position] = new int[alphabetSizes[position]];
+            for (int[] row : coveringArray) {
+                if (row[originalOrder[position]] != DONT_CARE_VALUE) {
+                    valueCounts[position][row[originalOrder[position]]]++;
+                }
+            }
+        }
+        for (int[] row : coveringArray) {
+            guard.check();
+            boolean filled = false;
+            for (int position = 0; position < numberOfParameters; position++) {
+                if (row[originalOrder[position]] == DONT_CARE_VALUE
+                        && fillCell(row, position, position >= strength ? coverageMaps[position - strength] : null,
+                        valueCounts[position])) {
+                    filled = true;
+                }
+            }
+            if (filled) {
+                for (CoverageMap coverageMap : coverageMaps) {
+                    coverageMap.markAsCovered(row);
+                }
+            }
+        }
+        long coveredAfter = 0;
+        for (CoverageMap coverageMap : coverageMaps) {
+            coveredAfter += coverageMap.totalCoveredValueCombinationsCount();
+        }
+        return coveredAfter - coveredBefore;
+    }
+
+    /**
+     * @return the number of don't-care cells that have been filled by the last call of {@link #fillDontCareValues()}
+     */
+    int getFilledCellsCount() {
+        return filledCellsCount;
+    }
+
+    // false if no value keeps the row satisfiable
+    private boolean fillCell(int[] row, int position, CoverageMap coverageMap, int[] valueCounts) {
+        int column = originalOrder[position];
+        int[] gains = coverageMap == null ? new int[alphabetSizes[position]]
+                : coverageMap.computeGainsOfFixedParameter(row, new int[2]);
+        Integer[] values = new Integer[alphabetSizes[position]];
+        for (int value = 0; value < values.length; value++) {
+            values[value] = value;
+        }
+        Arrays.sort(values, Comparator.<Integer>comparingInt(value -> -gains[value])
+                .thenComparingInt(value -> valueCounts[value]));
+        for (int value : values) {
+            if (!constraints.isEmpty()) {
+                if (!constraints.isAllowed(row, column, value)) {
+                    continue;
+                }
+                int[] candidate = row.clone();
+                candidate[column] = value;
+                if (!constraints.fillDontCareValues(candidate)) {
+                    continue;
+                }
+            }
+            row[column] = value;
+            valueCounts[value]++;
+            filledCellsCount++;
+            return true;
+        }
+        return false;
+    }
+}
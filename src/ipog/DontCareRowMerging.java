@@ -0,0 +1,129 @@
+package ipog;
+
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Merges rows whose fixed (non don't-care) cells do not contradict each other after the generation.
+ * The vertical growth adds rows that only fix the values of one missing combination,
+ * and they are never looked at again once their column has been processed.
+ * Two rows are compatible if they agree in every column in which both of them are fixed,
+ * which is checked on the bit masks of their fixed columns first. Since compatibility is decided column-wise,
+ * rows that are pairwise compatible can all be merged into one row, which makes the merging
+ * a coloring of the conflict graph: the rows are visited in descending order of their numbers of fixed cells
+ * (largest first) and every row is merged into the first merged row that it is compatible with.
+ * With constraints, a merged row also has to keep a valid assignment of its remaining don't-care cells.
+ */
+final class DontCareRowMerging {
+    private final List<int[]> coveringArray;
+    private final ConstraintChecker constraints;
+    private final GenerationGuard guard;
+
+    DontCareRowMerging(List<int[]> coveringArray, ConstraintChecker constraints, GenerationGuard guard) {
+        this.coveringArray = coveringArray;
+        this.constraints = constraints;
+        this.guard = guard;
+    }
+
+    /**
+     * Merges the compatible rows of the covering array; the merged rows keep the position
+     * of the first of their rows, so the covering array stays unchanged if no rows can be merged.
+     * @return the number of rows that have been merged into other rows (i.e. by how many rows it has shrunk)
+     */
+    int mergeRows() {
+        int numberOfRows = coveringArray.size();
+        if (numberOfRows < 2) {
+            return 0;
+        }
+        int numberOfColumns = coveringArray.get(0).length;
+        int words = (numberOfColumns + Long.SIZE - 1) / Long.SIZE;
+        long[][] fixedColumns = new long[numberOfRows][words];
+        int[] fixedCellsCounts = new int[numberOfRows];
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+            int[] row = coveringArray.get(rowIndex);
+            for (int column = 0; column < numberOfColumns; column++) {
+                if (row[column] != DONT_CARE_VALUE) {
+                    fixedColumns[rowIndex][column / Long.SIZE] |= 1L << column;
+                    fixedCellsCounts[rowIndex]++;
+                }
+            }
+        }
+        Integer[] visitingOrder = new Integer[numberOfRows];
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+            visitingOrder[rowIndex] = rowIndex;
+        }
+        Arrays.sort(visitingOrder, (a, b) -> Integer.compare(fixedCellsCounts[b], fixedCellsCounts[a]));
+        List<int[]> mergedRows = new ArrayList<>();
+        List<long[]> mergedFixedColumns = new ArrayList<>();
+        List<Integer> firstRowIndices = new ArrayList<>();
+        for (int rowIndex : visitingOrder) {
+            guard.check();
+            int[] row = coveringArray.get(rowIndex);
+            boolean isMerged = false;
+            for (int group = 0; group < mergedRows.size() && !isMerged; group++) {
+                if (isCompatible(mergedRows.get(group), mergedFixedColumns.get(group), row, fixedColumns[rowIndex])) {
+                    isMerged = merge(mergedRows.get(group), mergedFixedColumns.get(group), row, fixedColumns[rowIndex]);
+                    if (isMerged) {
+                        firstRowIndices.set(group, Math.min(firstRowIndices.get(group), rowIndex));
+                    }
+                }
+            }
+            if (!isMerged) {
+                mergedRows.add(row.clone());
+                mergedFixedColumns.add(fixedColumns[rowIndex].clone());
+                firstRowIndices.add(rowIndex);
+            }
+        }
+        Integer[] groupOrder = new Integer[mergedRows.size()];
+        for (int group = 0; group < groupOrder.length; group++) {
+            groupOrder[group] = group;
+        }
+        Arrays.sort(groupOrder, Comparator.comparingInt(firstRowIndices::get));
+        coveringArray.clear();
+        for (int group : groupOrder) {
+            coveringArray.add(mergedRows.get(group));
+        }
+        return numberOfRows - mergedRows.size();
+    }
+
+    // the values only need to be compared in the columns in which both rows are fixed
+    private static boolean isCompatible(int[] mergedRow, long[] mergedFixedColumns, int[] row, long[] fixedColumns) {
+        for (int word = 0; word < fixedColumns.length; word++) {
+            long bothFixed = mergedFixedColumns[word] & fixedColumns[word];
+            while (bothFixed != 0) {
+                int column = word * Long.SIZE + Long.numberOfTrailingZeros(bothFixed);
+                if (mergedRow[column] != row[column]) {
+                    return false;
+                }
+                bothFixed &= bothFixed - 1;
+            }
+        }
+        return true;
+    }
+
+    // copies the fixed cells of the row into the don't-care cells of the merged row,
+    // unless this would violate the constraints (the merged row stays unchanged then)
+    private boolean merge(int[] mergedRow, long[] mergedFixedColumns, int[] row, long[] fixedColumns) {
+        int[] candidate = mergedRow.clone();
+        for (int word = 0; word < fixedColumns.length; word++) {
+            long newlyFixed = fixedColumns[word] & ~mergedFixedColumns[word];
+            while (newlyFixed != 0) {
+                int column = word * Long.SIZE + Long.numberOfTrailingZeros(newlyFixed);
+                if (!constraints.isEmpty() && !constraints.isAllowed(candidate, column, row[column])) {
+                    return false;
+                }
+                candidate[column] = row[column];
+                newlyFixed &= newlyFixed - 1;
+            }
+        }
+        if (!constraints.isEmpty() && !constraints.fillDontCareValues(candidate.clone())) {
+            return false;
+        }
+        System.arraycopy(candidate, 0, mergedRow, 0, candidate.length);
+        for (int word = 0; word < fixedColumns.length; word++) {
+            mergedFixedColumns[word] |= fixedColumns[word];
+        }
+        return true;
+    }
+}
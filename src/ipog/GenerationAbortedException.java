@@ -0,0 +1,24 @@
+package ipog;
+
+/**
+ * Thrown by {@link IpogRunner#generate()} if the generation was cancelled,
+ * the generating thread was interrupted or the configured deadline has passed.
+ */
+public class GenerationAbortedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Reason reason;
+
+    GenerationAbortedException(Reason reason) {
+        super("Generation of the covering array was aborted: " + reason);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public enum Reason {
+        CANCELLED, INTERRUPTED, DEADLINE_EXCEEDED
+    }
+}
@@ -0,0 +1,46 @@
+package ipog;
+
+/**
+ * Cooperative cancellation that is checked in the hot loops of the generation.
+ * The deadline and the interrupt flag are only looked at every few checks,
+ * so that a check is not much more than a read of a volatile field.
+ */
+final class GenerationGuard {
+    private static final int CLOCK_CHECK_MASK = 0x3F;  // look at the clock every 64 checks
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+    private int checksCount;
+
+    GenerationGuard(long timeoutNanos) {
+        hasDeadline = timeoutNanos > 0;
+        deadlineNanos = hasDeadline ? System.nanoTime() + timeoutNanos : 0;
+    }
+
+    static GenerationGuard unbounded() {
+        return new GenerationGuard(0);
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void check() {
+        if (cancelled) {
+            throw new GenerationAbortedException(GenerationAbortedException.Reason.CANCELLED);
+        }
+        if ((++checksCount & CLOCK_CHECK_MASK) != 0) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new GenerationAbortedException(GenerationAbortedException.Reason.INTERRUPTED);
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos > 0) {
+            throw new GenerationAbortedException(GenerationAbortedException.Reason.DEADLINE_EXCEEDED);
+        }
+    }
+}
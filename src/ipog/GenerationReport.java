@@ -0,0 +1,189 @@
+package ipog;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Statistics about the last generation of an {@link IpogRunner}.
+ */
+public class GenerationReport {
+    private int numberOfSeedRows;
+    private long requiredCombinationsCount;
+    private long seedCoveredCombinationsCount;
+    private long infeasibleCombinationsCount;
+    private int unsatisfiableRowsCount;
+    private int mergedRowsCount;
+    private long filledDontCareCellsCount, higherStrengthCombinationsGained;
+    private int removedRowsCount;
+    private boolean cacheHit;
+    private String algorithmSelection;
+    private long[] coverageCurve = new long[0];
+
+    GenerationReport() {
+    }
+
+    /**
+     * @return the number of rows that have been provided as seeds
+     *         (see {@link RunConfiguration.Builder#seedRows(java.util.List)})
+     */
+    public int getNumberOfSeedRows() {
+        return numberOfSeedRows;
+    }
+
+    /**
+     * @return the number of t-way value combinations that need to be covered
+     */
+    public long getRequiredCombinationsCount() {
+        return requiredCombinationsCount;
+    }
+
+    /**
+     * @return the number of t-way value combinations that have already been covered by the seed rows,
+     *         so that no rows have to be generated for them
+     */
+    public long getSeedCoveredCombinationsCount() {
+        return seedCoveredCombinationsCount;
+    }
+
+    /**
+     * @return the number of t-way value combinations that cannot be covered,
+     *         because they contain a combination that is forbidden by the constraints
+     *         or because no row that satisfies the constraints contains them
+     *         (which only turns out for the combinations of dropped rows)
+     */
+    public long getInfeasibleCombinationsCount() {
+        return infeasibleCombinationsCount;
+    }
+
+    /**
+     * @return the number of rows whose don't-care values could not be replaced by values
+     *         that satisfy the constraints; those rows have been dropped, since they are no valid tests,
+     *         and the combinations that only they covered have been covered by new rows
+     */
+    public int getUnsatisfiableRowsCount() {
+        return unsatisfiableRowsCount;
+    }
+
+    /**
+     * @return the number of rows that have been merged into other rows
+     *         (see {@link RunConfiguration.Builder#mergeDontCareRows()})
+     */
+    public int getMergedRowsCount() {
+        return mergedRowsCount;
+    }
+
+    /**
+     * @return the number of rows that have been removed, because all their value combinations
+     *         have been covered by other rows (see {@link RunConfiguration.Builder#removeRedundantRows()}),
+     *         or by the local search of {@link IpogRunner#optimize(CoveringArray, java.time.Duration, int)}
+     */
+    public int getRemovedRowsCount() {
+        return removedRowsCount;
+    }
+
+    /**
+     * @return the number of don't-care cells that have been filled with the values that cover
+     *         the most (t + 1)-way combinations (see {@link RunConfiguration.Builder#fillDontCaresForHigherStrength()})
+     */
+    public long getFilledDontCareCellsCount() {
+        return filledDontCareCellsCount;
+    }
+
+    /**
+     * @return the number of (t + 1)-way value combinations that are covered because of the filled don't-care cells
+     *         in addition to the ones that the fixed cells cover
+     */
+    public long getHigherStrengthCombinationsGained() {
+        return higherStrengthCombinationsGained;
+    }
+
+    /**
+     * @return true if the covering array has been taken from the {@link CoveringArrayCache}
+     *         (the combination counts are not computed in that case)
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * @return which base algorithm and options {@link BaseAlgorithm#AUTO} has chosen and why
+     */
+    public Optional<String> getAlgorithmSelection() {
+        return Optional.ofNullable(algorithmSelection);
+    }
+
+    /**
+     * @return coverageCurve[j] = the number of t-way value combinations that the first j + 1 rows cover
+     *         (without the ones of the seed rows), for the rows of {@link IpogRunner#generatePartial(int)};
+     *         empty after the other kinds of generation
+     */
+    public long[] getCoverageCurve() {
+        return coverageCurve.clone();
+    }
+
+    void setNumberOfSeedRows(int numberOfSeedRows) {
+        this.numberOfSeedRows = numberOfSeedRows;
+    }
+
+    void addRequiredCombinations(long count) {
+        requiredCombinationsCount += count;
+    }
+
+    void addSeedCoveredCombinations(long count) {
+        seedCoveredCombinationsCount += count;
+    }
+
+    void addInfeasibleCombinations(long count) {
+        infeasibleCombinationsCount += count;
+    }
+
+    void addUnsatisfiableRow() {
+        unsatisfiableRowsCount++;
+    }
+
+    void addMergedRows(int count) {
+        mergedRowsCount += count;
+    }
+
+    void addFilledDontCareCells(long count) {
+        filledDontCareCellsCount += count;
+    }
+
+    void addHigherStrengthCombinationsGained(long count) {
+        higherStrengthCombinationsGained += count;
+    }
+
+    void addRemovedRows(int count) {
+        removedRowsCount += count;
+    }
+
+    void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    void setAlgorithmSelection(String algorithmSelection) {
+        this.algorithmSelection = algorithmSelection;
+    }
+
+    void setCoverageCurve(long[] coverageCurve) {
+        this.coverageCurve = coverageCurve;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationReport{" +
+                "numberOfSeedRows=" + numberOfSeedRows +
+                ", requiredCombinationsCount=" + requiredCombinationsCount +
+                ", seedCoveredCombinationsCount=" + seedCoveredCombinationsCount +
+                ", infeasibleCombinationsCount=" + infeasibleCombinationsCount +
+                ", unsatisfiableRowsCount=" + unsatisfiableRowsCount +
+                ", mergedRowsCount=" + mergedRowsCount +
+                ", filledDontCareCellsCount=" + filledDontCareCellsCount +
+                ", higherStrengthCombinationsGained=" + higherStrengthCombinationsGained +
+                ", removedRowsCount=" + removedRowsCount +
+                ", cacheHit=" + cacheHit +
+                ", algorithmSelection=" + algorithmSelection +
+                ", coverageCurve=" + Arrays.toString(coverageCurve) +
+                '}';
+    }
+}
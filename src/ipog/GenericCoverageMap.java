@@ -0,0 +1,601 @@
+package ipog;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Based on "EfficientCoverageMap" from the combinatorial test framework "coffee4j"
+ * which in turn is based on the coverage map as described in in section 4.1 of the paper
+ * "An Efficient Design and Implementation of the In-Parameter-Order Algorithm".
+ * In this implementation, instead of storing them in a hash map,
+ * we store the parameter combinations in a single array:
+ * and we index them using their k-subset rank.
+ * For each possible parameter combination we store which of the respective
+ * value combinations are covered.
+ */
+final class GenericCoverageMap implements CoverageMap {
+    private final TupleCoverage[] columnSelections;
+    private final int numberOfParameters;
+    private final int fixedParameter;
+    private final int[] parameterSizes;
+    private final CombinatoricUtils.BinomialCoefficient binomCoeffs;
+    private final int strength;
+    private final int[] originalOrder;
+    private final int[] internalRow;  // a row in the order of the parameters, copied into the internal order
+    private final boolean countOccurrences;
+    private final Map<List<Integer>, Integer> subModelSelectionIndices;
+    // false if only some column selections are tracked, which are all found by a lookup then
+    private final boolean ranked;
+    private int coveredCombinationsCount;
+    private int combinationsCount;
+
+    GenericCoverageMap(int[] parameterSizes, int strength, CombinatoricUtils.BinomialCoefficient binomCoeffs,
+                int[] originalOrder, boolean countOccurrences) {
+        this(parameterSizes, strength, binomCoeffs, originalOrder, countOccurrences, new int[0][], new int[0]);
+    }
+
+    /**
+     * @param subModels parameters (positions in the internal order) for which a higher strength is required
+     * @param subModelStrengths subModelStrengths[j] = strength that is required for subModels[j]
+     */
+    GenericCoverageMap(int[] parameterSizes, int strength, CombinatoricUtils.BinomialCoefficient binomCoeffs,
+                int[] originalOrder, boolean countOccurrences, int[][] subModels, int[] subModelStrengths) {
+        Preconditions.checkNotNull(parameterSizes);
+        Preconditions.checkNotNull(binomCoeffs);
+        Preconditions.checkNotNull(originalOrder);
+        Preconditions.checkArgument(strength > 0 && strength <= parameterSizes.length);
+        Preconditions.checkArgument(subModels.length == subModelStrengths.length);
+        this.originalOrder = originalOrder;
+        internalRow = new int[parameterSizes.length];
+        this.parameterSizes = parameterSizes;
+        this.strength = strength;
+        this.binomCoeffs = binomCoeffs;
+        this.countOccurrences = countOccurrences;
+        ranked = true;
+        coveredCombinationsCount = 0;
+        numberOfParameters = parameterSizes.length;  // includes the fixed parameter
+        fixedParameter = parameterSizes.length - 1;  // zero-based-indexing for fixedParameter
+        List<TupleCoverage> selections = new ArrayList<>(binomCoeffs.choose(numberOfParameters - 1, strength - 1));
+        int[] parameterCombination = new int[strength - 1];
+        for (int parameter = 0; parameter < strength - 1; parameter++) {
+            parameterCombination[parameter] = parameter;
+        }
+        do {
+            selections.add(createTupleCoverage(parameterCombination));
+        }
+        while (CombinatoricUtils.nextKCombination(parameterCombination, numberOfParameters - 1));
+        // the column selections of sub-models with a higher strength cannot be ranked among the others,
+        // so they are appended and found by a lookup
+        subModelSelectionIndices = new HashMap<>();
+        for (int j = 0; j < subModels.length; j++) {
+            int[] candidates = Arrays.stream(subModels[j]).filter(position -> position < fixedParameter).toArray();
+            int subModelStrength = subModelStrengths[j];
+            if (subModelStrength <= strength || candidates.length < subModelStrength - 1
+                    || Arrays.stream(subModels[j]).noneMatch(position -> position == fixedParameter)) {
+                continue;
+            }
+            int[] indices = IntStream.range(0, subModelStrength - 1).toArray();
+            do {
+                int[] subModelCombination = new int[subModelStrength - 1];
+                for (int k = 0; k < indices.length; k++) {
+                    subModelCombination[k] = candidates[indices[k]];
+                }
+                List<Integer> key = Arrays.stream(subModelCombination).boxed().collect(Collectors.toList());
+                if (!subModelSelectionIndices.containsKey(key)) {
+                    subModelSelectionIndices.put(key, selections.size());
+                    selections.add(createTupleCoverage(subModelCombination));
+                }
+            }
+            while (CombinatoricUtils.nextKCombination(indices, candidates.length));
+        }
+        columnSelections = selections.toArray(new TupleCoverage[0]);
+        for (TupleCoverage columnSelection : columnSelections) {
+            combinationsCount += columnSelection.numberOfCombinations;
+        }
+    }
+
+    /**
+     * Only keeps track of the given column selections instead of all of them,
+     * for the case that the other ones are known to be covered.
+     * @param parameterCombinations sorted combinations of t - 1 parameters (positions in the internal order)
+     *                              that do not contain the fixed parameter; duplicates are ignored
+     */
+    GenericCoverageMap(int[] parameterSizes, int strength, CombinatoricUtils.BinomialCoefficient binomCoeffs,
+                       int[] originalOrder, boolean countOccurrences, List<int[]> parameterCombinations) {
+        Preconditions.checkNotNull(parameterSizes);
+        Preconditions.checkNotNull(binomCoeffs);
+        Preconditions.checkNotNull(originalOrder);
+        Preconditions.checkArgument(strength > 0 && strength <= parameterSizes.length);
+        this.originalOrder = originalOrder;
+        internalRow = new int[parameterSizes.length];
+        this.parameterSizes = parameterSizes;
+        this.strength = strength;
+        this.binomCoeffs = binomCoeffs;
+        this.countOccurrences = countOccurrences;
+        ranked = false;
+        numberOfParameters = parameterSizes.length;
+        fixedParameter = parameterSizes.length - 1;
+        subModelSelectionIndices = new HashMap<>();
+        List<TupleCoverage> selections = new ArrayList<>(parameterCombinations.size());
+        for (int[] parameterCombination : parameterCombinations) {
+            Preconditions.checkArgument(parameterCombination.length == strength - 1,
+                    Preconditions.FALSE_ARRAY_LENGTH);
+            List<Integer> key = Arrays.stream(parameterCombination).boxed().collect(Collectors.toList());
+            if (!subModelSelectionIndices.containsKey(key)) {
+                subModelSelectionIndices.put(key, selections.size());
+                selections.add(createTupleCoverage(parameterCombination));
+            }
+        }
+        columnSelections = selections.toArray(new TupleCoverage[0]);
+        for (TupleCoverage columnSelection : columnSelections) {
+            combinationsCount += columnSelection.numberOfCombinations;
+        }
+    }
+
+    // parameterCombination must be sorted and must not contain the fixed parameter
+    private TupleCoverage createTupleCoverage(int[] parameterCombination) {
+        int length = parameterCombination.length + 1;
+        int[] alphabetSizes = new int[length];
+        alphabetSizes[length - 1] = parameterSizes[fixedParameter];
+        for (int tupleParameter = 0; tupleParameter < length - 1; tupleParameter++) {
+            alphabetSizes[tupleParameter] = parameterSizes[parameterCombination[tupleParameter]];
+        }
+        int[] columnSelection = Arrays.copyOf(parameterCombination, length);
+        columnSelection[length - 1] = fixedParameter;
+        return new TupleCoverage(columnSelection, alphabetSizes, countOccurrences);
+    }
+
+    @Override
+    public List<int[]> getColumnSelections() {
+        List<int[]> selections = new ArrayList<>(columnSelections.length);
+        for (TupleCoverage columnSelection : columnSelections) {
+            selections.add(columnSelection.parameterCombination);
+        }
+        return selections;
+    }
+
+    @Override
+    public boolean mayHaveUncoveredCombinations() {
+        for (TupleCoverage combinationCoverage : columnSelections) {
+            if (combinationCoverage.hasUncoveredCombinations()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int occurrenceCount(int[] parameterCombination, int[] valueCombination) {
+        if (!countOccurrences) {
+            throw new IllegalStateException(Preconditions.OCC_NOT_COUNTED);
+        }
+        return getRelevantCombinationCoverages(parameterCombination)
+                .occurrenceCount(valueCombination);
+    }
+
+    @Override
+    public boolean isCovered(int[] parameterCombination,
+                      int[] valueCombination, int fixedParameterValue) {
+        Preconditions.checkArgument(parameterCombination.length == valueCombination.length,
+                Preconditions.FALSE_ARRAY_LENGTH);
+        int[] valueCombinationIncludingTheFixedParameterValue = Arrays.copyOf(valueCombination,
+                valueCombination.length + 1);
+        valueCombinationIncludingTheFixedParameterValue[valueCombination.length] = fixedParameterValue;
+        return getRelevantCombinationCoverages(parameterCombination)
+                .isCovered(valueCombinationIncludingTheFixedParameterValue);
+    }
+
+    @Override
+    public void markAsCovered(int[] parameterCombination, int[] valueCombination,
+                       int fixedParameterValue) {
+        Preconditions.checkArgument(parameterCombination.length == valueCombination.length,
+                Preconditions.FALSE_ARRAY_LENGTH);
+        int[] valueCombinationIncludingTheFixedParameterValue = Arrays.copyOf(valueCombination,
+                valueCombination.length + 1);
+        valueCombinationIncludingTheFixedParameterValue[valueCombination.length] = fixedParameterValue;
+        markAsCovered(getRelevantCombinationCoverages(parameterCombination),
+                valueCombinationIncludingTheFixedParameterValue);
+    }
+
+    private void markAsCovered(TupleCoverage tupleCoverage, int[] valueCombination) {
+        int before = tupleCoverage.getNumberOfCoveredCombinations();
+        tupleCoverage.markAsCovered(valueCombination);
+        int after = tupleCoverage.getNumberOfCoveredCombinations();
+        coveredCombinationsCount += (after - before);
+    }
+
+    @Override
+    public void markAsCovered(int[] row) {
+        markAsCovered(RowStore.toInternalOrder(row, originalOrder, internalRow), 0);
+    }
+
+    @Override
+    public void markAsCovered(RowStore rows, int row) {
+        markAsCovered(rows.cells(), rows.offset(row));
+    }
+
+    // the value of position i is cells[offset + i]
+    private void markAsCovered(int[] cells, int offset) {
+        k_subset_loop:
+        for (TupleCoverage columnSelection : columnSelections) {
+            int[] valueCombination = new int[columnSelection.parameterCombination.length];
+            for (int i = 0; i < valueCombination.length; i++) {
+                valueCombination[i] = cells[offset + columnSelection.parameterCombination[i]];
+                if (valueCombination[i] == -1) {
+                    continue k_subset_loop;
+                }
+            }
+            markAsCovered(columnSelection, valueCombination);
+        }
+    }
+
+    @Override
+    public void markAsUncovered(int[] parameterCombination, int[] valueCombination) {
+        markAsUncovered(getRelevantCombinationCoverages(parameterCombination), valueCombination);
+    }
+
+    private void markAsUncovered(TupleCoverage tupleCoverage, int[] valueCombination) {
+        // we need to measure the delta and cannot just decrement coveredCombinationsCount by one,
+        // because it might has been uncovered already
+        int before = tupleCoverage.getNumberOfCoveredCombinations();
+        tupleCoverage.markAsUncovered(valueCombination);
+        int after = tupleCoverage.getNumberOfCoveredCombinations();
+        coveredCombinationsCount += (after - before);
+    }
+
+    /**
+     * Keeps track of the changes when having changed a certain value to another
+     * @param coveringArray the covering array where we have changed a value
+     * @param chosenRow the row in which we have made the change
+     * @param chosenColumn the column in which we have made the change
+     * @param beforeValue the value that used to be in the cell before the current one
+     */
+    @Override
+    public void update(List<int[]> coveringArray, int chosenRow, int chosenColumn,
+                int beforeValue) {
+        update(RowStore.toInternalOrder(coveringArray.get(chosenRow), originalOrder, internalRow), 0,
+                chosenColumn, beforeValue);
+    }
+
+    @Override
+    public void update(RowStore rows, int chosenRow, int chosenColumn, int beforeValue) {
+        update(rows.cells(), rows.offset(chosenRow), chosenColumn, beforeValue);
+    }
+
+    private void update(int[] cells, int offset, int chosenColumn, int beforeValue) {
+        if (beforeValue != CoveringArray.DONT_CARE_VALUE || chosenColumn != fixedParameter) {
+            // check which tuples we have to mark as uncovered
+            // (we also might need to mark tuples as uncovered, because otherwise we overcount them)
+            k_subset_loop:
+            for (TupleCoverage columnSelection : columnSelections) {
+                int[] parameterCombination = columnSelection.parameterCombination;
+                int[] valueCombination = new int[parameterCombination.length];
+                boolean isValidColumnSelection = false;  // we need to have the chosen column in it
+                for (int k = 0; k < parameterCombination.length; k++) {
+                    if (parameterCombination[k] == chosenColumn) {
+                        valueCombination[k] = beforeValue;
+                        isValidColumnSelection = true;
+                    }
+                    else {
+                        valueCombination[k] = cells[offset + parameterCombination[k]];
+                    }
+                    if (valueCombination[k] == CoveringArray.DONT_CARE_VALUE) {
+                        continue k_subset_loop;
+                    }
+                }
+                if (!isValidColumnSelection && cells[offset + chosenColumn] == CoveringArray.DONT_CARE_VALUE) {
+                    continue;  // the current tuple will stay covered anyway
+                }
+                markAsUncovered(columnSelection, valueCombination);
+            }
+        }
+        if (cells[offset + chosenColumn] == CoveringArray.DONT_CARE_VALUE) {
+            return;  // there won't be any newly covered tuples
+        }
+        markAsCovered(cells, offset);
+    }
+
+    private int getIndex(int[] parameterCombination, boolean inputIsSorted) {
+        if (!inputIsSorted) {
+            Arrays.sort(parameterCombination);
+        }
+        if (!ranked || parameterCombination.length != strength - 1) {
+            Integer index = subModelSelectionIndices.get(
+                    Arrays.stream(parameterCombination).boxed().collect(Collectors.toList()));
+            Preconditions.checkArgument(index != null, Preconditions.FALSE_ARRAY_LENGTH);
+            return index;
+        }
+        return CombinatoricUtils.kSubsetLexRank(parameterCombination, numberOfParameters - 1, binomCoeffs);
+    }
+
+    // rank the parameter combination to get the index in the array,
+    // where all the respective value combinations are stored
+    private TupleCoverage getRelevantCombinationCoverages(int[] parameterCombination) {
+        return columnSelections[getIndex(parameterCombination, true)];
+    }
+
+    @Override
+    public int[] computeGainsOfFixedParameter(int[] row, int[] best) {
+        return computeGainsOfFixedParameter(RowStore.toInternalOrder(row, originalOrder, internalRow), 0, best);
+    }
+
+    @Override
+    public int[] computeGainsOfFixedParameter(RowStore rows, int row, int[] best) {
+        return computeGainsOfFixedParameter(rows.cells(), rows.offset(row), best);
+    }
+
+    private int[] computeGainsOfFixedParameter(int[] cells, int offset, int[] best) {
+        Preconditions.checkArgument(best.length == 2);
+        int[] gains = new int[parameterSizes[fixedParameter]];
+        outer:
+        for (TupleCoverage columnSelection : columnSelections) {
+            if (!columnSelection.hasUncoveredCombinations()) {  // t-column selection level search pruning
+                continue;
+            }
+            int length = columnSelection.parameterCombination.length;
+            int[] valueCombination = new int[length];
+            valueCombination[length - 1] = 0;  // first value of the new parameter needs to be 0
+            for (int i = 0; i < length - 1; i++) {
+                valueCombination[i] = cells[offset + columnSelection.parameterCombination[i]];
+                if (valueCombination[i] == -1) {
+                    continue outer;
+                }
+            }
+            columnSelection.addGainsOfFixedParameter(valueCombination, gains, best);
+        }
+        return gains;
+    }
+
+    @Override
+    public Optional<int[][]> getUncoveredCombination() {
+        for (TupleCoverage columnSelection : columnSelections) {
+            if (columnSelection.hasUncoveredCombinations()) {
+                final Optional<int[]> uncoveredCombination = columnSelection.getUncoveredCombination();
+                if (uncoveredCombination.isPresent()) {
+                    return Optional.of(new int[][]{columnSelection.parameterCombination, uncoveredCombination.get()});
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get the next uncovered combination.
+     * @param startingRankOfParameterCombination specifies that we only want to look for
+     *                     uncovered parameter combinations from this index onwards
+     * @param startingRankOfValueCombination specifies that we only want to look for
+     *                     uncovered value combinations from this index onwards
+     * @return {column combination, value combination, {the rank of the column combination, rank of value combination}}
+     */
+    @Override
+    public Optional<int[][]> getUncoveredCombination(int startingRankOfParameterCombination, int startingRankOfValueCombination) {
+        for (int i = startingRankOfParameterCombination; i < columnSelections.length; i++) {
+            TupleCoverage columnSelection = columnSelections[i];
+            if (columnSelection.hasUncoveredCombinations(startingRankOfValueCombination)) {
+                final Optional<int[][]> uncoveredCombination = columnSelection.getUncoveredCombination(startingRankOfValueCombination);
+                if (uncoveredCombination.isPresent()) {
+                    return Optional.of(new int[][]{columnSelection.parameterCombination, uncoveredCombination.get()[0], new int[]{i, uncoveredCombination.get()[1][0]}});
+                }
+            }
+            startingRankOfValueCombination = 0;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int totalCoveredValueCombinationsCount() {
+        return coveredCombinationsCount;
+    }
+
+    @Override
+    public int valueCombinationsCount() {
+        return combinationsCount;
+    }
+
+    @Override
+    public int uncoveredValueCombinationsCount() {
+        return combinationsCount - coveredCombinationsCount;
+    }
+
+    @Override
+    public boolean areOccurrencesCounted() {
+        return countOccurrences;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (TupleCoverage columnSelection : columnSelections) {
+            sb.append(Arrays.toString(columnSelection.parameterCombination)).append("\n");
+            String bitsetAsBinaryString = IntStream.range(0, columnSelection.numberOfCombinations)
+                    .mapToObj(b -> String.valueOf(columnSelection.coverageMap.get(b) ? 1 : 0))
+                    .collect(Collectors.joining());
+            sb.append(bitsetAsBinaryString).append("\n");
+            sb.append(Arrays.toString(columnSelection.valueCombinationOccurrencesCount)).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reused most of "ParameterCombinationCoverageMap.java" from the coffee4j framework.
+     * In this implementation we can also keep track of the
+     * number of covered combinations and occurrence counts.
+     */
+    private static final class TupleCoverage {
+        private final int numberOfCombinations;
+        private final int[] parameterCombination;
+        private final int[] parameterSizes;
+        private final int[] parameterMultipliers;
+        private int numberOfCoveredCombinations;
+        private final boolean countOccurrences;
+        private int[] valueCombinationOccurrencesCount;
+        private final BitSet coverageMap;
+
+        private TupleCoverage(int[] parameterCombination, int[] parameterSizes,
+                              boolean countOccurrences) {
+            assert parameterCombination.length == parameterSizes.length;
+            this.parameterCombination = parameterCombination;
+            this.parameterSizes = parameterSizes;
+            this.countOccurrences = countOccurrences;
+            numberOfCoveredCombinations = 0;
+            parameterMultipliers = buildParameterMultipliersAsArray();
+            numberOfCombinations = calculateNumberOfCombinations();
+            if (countOccurrences) {
+                valueCombinationOccurrencesCount = new int[numberOfCombinations];
+            }
+            coverageMap = new BitSet(numberOfCombinations);
+        }
+
+        private int[] buildParameterMultipliersAsArray() {
+            int[] parameterMultipliersAsArray = new int[parameterSizes.length];
+            int currentMultiplier = 1;
+            for (int i = 0; i < parameterSizes.length; i++) {
+                parameterMultipliersAsArray[i] = currentMultiplier;
+                currentMultiplier *= parameterSizes[i];
+            }
+            return parameterMultipliersAsArray;
+        }
+
+        private int calculateNumberOfCombinations() {
+            int count = 1;
+            for (int alphabetSize : parameterSizes) {
+                Preconditions.checkArgument(((long) count * (long) alphabetSize) <= (long) Integer.MAX_VALUE);
+                count *= alphabetSize;
+            }
+            return count;
+        }
+
+        private boolean hasUncoveredCombinations() {
+            return numberOfCoveredCombinations < numberOfCombinations;
+        }
+
+        private boolean hasUncoveredCombinations(int fromIndex) {
+            if (fromIndex >= numberOfCombinations) {
+                return false;
+            }
+            return coverageMap.nextClearBit(fromIndex) < numberOfCombinations;
+        }
+
+        private int getNumberOfCoveredCombinations() {
+            return numberOfCoveredCombinations;
+        }
+
+        private boolean isCovered(int index) {
+            return coverageMap.get(index);
+        }
+
+        private boolean isCovered(int[] valueCombination) {
+            return isCovered(getIndex(valueCombination));
+        }
+
+        private void markAsCovered(int[] valueCombination) {
+            int index = getIndex(valueCombination);
+            if (countOccurrences) {
+                valueCombinationOccurrencesCount[index]++;
+            }
+            if (coverageMap.get(index)) {
+                return;
+            }
+            coverageMap.set(index);
+            numberOfCoveredCombinations++;
+        }
+
+        private void markAllAsCovered() {
+            coverageMap.set(0, numberOfCombinations);
+            numberOfCoveredCombinations = numberOfCombinations;
+        }
+
+        private void markAsUncovered(int[] valueCombination) {
+            int index = getIndex(valueCombination);
+            if (!coverageMap.get(index)) {
+                return;
+            }
+            if (!countOccurrences || --valueCombinationOccurrencesCount[index] <= 0) {
+                coverageMap.clear(index);
+                numberOfCoveredCombinations--;
+            }
+        }
+
+        private int getIndex(int[] valueCombination) {
+            assert valueCombination.length == parameterCombination.length;
+            int index = 0;
+            for (int i = 0; i < valueCombination.length; i++) {
+                if (valueCombination[i] >= parameterSizes[i] || valueCombination[i] < 0) {
+                    throw new IllegalArgumentException();
+                }
+                index += valueCombination[i] * parameterMultipliers[i];
+            }
+            return index;
+        }
+
+        private int occurrenceCount(int[] valueCombination) {
+            if (!countOccurrences) {
+                throw new IllegalStateException(Preconditions.OCC_NOT_COUNTED);
+            }
+            return valueCombinationOccurrencesCount[getIndex(valueCombination)];
+        }
+
+        private Optional<int[]> getUncoveredCombination() {
+            if (!hasUncoveredCombinations()) {
+                return Optional.empty();
+            }
+            final int index = coverageMap.nextClearBit(0);
+            assert index < numberOfCombinations;
+            return Optional.of(getCombination(index));
+        }
+
+        /**
+         *
+         * @param fromIndex the starting index from which we want to look
+         *                  for uncovered combinations
+         * @return {{value combination}, {index (the rank) of value combination}}
+         */
+        private Optional<int[][]> getUncoveredCombination(int fromIndex) {
+            if (!hasUncoveredCombinations()) {
+                return Optional.empty();
+            }
+            final int index = coverageMap.nextClearBit(fromIndex);
+            if (index >= numberOfCombinations) {
+                throw new IllegalStateException("corrupt invariant");
+            }
+            return Optional.of(new int[][]{getCombination(index), new int[]{index}});
+        }
+
+        private int[] getCombination(int index) {
+            int[] valueCombination = new int[this.parameterCombination.length];
+            Arrays.fill(valueCombination, -1);
+            for (int i = parameterCombination.length - 1; i >= 0; i--) {
+                int parameterIndexPart = (index - (index % parameterMultipliers[i]));
+                int value = parameterIndexPart / parameterMultipliers[i];
+                valueCombination[i] = value;
+                index -= parameterIndexPart;
+            }
+            return valueCombination;
+        }
+
+        /**
+         *
+         * @param valueCombination initial value combination for this.parameterCombination (this column selection)
+         * @param gains gains[i] = coverage of value i
+         * @param best best[0] = value with max coverage so far; best[1] = current max coverage
+         */
+        private void addGainsOfFixedParameter(int[] valueCombination, int[] gains, int[] best) {
+            int fixedParameterIndex = parameterCombination.length - 1;
+            if (!hasUncoveredCombinations()) {
+                return;
+            }
+            int baseIndex = getIndex(valueCombination);
+            for (int value = 0; value < gains.length; value++) {
+                int index = baseIndex + value * parameterMultipliers[fixedParameterIndex];
+                if (!isCovered(index)) {
+                    gains[value]++;
+                    if (gains[value] > best[1] || gains[value] == best[1] && value < best[0]) {
+                        best[1] = gains[value];
+                        best[0] = value;
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
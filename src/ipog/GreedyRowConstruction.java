@@ -0,0 +1,127 @@
+package ipog;
+
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Builds rows one at a time (instead of column by column like IPOG), so that every row covers
+ * as many of the uncovered combinations as possible and the construction can stop after any number of rows.
+ * A row starts with an uncovered combination of the coverage map that has the most uncovered combinations,
+ * its other cells are assigned in the internal order: the value of a cell is chosen like in the horizontal growth,
+ * i.e. with the gains of the coverage map of the column, which counts the uncovered combinations
+ * that the value forms with the cells before. The cells before the first coverage map get the value
+ * that occurs least often in their column so far.
+ */
+final class GreedyRowConstruction {
+    private final int[] originalOrder;
+    private final int[] alphabetSizes;
+    private final int firstColumn;
+    private final CoverageMap[] coverageMaps;
+    private final ConstraintChecker constraints;
+    private final GenerationGuard guard;
+    private final int[][] valueCounts;  // [position][value]
+    private long[] coverageCurve = new long[0];
+
+    /**
+     * @param firstColumn the first column (in the internal order) that has a coverage map, i.e. t - 1
+     * @param coverageMaps the coverage maps of the columns from firstColumn onwards, with the combinations
+     *                     of the seed rows and the infeasible ones marked as covered
+     */
+    GreedyRowConstruction(int[] originalOrder, int[] alphabetSizes, int firstColumn, CoverageMap[] coverageMaps,
+                          ConstraintChecker constraints, GenerationGuard guard) {
+        this.originalOrder = originalOrder;
+        this.alphabetSizes = alphabetSizes;
+        this.firstColumn = firstColumn;
+        this.coverageMaps = coverageMaps;
+        this.constraints = constraints;
+        this.guard = guard;
+        valueCounts = new int[alphabetSizes.length][];
+        for (int position = 0; position < alphabetSizes.length; position++) {
+            valueCounts[position] = new int[alphabetSizes[position]];
+        }
+    }
+
+    /**
+     * @return at most numberOfRows rows (in the order of the parameters), fewer if they cover every combination
+     */
+    List<int[]> constructRows(int numberOfRows) {
+        List<int[]> rows = new ArrayList<>();
+        long uncoveredBefore = uncoveredCombinationsCount(), uncovered = uncoveredBefore;
+        List<Long> curve = new ArrayList<>();
+        while (rows.size() < numberOfRows && uncovered > 0) {
+            guard.check();
+            int[] row = constructRow();
+            for (CoverageMap coverageMap : coverageMaps) {
+                coverageMap.markAsCovered(row);
+            }
+            for (int position = 0; position < originalOrder.length; position++) {
+                if (row[originalOrder[position]] != DONT_CARE_VALUE) {
+                    valueCounts[position][row[originalOrder[position]]]++;
+                }
+            }
+            rows.add(row);
+            uncovered = uncoveredCombinationsCount();
+            curve.add(uncoveredBefore - uncovered);
+        }
+        coverageCurve = curve.stream().mapToLong(Long::longValue).toArray();
+        return rows;
+    }
+
+    /**
+     * @return the number of combinations that the first j + 1 rows cover together, for every row j
+     */
+    long[] getCoverageCurve() {
+        return coverageCurve;
+    }
+
+    private long uncoveredCombinationsCount() {
+        long count = 0;
+        for (CoverageMap coverageMap : coverageMaps) {
+            count += coverageMap.uncoveredValueCombinationsCount();
+        }
+        return count;
+    }
+
+    private int[] constructRow() {
+        int[] row = new int[originalOrder.length];
+        Arrays.fill(row, DONT_CARE_VALUE);
+        CoverageMap seedMap = coverageMaps[0];
+        for (CoverageMap coverageMap : coverageMaps) {
+            if (coverageMap.uncoveredValueCombinationsCount() > seedMap.uncoveredValueCombinationsCount()) {
+                seedMap = coverageMap;
+            }
+        }
+        Optional<int[][]> uncoveredCombination = seedMap.getUncoveredCombination();
+        if (uncoveredCombination.isPresent()) {
+            int[] parameterCombination = uncoveredCombination.get()[0];
+            constraints.tryAssign(row, parameterCombination, uncoveredCombination.get()[1],
+                    parameterCombination.length, originalOrder);
+        }
+        for (int position = 0; position < originalOrder.length; position++) {
+            int column = originalOrder[position];
+            if (row[column] != DONT_CARE_VALUE) {
+                continue;
+            }
+            int[] best = new int[2];
+            if (position >= firstColumn) {
+                int[] gains = coverageMaps[position - firstColumn].computeGainsOfFixedParameter(row, best);
+                if (!constraints.isEmpty()) {
+                    constraints.restrictToAllowedValues(row, column, gains, best);
+                }
+            }
+            if (best[1] > 0) {
+                row[column] = best[0];
+                continue;
+            }
+            // no gain: the least frequent value, so that the values of the column are balanced
+            for (int value = 0; value < alphabetSizes[position]; value++) {
+                if ((row[column] == DONT_CARE_VALUE || valueCounts[position][value] < valueCounts[position][row[column]])
+                        && (constraints.isEmpty() || constraints.isAllowed(row, column, value))) {
+                    row[column] = value;
+                }
+            }
+        }
+        return row;
+    }
+}
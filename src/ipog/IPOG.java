@@ -9,27 +9,37 @@ import static ipog.CoveringArray.DONT_CARE_VALUE;
  */
 class IPOG implements IPO {
     private final int strength;
-    private final List<int[]> coveringArray;
-    private final int[] originalOrder;
+    private final RowStore rows;
+    private final GenerationGuard guard;
+    private final ConstraintChecker constraints;
 
-    IPOG(List<int[]> coveringArray, int strength, int[] originalOrder) {
-        this.coveringArray = coveringArray;
+    /**
+     * @param constraints the constraints in the internal order of the rows
+     */
+    IPOG(RowStore rows, int strength, GenerationGuard guard, ConstraintChecker constraints) {
+        this.rows = rows;
         this.strength = strength;
-        this.originalOrder = originalOrder;
+        this.guard = guard;
+        this.constraints = constraints;
     }
 
     @Override
     public boolean extendHorizontal(CoverageMap coverageMap, int i) {
         boolean mayHaveMoreUncoveredCombinations = true;
-        for (int[] row : coveringArray) {  // for every already generated row
+        int[] cells = rows.cells();  // no rows are added
+        for (int row = 0; row < rows.numberOfRows(); row++) {  // for every already generated row
+            guard.check();
             // best[0] = value with max coverage; best[1] = max coverage
             int[] best = new int[2];
-            coverageMap.computeGainsOfFixedParameter(row, best);
+            int[] gains = coverageMap.computeGainsOfFixedParameter(rows, row, best);
+            if (!constraints.isEmpty()) {
+                constraints.restrictToAllowedValues(cells, rows.offset(row), i, gains, best);
+            }
             if (best[1] == 0) {
                 continue;
             }
-            row[originalOrder[i]] = best[0];
-            coverageMap.markAsCovered(row);
+            cells[rows.offset(row) + i] = best[0];
+            coverageMap.markAsCovered(rows, row);
             if (!coverageMap.mayHaveUncoveredCombinations()) {
                 mayHaveMoreUncoveredCombinations = false;
                 break;
@@ -46,74 +56,72 @@ class IPOG implements IPO {
         Optional<int[][]> uncoveredCombination = coverageMap.getUncoveredCombination(
                 coveredParameterCombinationsUntilRank, coveredValueCombinationsUntilRank);
         while (uncoveredCombination.isPresent()) {
+            guard.check();
             int[] parameterCombination = uncoveredCombination.get()[0],
                     valueCombination = uncoveredCombination.get()[1];
             coveredParameterCombinationsUntilRank = uncoveredCombination.get()[2][0];
             coveredValueCombinationsUntilRank = uncoveredCombination.get()[2][1];
-            int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[strength - 1];
+            int length = parameterCombination.length;  // exceeds the strength for sub-models
+            int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[length - 1];
             Set<Integer> partition = partitions.getOrDefault(valueOfNewColumnInCurrentUncoveredTuple,
                     null);
             Integer goodRow = null;
             if (partition != null) {
                 for (Integer row : partition) {
-                    int[] candidateRow = coveringArray.get(row);
+                    int[] cells = rows.cells();
+                    int offset = rows.offset(row);
                     boolean rowIsGood = true;
-                    for (int j = 0; j < strength - 1; j++) {
-                        int curCellValue = candidateRow[originalOrder[parameterCombination[j]]];
+                    for (int j = 0; j < length - 1; j++) {
+                        int curCellValue = cells[offset + parameterCombination[j]];
                         if (curCellValue != DONT_CARE_VALUE && curCellValue != valueCombination[j]) {
                             rowIsGood = false;
                             break;
                         }
                     }
-                    if (!rowIsGood) {
+                    if (!rowIsGood || !constraints.tryAssign(cells, offset, parameterCombination,
+                            valueCombination, length - 1)) {
                         continue;
                     }
                     goodRow = row;
-                    for (int j = 0; j < strength - 1; j++) {
-                        candidateRow[originalOrder[parameterCombination[j]]] = valueCombination[j];
-                    }
-                    coverageMap.markAsCovered(candidateRow);
+                    coverageMap.markAsCovered(rows, row);
                     break;
                 }
             }
             partition = partitions.getOrDefault(DONT_CARE_VALUE, null);
             if (goodRow == null && partition != null) {
                 for (Integer row : partition) {
-                    int[] candidateRow = coveringArray.get(row);
+                    int[] cells = rows.cells();
+                    int offset = rows.offset(row);
                     boolean rowIsGood = true;
                     // check up until including value in last column because it
                     // might no longer be a star value if it was set before:
-                    for (int j = 0; j < strength; j++) {
-                        int curCellValue = candidateRow[originalOrder[parameterCombination[j]]];
+                    for (int j = 0; j < length; j++) {
+                        int curCellValue = cells[offset + parameterCombination[j]];
                         if (curCellValue != DONT_CARE_VALUE && curCellValue != valueCombination[j]) {
                             rowIsGood = false;
                             break;
                         }
                     }
-                    if (!rowIsGood) {
+                    if (!rowIsGood || !constraints.tryAssign(cells, offset, parameterCombination,
+                            valueCombination, length)) {
                         continue;
                     }
                     goodRow = row;
-                    for (int j = 0; j < strength; j++) {
-                        candidateRow[originalOrder[parameterCombination[j]]] = valueCombination[j];
-                    }
-                    coverageMap.markAsCovered(candidateRow);
+                    coverageMap.markAsCovered(rows, row);
                     break;
                 }
             }
             if (goodRow == null) {
-                int[] newRow = new int[numberOfParameters];
-                Arrays.fill(newRow, DONT_CARE_VALUE);
-                for (int j = 0; j < strength; j++) {
-                    newRow[originalOrder[parameterCombination[j]]] = valueCombination[j];
+                int newRow = rows.addRow();
+                for (int j = 0; j < length; j++) {
+                    rows.set(newRow, parameterCombination[j], valueCombination[j]);
                 }
-                coveringArray.add(newRow);
-                coverageMap.markAsCovered(Arrays.copyOf(parameterCombination, strength - 1),
+                coverageMap.markAsCovered(Arrays.copyOf(parameterCombination, length - 1),
                         Arrays.copyOf(valueCombination, valueCombination.length - 1),
                         valueCombination[valueCombination.length - 1]);
                 // new row always has at least one star value
                 partitions.putIfAbsent(valueOfNewColumnInCurrentUncoveredTuple, new HashSet<>());
-                partitions.get(valueOfNewColumnInCurrentUncoveredTuple).add(coveringArray.size() - 1);
+                partitions.get(valueOfNewColumnInCurrentUncoveredTuple).add(newRow);
             }
             coveredValueCombinationsUntilRank++;
             uncoveredCombination = coverageMap.getUncoveredCombination(
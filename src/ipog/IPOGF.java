@@ -10,37 +10,45 @@ import static ipog.CoveringArray.DONT_CARE_VALUE;
 class IPOGF implements IPO {
     private final int strength;
     private final int numberOfParameters;
-    private final List<int[]> coveringArray;
-    private final int[] originalOrder;
+    private final RowStore rows;
     private final int[] alphabetSizes;
     private final Map<Integer, Integer> dontCareValuesPerRowCount;
     private final CombinatoricUtils.BinomialCoefficient binomialCoefficient;
     private final boolean heuristicHorizontal;
+    private final GenerationGuard guard;
+    private final ConstraintChecker constraints;
 
-    IPOGF(List<int[]> coveringArray, int strength, int[] originalOrder,
-          int[] alphabetSizes, int numberOfParameters,
+    /**
+     * @param constraints the constraints in the internal order of the rows
+     */
+    IPOGF(RowStore rows, int strength, int[] alphabetSizes, int numberOfParameters,
           Map<Integer, Integer> dontCareValuesPerRowCount,
           CombinatoricUtils.BinomialCoefficient binomialCoefficient,
-          boolean heuristicHorizontal) {
-        this.coveringArray = coveringArray;
+          boolean heuristicHorizontal, GenerationGuard guard,
+          ConstraintChecker constraints) {
+        this.rows = rows;
         this.strength = strength;
-        this.originalOrder = originalOrder;
         this.alphabetSizes = alphabetSizes;
         this.numberOfParameters = numberOfParameters;
         this.dontCareValuesPerRowCount = dontCareValuesPerRowCount;
         this.binomialCoefficient = binomialCoefficient;
         this.heuristicHorizontal = heuristicHorizontal;
+        this.guard = guard;
+        this.constraints = constraints;
     }
 
     @Override
     public boolean extendHorizontal(CoverageMap coverageMap, int i) {
         boolean mayHaveMoreUncoveredCombinations = true;
         Set<Integer> unassignedRows = new HashSet<>();
-        for (int row = 0; row < coveringArray.size(); row++) {
+        for (int row = 0; row < rows.numberOfRows(); row++) {
             unassignedRows.add(row);
         }
+        int[] cells = rows.cells();  // no rows are added
         int[][] alreadyCoveredCount = new int[unassignedRows.size()][alphabetSizes[i]];  // tc for every row,value-pair
+        int[] matchingPositions = new int[i];
         while (unassignedRows.size() > 0) {
+            guard.check();
             int bestRow = -1, bestValue = -1;
             int maxNumberOfInteractionsForCurrentExtension = binomialCoefficient.choose(i, strength - 1);
             int maxCoverage = -1;
@@ -51,6 +59,9 @@ class IPOGF implements IPO {
                 int numberOfInteractionsForCurrentExtensionExcludingDontCareValues =
                         binomialCoefficient.choose(i - numberOfDontCareValuesInRowUntilThisColumn, strength - 1);
                 for (int value = 0; value < alphabetSizes[i]; value++) {
+                    if (!constraints.isEmpty() && !constraints.isAllowed(cells, rows.offset(row), i, value)) {
+                        continue;
+                    }
                     int wouldBeCoveredNew =
                             numberOfInteractionsForCurrentExtensionExcludingDontCareValues
                                     - alreadyCoveredCount[row][value];
@@ -69,19 +80,21 @@ class IPOGF implements IPO {
             if (maxCoverage <= 0) {
                 break;
             }
-            coveringArray.get(bestRow)[originalOrder[i]] = bestValue;
+            int bestOffset = rows.offset(bestRow);
+            cells[bestOffset + i] = bestValue;
             dontCareValuesPerRowCount.put(bestRow, dontCareValuesPerRowCount.get(bestRow) - 1);
             unassignedRows.remove(bestRow);
             for (int unassignedRow : unassignedRows) {
-                List<Integer> setOfColumnsWhereValsInBestRowAndRowJmatch = new ArrayList<>();
+                // the positions where the values in bestRow and unassignedRow match
+                int offset = rows.offset(unassignedRow);
+                int matchingPositionsCount = 0;
                 for (int k = 0; k < i; k++) {
-                    if (coveringArray.get(unassignedRow)[originalOrder[k]]
-                            == coveringArray.get(bestRow)[originalOrder[k]]
-                            && coveringArray.get(unassignedRow)[originalOrder[k]] != DONT_CARE_VALUE) {
-                        setOfColumnsWhereValsInBestRowAndRowJmatch.add(k);
+                    int value = cells[offset + k];
+                    if (value == cells[bestOffset + k] && value != DONT_CARE_VALUE) {
+                        matchingPositions[matchingPositionsCount++] = k;
                     }
                 }
-                if (setOfColumnsWhereValsInBestRowAndRowJmatch.size() < strength - 1) {
+                if (matchingPositionsCount < strength - 1) {
                     continue;
                 }
                 if (!heuristicHorizontal) {
@@ -93,24 +106,21 @@ class IPOGF implements IPO {
                     int[] actualColumnIndices = new int[strength - 1];
                     do {
                         for (int k = 0; k < strength - 1; k++) {
-                            valueCombination[k] = coveringArray.get(unassignedRow)[
-                                    originalOrder[setOfColumnsWhereValsInBestRowAndRowJmatch.get(parameterCombination[k])]];
-                            actualColumnIndices[k] = setOfColumnsWhereValsInBestRowAndRowJmatch.get(parameterCombination[k]);
+                            actualColumnIndices[k] = matchingPositions[parameterCombination[k]];
+                            valueCombination[k] = cells[offset + actualColumnIndices[k]];
                         }
                         if (!coverageMap.isCovered(actualColumnIndices, valueCombination, bestValue)) {
                             alreadyCoveredCount[unassignedRow][bestValue]++;
                         }
                     }
-                    while (CombinatoricUtils.nextKCombination(parameterCombination,
-                            setOfColumnsWhereValsInBestRowAndRowJmatch.size()));
+                    while (CombinatoricUtils.nextKCombination(parameterCombination, matchingPositionsCount));
                 }
                 else {
                     alreadyCoveredCount[unassignedRow][bestValue] +=
-                            binomialCoefficient.choose(setOfColumnsWhereValsInBestRowAndRowJmatch.size(),
-                                    strength - 1);
+                            binomialCoefficient.choose(matchingPositionsCount, strength - 1);
                 }
             }
-            coverageMap.markAsCovered(coveringArray.get(bestRow));
+            coverageMap.markAsCovered(rows, bestRow);
             if (!coverageMap.mayHaveUncoveredCombinations()) {
                 mayHaveMoreUncoveredCombinations = false;
                 break;
@@ -126,19 +136,22 @@ class IPOGF implements IPO {
         Optional<int[][]> uncoveredCombination = coverageMap.getUncoveredCombination(
                 coveredParameterCombinationsUntilRank, coveredValueCombinationsUntilRank);
         while (uncoveredCombination.isPresent()) {
+            guard.check();
             int[] parameterCombination = uncoveredCombination.get()[0],
                     valueCombination = uncoveredCombination.get()[1];
             coveredParameterCombinationsUntilRank = uncoveredCombination.get()[2][0];
             coveredValueCombinationsUntilRank = uncoveredCombination.get()[2][1];
-            int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[strength - 1];
+            int length = parameterCombination.length;  // exceeds the strength for sub-models
+            int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[length - 1];
             Set<Integer> partition = partitions.getOrDefault(valueOfNewColumnInCurrentUncoveredTuple, null);
             Integer goodRow = null;
             if (partition != null) {
                 for (Integer row : partition) {
-                    int[] candidateRow = coveringArray.get(row);
+                    int[] cells = rows.cells();
+                    int offset = rows.offset(row);
                     boolean rowIsGood = true;
-                    for (int j = 0; j < strength - 1; j++) {
-                        int curCellValue = candidateRow[originalOrder[parameterCombination[j]]];
+                    for (int j = 0; j < length - 1; j++) {
+                        int curCellValue = cells[offset + parameterCombination[j]];
                         if (curCellValue != DONT_CARE_VALUE && curCellValue != valueCombination[j]) {
                             rowIsGood = false;
                             break;
@@ -147,26 +160,31 @@ class IPOGF implements IPO {
                     if (!rowIsGood) {
                         continue;
                     }
-                    goodRow = row;
-                    for (int j = 0; j < strength - 1; j++) {
-                        if (candidateRow[originalOrder[parameterCombination[j]]] == DONT_CARE_VALUE) {
-                            dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - 1);
+                    int dontCareValuesCount = 0;
+                    for (int j = 0; j < length - 1; j++) {
+                        if (cells[offset + parameterCombination[j]] == DONT_CARE_VALUE) {
+                            dontCareValuesCount++;
                         }
-                        candidateRow[originalOrder[parameterCombination[j]]] = valueCombination[j];
                     }
-                    coverageMap.markAsCovered(candidateRow);
+                    if (!constraints.tryAssign(cells, offset, parameterCombination, valueCombination, length - 1)) {
+                        continue;
+                    }
+                    goodRow = row;
+                    dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - dontCareValuesCount);
+                    coverageMap.markAsCovered(rows, row);
                     break;
                 }
             }
             partition = partitions.getOrDefault(DONT_CARE_VALUE, null);
             if (goodRow == null && partition != null) {
                 for (Integer row : partition) {
-                    int[] candidateRow = coveringArray.get(row);
+                    int[] cells = rows.cells();
+                    int offset = rows.offset(row);
                     boolean rowIsGood = true;
                     // check up until including value in last column because it
                     // might no longer be a star value if it was set before:
-                    for (int j = 0; j < strength; j++) {
-                        int curCellValue = candidateRow[originalOrder[parameterCombination[j]]];
+                    for (int j = 0; j < length; j++) {
+                        int curCellValue = cells[offset + parameterCombination[j]];
                         if (curCellValue != DONT_CARE_VALUE && curCellValue != valueCombination[j]) {
                             rowIsGood = false;
                             break;
@@ -175,27 +193,28 @@ class IPOGF implements IPO {
                     if (!rowIsGood) {
                         continue;
                     }
-                    goodRow = row;
-                    for (int j = 0; j < strength; j++) {
-                        if (candidateRow[originalOrder[parameterCombination[j]]] == DONT_CARE_VALUE) {
-                            dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - 1);
+                    int dontCareValuesCount = 0;
+                    for (int j = 0; j < length; j++) {
+                        if (cells[offset + parameterCombination[j]] == DONT_CARE_VALUE) {
+                            dontCareValuesCount++;
                         }
-                        candidateRow[originalOrder[parameterCombination[j]]] = valueCombination[j];
                     }
-                    coverageMap.markAsCovered(candidateRow);
+                    if (!constraints.tryAssign(cells, offset, parameterCombination, valueCombination, length)) {
+                        continue;
+                    }
+                    goodRow = row;
+                    dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - dontCareValuesCount);
+                    coverageMap.markAsCovered(rows, row);
                     break;
                 }
             }
             if (goodRow == null) {
-                int[] newRow = new int[numberOfParameters];
-                Arrays.fill(newRow, DONT_CARE_VALUE);
-                for (int j = 0; j < strength; j++) {
-                    newRow[originalOrder[parameterCombination[j]]] = valueCombination[j];
+                int indexOfNewRow = rows.addRow();
+                for (int j = 0; j < length; j++) {
+                    rows.set(indexOfNewRow, parameterCombination[j], valueCombination[j]);
                 }
-                coveringArray.add(newRow);
-                int indexOfNewRow = coveringArray.size() - 1;
-                dontCareValuesPerRowCount.put(indexOfNewRow, numberOfParameters - strength);
-                coverageMap.markAsCovered(Arrays.copyOf(parameterCombination, strength - 1),
+                dontCareValuesPerRowCount.put(indexOfNewRow, numberOfParameters - length);
+                coverageMap.markAsCovered(Arrays.copyOf(parameterCombination, length - 1),
                         Arrays.copyOf(valueCombination, valueCombination.length - 1),
                         valueCombination[valueCombination.length - 1]);
                 // new row always has at least one star value
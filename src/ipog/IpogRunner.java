@@ -1,22 +1,50 @@
 package ipog;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static ipog.CoveringArray.DONT_CARE_VALUE;
 
 public class IpogRunner {
+    // IPOG-D doubles the first half again as long as it has this many columns:
+    // IPOG is fast on fewer columns anyway, so that another doubling would only add rows
+    private static final int MINIMUM_DOUBLED_COLUMNS = 16;
     private final int strength;
     private final List<Parameter<?>> parameters;
     private final BaseAlgorithm baseAlgorithm;
     private final int numberOfParameters;
-    private final List<int[]> coveringArray;
+    private final List<int[]> coveringArray;  // in the order of the parameters, from buildCoveringArray() on
+    private final RowStore rows;  // the rows of the horizontal and vertical growth, in the internal order
     private final int[] originalOrder;
     private final int[] alphabetSizes;
     private final CombinatoricUtils.BinomialCoefficient binomialCoefficient;
-    private final boolean enhanceHorizontal, fullHorizontal, adaptVertical;
+    private final boolean enhanceHorizontal, fullHorizontal, adaptVertical, removeRedundantRows, mergeDontCareRows,
+            fillDontCaresForHigherStrength;
+    private final ProgressListener progressListener;
+    private final long timeoutNanos;
+    private long seed;
+    private final boolean seeded;
+    private final Checkpoint.Writer checkpointWriter;
+    private final List<int[]> seedRows;
+    private final ConstraintChecker constraints;
+    private ConstraintChecker constraintsInInternalOrder;  // for the rows of the growth
+    private final List<RunConfiguration.SubModel> subModels;
+    private final CoveringArrayCache cache;
+    private final ParameterOrdering parameterOrdering;
+    private final int orderingAttempts;
+    private final AlgebraicConstruction algebraicConstruction;
+    private final List<Constraint> constraintDefinitions;
+    private final String algorithmSelection;
+    private GenerationReport report;
+    private volatile GenerationGuard guard;
+    private volatile boolean cancelled;
 
     public IpogRunner(RunConfiguration runConfiguration) throws IllegalArgumentException {
         strength = runConfiguration.getStrength();
@@ -24,17 +52,38 @@ public class IpogRunner {
         parameters = runConfiguration.getParameters();
         numberOfParameters = parameters.size();
         Preconditions.checkArgument(strength <= numberOfParameters, Preconditions.STRENGTH_TOO_BIG);
+        if (runConfiguration.getBaseAlgorithm() == BaseAlgorithm.AUTO) {
+            AlgorithmSelector algorithmSelector = new AlgorithmSelector(runConfiguration);
+            runConfiguration = algorithmSelector.select();
+            algorithmSelection = algorithmSelector.getReason();
+        }
+        else {
+            algorithmSelection = null;
+        }
         baseAlgorithm = runConfiguration.getBaseAlgorithm();
         enhanceHorizontal = runConfiguration.isEnhanceHorizontal();
         fullHorizontal = runConfiguration.isFullHorizontal();
         adaptVertical = runConfiguration.isAdaptVertical();
-        originalOrder = IntStream.range(0, numberOfParameters).boxed()
-                .sorted((a, b) -> Integer.compare(parameters.get(b).size(), parameters.get(a).size()))
-                .mapToInt(Integer::intValue).toArray();
+        removeRedundantRows = runConfiguration.isRemoveRedundantRows();
+        mergeDontCareRows = runConfiguration.isMergeDontCareRows();
+        fillDontCaresForHigherStrength = runConfiguration.isFillDontCaresForHigherStrength();
+        progressListener = runConfiguration.getProgressListener().orElse(null);
+        timeoutNanos = runConfiguration.getTimeout().map(Duration::toNanos).orElse(0L);
+        seeded = runConfiguration.getSeed().isPresent();
+        seed = runConfiguration.getSeed().orElseGet(() -> ThreadLocalRandom.current().nextLong());
+        checkpointWriter = runConfiguration.getCheckpoint().map(Checkpoint.Writer::new).orElse(null);
+        seedRows = runConfiguration.getSeedRows();
+        constraints = ConstraintChecker.compile(parameters, runConfiguration.getConstraints());
+        subModels = runConfiguration.getSubModels();
+        cache = runConfiguration.getCache().orElse(null);
+        parameterOrdering = runConfiguration.getParameterOrdering();
+        orderingAttempts = runConfiguration.getOrderingAttempts();
+        algebraicConstruction = runConfiguration.getAlgebraicConstruction();
+        constraintDefinitions = runConfiguration.getConstraints();
+        report = newReport();
+        originalOrder = new int[numberOfParameters];
         alphabetSizes = new int[numberOfParameters];
-        for (int i = 0; i < numberOfParameters; i++) {
-            alphabetSizes[i] = parameters.get(originalOrder[i]).size();
-        }
+        applyOrder(orderOfAttempt(0));
         try {
             binomialCoefficient =
                     new CombinatoricUtils.BinomialCoefficient(numberOfParameters - 1, strength - 1);
@@ -43,14 +92,526 @@ public class IpogRunner {
             throw new IllegalArgumentException(Preconditions.TOO_MANY_COMBOS);
         }
         coveringArray = new ArrayList<>();
+        rows = new RowStore(numberOfParameters);
+    }
+
+    /**
+     * @throws GenerationAbortedException if the generation got cancelled, the generating thread
+     *                                    got interrupted or the configured timeout has passed
+     */
+    public CoveringArray generate() throws OutOfMemoryError, GenerationAbortedException {
+        startRun();
+        if (orderingAttempts == 1) {
+            return generateWithCurrentOrder();
+        }
+        CoveringArray smallestCoveringArray = null;
+        int[] smallestOrder = null;
+        GenerationReport smallestReport = null;
+        for (int attempt = 0; attempt < orderingAttempts; attempt++) {
+            if (attempt > 0) {
+                applyOrder(orderOfAttempt(attempt));
+                coveringArray.clear();
+                report = newReport();
+            }
+            int numberOfRows = generateWithCurrentOrder().numberOfRows();
+            if (smallestCoveringArray == null || numberOfRows < smallestCoveringArray.numberOfRows()) {
+                smallestCoveringArray = new CoveringArray(parameters, coveringArray);
+                smallestOrder = originalOrder.clone();
+                smallestReport = report;
+            }
+        }
+        applyOrder(smallestOrder);
+        report = smallestReport;
+        return smallestCoveringArray;
+    }
+
+    private CoveringArray generateWithCurrentOrder() {
+        CoveringArrayCache.Key cacheKey = cacheKey();
+        if (cacheKey != null) {
+            Optional<List<int[]>> cachedRows = cache.get(cacheKey);
+            report.setCacheHit(cachedRows.isPresent());
+            if (cachedRows.isPresent()) {
+                coveringArray.clear();
+                for (int[] cachedRow : cachedRows.get()) {
+                    rows.addRow(cachedRow);  // the cached rows are in the internal order
+                }
+                return buildCoveringArray();
+            }
+        }
+        CoveringArray result;
+        if (isAlgebraicConstructionApplicable()) {
+            int numberOfAlgebraicColumns = Math.min(numberOfParameters, alphabetSizes[0] + 1);
+            Map<Integer, Integer> dontCareValuesPerRowCount =
+                    coverByOrthogonalArray(numberOfAlgebraicColumns);
+            result = numberOfAlgebraicColumns == numberOfParameters ? buildCoveringArray()
+                    : completeColumns(numberOfAlgebraicColumns, dontCareValuesPerRowCount);
+        }
+        else {
+            Map<Integer, Integer> dontCareValuesPerRowCount =
+                    coverTheFirstColumnTuple();
+            result = strength == numberOfParameters ? buildCoveringArray()
+                    : completeColumns(strength, dontCareValuesPerRowCount);
+        }
+        if (cacheKey != null) {
+            List<int[]> cachedRows = new ArrayList<>(coveringArray.size());
+            for (int[] row : coveringArray) {
+                int[] cachedRow = new int[numberOfParameters];
+                for (int i = 0; i < numberOfParameters; i++) {
+                    cachedRow[i] = row[originalOrder[i]];
+                }
+                cachedRows.add(cachedRow);
+            }
+            cache.put(cacheKey, cachedRows);
+        }
+        return result;
+    }
+
+    // null if the run is not cacheable, i.e. if the result depends on more than the parameter sizes
+    private CoveringArrayCache.Key cacheKey() {
+        if (cache == null || orderingAttempts > 1 || !seedRows.isEmpty() || !constraints.isEmpty() || !subModels.isEmpty()
+                || enhanceHorizontal && !seeded) {
+            return null;
+        }
+        // the seed only matters for SIPO
+        return new CoveringArrayCache.Key(alphabetSizes, strength, baseAlgorithm, optionFlags(),
+                enhanceHorizontal ? seed : 0);
+    }
+
+    /**
+     * Continues an interrupted generation from the checkpoint that has been written
+     * by a run with the same configuration (see {@link RunConfiguration.Builder#checkpoint(Path)}).
+     * @throws IllegalArgumentException if the file is not a complete checkpoint or if the checkpoint does not fit
+     *                                  this run configuration (including its seed rows, constraints and sub-models)
+     */
+    public CoveringArray resume(Path checkpointFile) throws IOException, GenerationAbortedException {
+        Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+        int[] parameterSizes = parameters.stream().mapToInt(Parameter::size).toArray();
+        Preconditions.checkArgument(checkpoint.strength == strength
+                        && checkpoint.baseAlgorithm == baseAlgorithm
+                        && checkpoint.optionFlags == optionFlags()
+                        && checkpoint.fingerprint == fingerprint()
+                        && Arrays.equals(checkpoint.parameterSizes, parameterSizes),
+                Preconditions.CHECKPOINT_MISMATCH);
+        startRun();
+        applyOrder(checkpoint.originalOrder);
+        seed = checkpoint.seed;
+        for (int[] row : checkpoint.coveringArray) {
+            rows.addRow(row, originalOrder);
+        }
+        return completeColumns(checkpoint.nextColumn, checkpoint.dontCareValuesPerRowCount);
+    }
+
+    /**
+     * Extends an existing covering array by the parameters that have been added to the model,
+     * instead of generating the whole covering array from scratch.
+     * The parameters of this run configuration have to start with the parameters of the given covering array
+     * (same names and sizes, in the same order), followed by the new parameters.
+     * The values of the existing rows stay untouched (apart from don't-care values),
+     * only the cells of the new columns are filled in (horizontal growth) and rows are added (vertical growth).
+     * @throws IllegalArgumentException if the parameters do not start with the parameters of the covering array
+     *                                  or if it has fewer columns than the strength
+     */
+    public CoveringArray extend(CoveringArray existingCoveringArray) throws GenerationAbortedException {
+        int numberOfExistingParameters = existingCoveringArray.numberOfColumns();
+        Preconditions.checkArgument(numberOfExistingParameters <= numberOfParameters,
+                Preconditions.EXTENSION_MISMATCH);
+        for (int column = 0; column < numberOfExistingParameters; column++) {
+            Parameter<?> existingParameter = existingCoveringArray.getParameter(column);
+            Preconditions.checkArgument(existingParameter.getName().equals(parameters.get(column).getName())
+                    && existingParameter.size() == parameters.get(column).size(), Preconditions.EXTENSION_MISMATCH);
+        }
+        Preconditions.checkArgument(numberOfExistingParameters >= strength,
+                Preconditions.TOO_FEW_COLUMNS_TO_EXTEND);
+        startRun();
+        // the existing columns go first, so that the column-wise growth continues where it has stopped
+        int[] extensionOrder = new int[numberOfParameters];
+        int position = 0;
+        for (int column : originalOrder) {
+            if (column < numberOfExistingParameters) {
+                extensionOrder[position++] = column;
+            }
+        }
+        for (int column : originalOrder) {
+            if (column >= numberOfExistingParameters) {
+                extensionOrder[position++] = column;
+            }
+        }
+        // the order only applies to this extension, later runs use the order of the run configuration again
+        int[] configuredOrder = originalOrder.clone();
+        applyOrder(extensionOrder);
+        try {
+            Map<Integer, Integer> dontCareValuesPerRowCount = null;
+            if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
+                dontCareValuesPerRowCount = new HashMap<>();
+            }
+            for (int[] existingRow : existingCoveringArray.getTable()) {
+                int[] row = Arrays.copyOf(existingRow, numberOfParameters);
+                Arrays.fill(row, numberOfExistingParameters, numberOfParameters, DONT_CARE_VALUE);
+                int index = rows.addRow(row, originalOrder);
+                if (dontCareValuesPerRowCount != null) {
+                    int dontCareValuesCount = 0;
+                    for (int value : row) {
+                        if (value == DONT_CARE_VALUE) {
+                            dontCareValuesCount++;
+                        }
+                    }
+                    dontCareValuesPerRowCount.put(index, dontCareValuesCount);
+                }
+            }
+            // the existing rows are fixed, so there is nothing to double
+            extendColumns(numberOfExistingParameters, numberOfParameters, dontCareValuesPerRowCount);
+            return buildCoveringArray();
+        }
+        finally {
+            applyOrder(configuredOrder);
+        }
+    }
+
+    /**
+     * Repairs a covering array after values have been added to some of its parameters
+     * (see {@link Parameter#addValue(Object)}), instead of generating the whole covering array from scratch.
+     * The parameters of this run configuration have to be the (extended) parameters of the given covering array.
+     * Only the combinations that are missing because of the added values are covered:
+     * first by filling in don't-care values of the existing rows, then by adding new rows.
+     * Values that are already fixed in the existing rows are never changed.
+     * @throws IllegalArgumentException if the parameters do not match the parameters of the covering array
+     */
+    public CoveringArray repair(CoveringArray outdatedCoveringArray) throws GenerationAbortedException {
+        Preconditions.checkArgument(outdatedCoveringArray.numberOfColumns() == numberOfParameters,
+                Preconditions.REPAIR_MISMATCH);
+        for (int column = 0; column < numberOfParameters; column++) {
+            Parameter<?> outdatedParameter = outdatedCoveringArray.getParameter(column);
+            Preconditions.checkArgument(outdatedParameter.getName().equals(parameters.get(column).getName())
+                    && outdatedParameter.size() == parameters.get(column).size(), Preconditions.REPAIR_MISMATCH);
+        }
+        startRun();
+        List<int[]> outdatedRows = outdatedCoveringArray.getTable();
+        // a value that does not occur in a column is a new one; assuming that the covering array
+        // was complete before, only combinations with those columns can be missing,
+        // which is why they are moved to the end of the order and the columns before are skipped
+        boolean[] hasNewValues = new boolean[numberOfParameters];
+        for (int column = 0; column < numberOfParameters; column++) {
+            boolean[] occurs = new boolean[parameters.get(column).size()];
+            for (int[] row : outdatedRows) {
+                if (row[column] != DONT_CARE_VALUE) {
+                    occurs[row[column]] = true;
+                }
+            }
+            for (boolean valueOccurs : occurs) {
+                hasNewValues[column] |= !valueOccurs;
+            }
+        }
+        int[] repairOrder = new int[numberOfParameters];
+        int numberOfUnchangedParameters = 0;
+        for (int column : originalOrder) {
+            if (!hasNewValues[column]) {
+                repairOrder[numberOfUnchangedParameters++] = column;
+            }
+        }
+        int position = numberOfUnchangedParameters;
+        for (int column : originalOrder) {
+            if (hasNewValues[column]) {
+                repairOrder[position++] = column;
+            }
+        }
+        // the order only applies to this repair, later runs use the order of the run configuration again
+        int[] configuredOrder = originalOrder.clone();
+        applyOrder(repairOrder);
+        try {
+            for (int[] outdatedRow : outdatedRows) {
+                rows.addRow(outdatedRow, originalOrder);
+            }
+            coverRemainingCombinations(Math.max(strength - 1, numberOfUnchangedParameters), numberOfParameters,
+                    i -> newCoverageMap(i, false));
+            return buildCoveringArray();
+        }
+        finally {
+            applyOrder(configuredOrder);
+        }
+    }
+
+    /**
+     * Shrinks a covering array of this run configuration by local search (simulated annealing)
+     * until the time budget is used up and returns the smallest covering array that has been found
+     * (at worst the given one). The search is stopped early by {@link #cancel()}, but not by the timeout
+     * of the run configuration. With several threads, the result is not reproducible even with a seed.
+     * @throws IllegalArgumentException if the parameters do not match the parameters of the covering array
+     *                                  or if it does not cover all value combinations
+     */
+    public CoveringArray optimize(CoveringArray coveringArrayToOptimize, Duration timeBudget, int threads) {
+        Preconditions.checkArgument(coveringArrayToOptimize.numberOfColumns() == numberOfParameters,
+                Preconditions.OPTIMIZATION_MISMATCH);
+        for (int column = 0; column < numberOfParameters; column++) {
+            Parameter<?> parameter = coveringArrayToOptimize.getParameter(column);
+            Preconditions.checkArgument(parameter.getName().equals(parameters.get(column).getName())
+                    && parameter.size() == parameters.get(column).size(), Preconditions.OPTIMIZATION_MISMATCH);
+        }
+        Preconditions.checkNotNull(timeBudget);
+        Preconditions.checkArgument(!timeBudget.isNegative() && !timeBudget.isZero(),
+                Preconditions.TIMEOUT_NOT_POSITIVE);
+        Preconditions.checkArgument(threads > 0, Preconditions.THREADS_NOT_POSITIVE);
+        startRun();
+        coveringArray.addAll(coveringArrayToOptimize.getTable());
+        IntFunction<CoverageMap> coverageMapOfColumn = i -> {
+            CoverageMap coverageMap = newCoverageMap(i, true);
+            for (int[] seedRow : seedRows) {
+                coverageMap.markAsCovered(seedRow);
+            }
+            if (!constraints.isEmpty()) {
+                constraints.markInfeasibleCombinationsAsCovered(coverageMap, i, originalOrder, alphabetSizes);
+            }
+            return coverageMap;
+        };
+        for (int i = strength - 1; i < numberOfParameters; i++) {
+            CoverageMap coverageMap = coverageMapOfColumn.apply(i);
+            for (int[] row : coveringArray) {
+                coverageMap.markAsCovered(row);
+            }
+            Preconditions.checkArgument(!coverageMap.mayHaveUncoveredCombinations(), Preconditions.NOT_COVERED);
+        }
+        List<int[]> optimizedRows = new LocalSearchOptimizer(originalOrder, strength - 1, constraints,
+                coverageMapOfColumn, guard).optimize(coveringArray, timeBudget.toNanos(), threads, seed);
+        report.addRemovedRows(coveringArray.size() - optimizedRows.size());
+        coveringArray.clear();
+        coveringArray.addAll(optimizedRows);
+        return buildCoveringArray();
+    }
+
+    /**
+     * Generates at most the given number of rows that cover as many value combinations as possible,
+     * for a test budget that does not suffice for a covering array. The rows are built one at a time,
+     * each covering as many of the remaining combinations as possible (see {@link GreedyRowConstruction}),
+     * so the first rows cover the most; {@link GenerationReport#getCoverageCurve()} tells how many.
+     * If the budget suffices for all combinations, the result is a covering array,
+     * but usually a larger one than that of {@link #generate()}.
+     * The base algorithm and its options are not used, the constraints, seed rows and sub-models are.
+     * @throws IllegalArgumentException if the number of rows is not positive
+     */
+    public CoveringArray generatePartial(int maximumNumberOfRows) throws GenerationAbortedException {
+        Preconditions.checkArgument(maximumNumberOfRows > 0, Preconditions.ROW_BUDGET_NOT_POSITIVE);
+        startRun();
+        CoverageMap[] coverageMaps = new CoverageMap[numberOfParameters - strength + 1];
+        for (int i = strength - 1; i < numberOfParameters; i++) {
+            coverageMaps[i - strength + 1] = newCoverageMap(i, false);
+            prepareCoverageMap(coverageMaps[i - strength + 1], i);
+        }
+        GreedyRowConstruction greedyRowConstruction = new GreedyRowConstruction(originalOrder, alphabetSizes,
+                strength - 1, coverageMaps, constraints, guard);
+        coveringArray.addAll(greedyRowConstruction.constructRows(maximumNumberOfRows));
+        report.setCoverageCurve(greedyRowConstruction.getCoverageCurve());
+        // the rows are not reduced, since the passes expect all combinations to be covered
+        if (fillDontCareValues()) {
+            coverCombinationsOfDroppedRows(maximumNumberOfRows);
+            // the curve contains the gains of the dropped rows, but not the ones of the new rows
+            report.setCoverageCurve(coverageCurve());
+        }
+        return new CoveringArray(parameters, coveringArray);
+    }
+
+    // coverageCurve[j] = the number of combinations that the first j + 1 rows cover
+    // (apart from those of the seed rows and the infeasible ones)
+    private long[] coverageCurve() {
+        CoverageMap[] coverageMaps = new CoverageMap[numberOfParameters - strength + 1];
+        long coveredBefore = 0;
+        for (int i = strength - 1; i < numberOfParameters; i++) {
+            CoverageMap coverageMap = newCoverageMap(i, false);
+            for (int[] seedRow : seedRows) {
+                coverageMap.markAsCovered(seedRow);
+            }
+            constraints.markInfeasibleCombinationsAsCovered(coverageMap, i, originalOrder, alphabetSizes);
+            coveredBefore += coverageMap.totalCoveredValueCombinationsCount();
+            coverageMaps[i - strength + 1] = coverageMap;
+        }
+        long[] curve = new long[coveringArray.size()];
+        for (int row = 0; row < curve.length; row++) {
+            guard.check();
+            long covered = -coveredBefore;
+            for (CoverageMap coverageMap : coverageMaps) {
+                coverageMap.markAsCovered(coveringArray.get(row));
+                covered += coverageMap.totalCoveredValueCombinationsCount();
+            }
+            curve[row] = covered;
+        }
+        return curve;
+    }
+
+    // covers the combinations of the columns firstColumn, ..., endColumn - 1 (with any columns before)
+    // that the rows do not cover yet, by filling in don't-care values and by vertical growth
+    private void coverRemainingCombinations(int firstColumn, int endColumn, IntFunction<CoverageMap> coverageMapOfColumn) {
+        IPOG ipog = new IPOG(rows, strength, guard, constraintsInInternalOrder);
+        for (int i = firstColumn; i < endColumn; i++) {
+            CoverageMap coverageMap = coverageMapOfColumn.apply(i);
+            prepareCoverageMap(coverageMap, i);
+            for (int row = 0; row < rows.numberOfRows(); row++) {
+                guard.check();
+                coverageMap.markAsCovered(rows, row);
+            }
+            if (!coverageMap.mayHaveUncoveredCombinations()) {
+                continue;
+            }
+            fillDontCareValuesHorizontally(coverageMap, i);
+            if (coverageMap.mayHaveUncoveredCombinations()) {
+                ipog.extendVertical(coverageMap, createPartitions(rows, i), numberOfParameters);
+            }
+            reportProgress(i, ProgressListener.Phase.VERTICAL, coverageMap);
+        }
+    }
+
+    // like the horizontal growth of IPOG, but only for rows that have a don't-care value in column i
+    private void fillDontCareValuesHorizontally(CoverageMap coverageMap, int i) {
+        int[] cells = rows.cells();  // no rows are added
+        for (int row = 0; row < rows.numberOfRows(); row++) {
+            guard.check();
+            int offset = rows.offset(row);
+            if (cells[offset + i] != DONT_CARE_VALUE) {
+                continue;
+            }
+            int[] best = new int[2];
+            int[] gains = coverageMap.computeGainsOfFixedParameter(rows, row, best);
+            if (!constraints.isEmpty()) {
+                constraintsInInternalOrder.restrictToAllowedValues(cells, offset, i, gains, best);
+            }
+            if (best[1] == 0) {
+                continue;
+            }
+            cells[offset + i] = best[0];
+            coverageMap.markAsCovered(rows, row);
+            if (!coverageMap.mayHaveUncoveredCombinations()) {
+                return;
+            }
+        }
+    }
+
+    private int[] orderOfAttempt(int attempt) {
+        int[] order = parameterOrdering.order(parameters, strength, constraintDefinitions,
+                new SplittableRandom(~seed + attempt * 0x9E3779B97F4A7C15L));
+        Preconditions.checkArgument(order != null && order.length == numberOfParameters
+                && Arrays.stream(order).allMatch(column -> column >= 0 && column < numberOfParameters)
+                && Arrays.stream(order).distinct().count() == numberOfParameters, Preconditions.INVALID_ORDER);
+        return order;
+    }
+
+    private GenerationReport newReport() {
+        GenerationReport newReport = new GenerationReport();
+        newReport.setNumberOfSeedRows(seedRows.size());
+        newReport.setAlgorithmSelection(algorithmSelection);
+        return newReport;
+    }
+
+    private void applyOrder(int[] order) {
+        System.arraycopy(order, 0, originalOrder, 0, numberOfParameters);
+        for (int i = 0; i < numberOfParameters; i++) {
+            alphabetSizes[i] = parameters.get(originalOrder[i]).size();
+        }
+        constraintsInInternalOrder = constraints.inInternalOrder(originalOrder);
+    }
+
+    // every run starts from scratch, with no rows and a new report
+    private void startRun() {
+        guard = new GenerationGuard(timeoutNanos);
+        if (cancelled) {
+            guard.cancel();
+        }
+        coveringArray.clear();
+        rows.clear();
+        report = newReport();
+    }
+
+    // extends the columns from firstColumn onwards, doubling the columns for IPOG-D
+    private CoveringArray completeColumns(int firstColumn, Map<Integer, Integer> dontCareValuesPerRowCount) {
+        int[] firstDoubledColumns = firstDoubledColumns();
+        // a checkpoint of IPOG-D is written before the first doubling at the latest
+        if (firstDoubledColumns.length == 0 || firstColumn > firstDoubledColumns[0]) {
+            extendColumns(firstColumn, numberOfParameters, dontCareValuesPerRowCount);
+            return buildCoveringArray();
+        }
+        extendColumns(firstColumn, firstDoubledColumns[0], dontCareValuesPerRowCount);
+        for (int level = 0; level < firstDoubledColumns.length; level++) {
+            int firstDoubledColumn = firstDoubledColumns[level];
+            int endColumn = level + 1 < firstDoubledColumns.length ? firstDoubledColumns[level + 1] : numberOfParameters;
+            int[] cells = rows.cells();
+            for (int row = 0; row < rows.numberOfRows(); row++) {
+                guard.check();
+                int offset = rows.offset(row);
+                for (int i = firstDoubledColumn; i < endColumn; i++) {
+                    int value = cells[offset + i - firstDoubledColumn];
+                    cells[offset + i] = value == DONT_CARE_VALUE ? DONT_CARE_VALUE : value % alphabetSizes[i];
+                }
+            }
+            // t columns are covered by the copy, unless they contain a column and its copy
+            coverRemainingCombinations(firstDoubledColumn, endColumn, i -> doubledCoverageMap(i, firstDoubledColumn));
+        }
+        return buildCoveringArray();
     }
 
-    public CoveringArray generate() throws OutOfMemoryError {
-        Map<Integer, Integer> dontCareValuesPerRowCount =
-                coverTheFirstColumnTuple();
-        if (strength == numberOfParameters) {
-            return new CoveringArray(parameters, coveringArray);
+    // the first columns of the copies, from the first doubling to the last one (which ends with the last column);
+    // empty if the columns are not doubled
+    private int[] firstDoubledColumns() {
+        if (baseAlgorithm != BaseAlgorithm.IPOG_D || !constraints.isEmpty() || !seedRows.isEmpty()
+                || !subModels.isEmpty()) {
+            return new int[0];
         }
+        Deque<Integer> firstDoubledColumns = new ArrayDeque<>();
+        int endColumn = numberOfParameters;
+        int half = (endColumn + 1) / 2;
+        while ((firstDoubledColumns.isEmpty() || half >= MINIMUM_DOUBLED_COLUMNS) && isDoublingPossible(half, endColumn)) {
+            firstDoubledColumns.addFirst(half);
+            endColumn = half;
+            half = (endColumn + 1) / 2;
+        }
+        return firstDoubledColumns.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // the reduced values of a copy only cover its domain if it is not larger than the one of the original
+    private boolean isDoublingPossible(int half, int endColumn) {
+        if (half < strength) {
+            return false;
+        }
+        for (int i = half; i < endColumn; i++) {
+            if (alphabetSizes[i] > alphabetSizes[i - half]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the coverage map for the doubled column i, restricted to the column selections
+    // that contain a column j as well as its copy j + firstDoubledColumn
+    private CoverageMap doubledCoverageMap(int i, int firstDoubledColumn) {
+        List<int[]> parameterCombinations = new ArrayList<>();
+        addParameterCombinationsWith(parameterCombinations, i, i - firstDoubledColumn);
+        for (int j = 0; j + firstDoubledColumn < i; j++) {
+            addParameterCombinationsWith(parameterCombinations, i, j, j + firstDoubledColumn);
+        }
+        return new GenericCoverageMap(Arrays.copyOf(alphabetSizes, i + 1), strength, binomialCoefficient,
+                originalOrder, false, parameterCombinations);
+    }
+
+    // adds the sorted combinations of t - 1 columns before column i that contain the given columns
+    private void addParameterCombinationsWith(List<int[]> parameterCombinations, int i, int... columns) {
+        int numberOfOtherColumns = strength - 1 - columns.length;
+        if (numberOfOtherColumns < 0) {
+            return;
+        }
+        int[] candidates = IntStream.range(0, i)
+                .filter(column -> Arrays.stream(columns).noneMatch(given -> given == column)).toArray();
+        if (candidates.length < numberOfOtherColumns) {
+            return;
+        }
+        int[] indices = IntStream.range(0, numberOfOtherColumns).toArray();
+        do {
+            int[] parameterCombination = Arrays.copyOf(columns, strength - 1);
+            for (int k = 0; k < numberOfOtherColumns; k++) {
+                parameterCombination[columns.length + k] = candidates[indices[k]];
+            }
+            Arrays.sort(parameterCombination);
+            parameterCombinations.add(parameterCombination);
+        }
+        while (numberOfOtherColumns > 0 && CombinatoricUtils.nextKCombination(indices, candidates.length));
+    }
+
+    // extends the columns firstColumn, ..., endColumn - 1
+    private void extendColumns(int firstColumn, int endColumn, Map<Integer, Integer> dontCareValuesPerRowCount) {
         IPO ipoStrategy = getIpoStrategy(dontCareValuesPerRowCount);
         SIPO sipo = null;
         if (enhanceHorizontal) {
@@ -60,25 +621,30 @@ public class IpogRunner {
         if (adaptVertical) {
             slo = new SmallestLastOrder();
         }
-        for (int i = strength; i < numberOfParameters; i++) {
-            CoverageMap coverageMap =
-                    new CoverageMap(Arrays.copyOf(alphabetSizes, i + 1),
-                            strength, binomialCoefficient,
-                            originalOrder, enhanceHorizontal);
+        for (int i = firstColumn; i < endColumn; i++) {
+            CoverageMap coverageMap = newCoverageMap(i, enhanceHorizontal);
+            guard.check();
+            if (!prepareCoverageMap(coverageMap, i)) {
+                writeCheckpoint(i + 1, dontCareValuesPerRowCount);
+                continue;
+            }
             boolean mayHaveMoreUncoveredCombinations =
                     ipoStrategy.extendHorizontal(coverageMap, i);
+            reportProgress(i, ProgressListener.Phase.HORIZONTAL, coverageMap);
             if (!mayHaveMoreUncoveredCombinations) {
+                writeCheckpoint(i + 1, dontCareValuesPerRowCount);
                 continue;
             }
             if (enhanceHorizontal) {
                 sipo.enhanceHorizontal(coverageMap, i,
-                        dontCareValuesPerRowCount);
+                        dontCareValuesPerRowCount, randomForColumn(i));
+                reportProgress(i, ProgressListener.Phase.SIPO, coverageMap);
                 if (!coverageMap.mayHaveUncoveredCombinations()) {
+                    writeCheckpoint(i + 1, dontCareValuesPerRowCount);
                     continue;
                 }
             }
-            Map<Integer, Set<Integer>> partitions =
-                    createPartitions(coveringArray, originalOrder, i);
+            Map<Integer, Set<Integer>> partitions = createPartitions(rows, i);
             if (adaptVertical) {
                 slo.extendVerticallyWithGraphColoring(coverageMap,
                         partitions, dontCareValuesPerRowCount);
@@ -87,29 +653,254 @@ public class IpogRunner {
                 ipoStrategy.extendVertical(coverageMap, partitions,
                         numberOfParameters);
             }
+            reportProgress(i, ProgressListener.Phase.VERTICAL, coverageMap);
+            writeCheckpoint(i + 1, dontCareValuesPerRowCount);
+        }
+    }
+
+    // the coverage map for the extension by column i (in the internal order), including the sub-models
+    private CoverageMap newCoverageMap(int i, boolean countOccurrences) {
+        int[] positionOf = new int[numberOfParameters];
+        for (int position = 0; position < numberOfParameters; position++) {
+            positionOf[originalOrder[position]] = position;
+        }
+        int[][] subModelPositions = new int[subModels.size()][];
+        int[] subModelStrengths = new int[subModels.size()];
+        for (int j = 0; j < subModels.size(); j++) {
+            subModelPositions[j] = Arrays.stream(subModels.get(j).getColumns())
+                    .map(column -> positionOf[column]).sorted().toArray();
+            subModelStrengths[j] = subModels.get(j).getStrength();
+        }
+        return CoverageMap.create(Arrays.copyOf(alphabetSizes, i + 1), strength, binomialCoefficient,
+                originalOrder, countOccurrences, subModelPositions, subModelStrengths);
+    }
+
+    // the random choices of a column only depend on the seed and the column,
+    // so that a resumed generation makes the same choices as an uninterrupted one
+    private SplittableRandom randomForColumn(int i) {
+        return new SplittableRandom(seed + i * 0x9E3779B97F4A7C15L);
+    }
+
+    private byte optionFlags() {
+        return (byte) ((enhanceHorizontal ? 1 : 0) | (fullHorizontal ? 2 : 0) | (adaptVertical ? 4 : 0)
+                | (algebraicConstruction.ordinal() << 3) | (removeRedundantRows ? 32 : 0)
+                | (mergeDontCareRows ? 64 : 0) | (fillDontCaresForHigherStrength ? 128 : 0));
+    }
+
+    // the seed rows, constraints and sub-models decide which combinations the rows of a checkpoint have to cover
+    private long fingerprint() {
+        long fingerprint = constraints.fingerprint();
+        fingerprint = 31 * fingerprint + seedRows.size();
+        for (int[] seedRow : seedRows) {
+            fingerprint = 31 * fingerprint + Arrays.hashCode(seedRow);
+        }
+        fingerprint = 31 * fingerprint + subModels.size();
+        for (RunConfiguration.SubModel subModel : subModels) {
+            fingerprint = 31 * (31 * fingerprint + Arrays.hashCode(subModel.getColumns())) + subModel.getStrength();
+        }
+        return fingerprint;
+    }
+
+    // uniform models q^k with a prime power q: the seed rows, constraints and sub-models
+    // would not be taken into account by the construction
+    private boolean isAlgebraicConstructionApplicable() {
+        return algebraicConstruction != AlgebraicConstruction.NEVER
+                && seedRows.isEmpty() && constraints.isEmpty() && subModels.isEmpty()
+                && !CoveringArrayUtils.isMixedLevel(parameters)
+                && OrthogonalArray.isApplicable(alphabetSizes[0], strength)
+                && (numberOfParameters <= alphabetSizes[0] + 1
+                || algebraicConstruction == AlgebraicConstruction.EXACT_OR_SEED);
+    }
+
+    /**
+     * Covers the first columns by the rows of an orthogonal array (instead of the Cartesian product
+     * of the first t columns), the remaining columns are added by the usual horizontal and vertical growth.
+     */
+    private Map<Integer, Integer> coverByOrthogonalArray(int numberOfAlgebraicColumns) {
+        Map<Integer, Integer> dontCareValuesPerRowCount = null;
+        if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
+            dontCareValuesPerRowCount = new HashMap<>();
+        }
+        int q = alphabetSizes[0];
+        for (int[] orthogonalArrayRow : OrthogonalArray.bush(q, strength, numberOfAlgebraicColumns)) {
+            int row = rows.addRow();
+            System.arraycopy(orthogonalArrayRow, 0, rows.cells(), rows.offset(row), numberOfAlgebraicColumns);
+            if (dontCareValuesPerRowCount != null) {
+                dontCareValuesPerRowCount.put(row, numberOfParameters - numberOfAlgebraicColumns);
+            }
+        }
+        report.addRequiredCombinations((long) rows.numberOfRows()
+                * new CombinatoricUtils.BinomialCoefficient(numberOfAlgebraicColumns, strength)
+                .choose(numberOfAlgebraicColumns, strength));
+        return dontCareValuesPerRowCount;
+    }
+
+    private void writeCheckpoint(int nextColumn, Map<Integer, Integer> dontCareValuesPerRowCount) {
+        if (checkpointWriter == null) {
+            return;
+        }
+        int[] parameterSizes = parameters.stream().mapToInt(Parameter::size).toArray();
+        try {
+            checkpointWriter.write(new Checkpoint(strength, baseAlgorithm, optionFlags(), seed, fingerprint(),
+                    nextColumn, originalOrder, parameterSizes, rows.toRows(originalOrder), dontCareValuesPerRowCount));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Requests the cancellation of a running (or the next) generation.
+     * Can be called from any thread; {@link #generate()} then throws a {@link GenerationAbortedException}.
+     */
+    public void cancel() {
+        cancelled = true;
+        GenerationGuard currentGuard = guard;
+        if (currentGuard != null) {
+            currentGuard.cancel();
+        }
+    }
+
+    /**
+     * @return statistics about the last run (of any of the methods that generate or change a covering array)
+     */
+    public GenerationReport getReport() {
+        return report;
+    }
+
+    /**
+     * Marks the combinations that are covered by the seed rows or that are infeasible
+     * because of the constraints as covered.
+     * @return false if there are no combinations left to cover in the coverage map
+     */
+    private boolean prepareCoverageMap(CoverageMap coverageMap, int i) {
+        report.addRequiredCombinations(coverageMap.valueCombinationsCount());
+        for (int[] seedRow : seedRows) {
+            guard.check();
+            coverageMap.markAsCovered(seedRow);
+        }
+        report.addSeedCoveredCombinations(coverageMap.totalCoveredValueCombinationsCount());
+        if (!constraints.isEmpty()) {
+            report.addInfeasibleCombinations(constraints.markInfeasibleCombinationsAsCovered(coverageMap, i,
+                    originalOrder, alphabetSizes));
+        }
+        return coverageMap.mayHaveUncoveredCombinations();
+    }
+
+    private CoveringArray buildCoveringArray() {
+        // the only conversion of the rows of the growth to the order of the parameters
+        coveringArray.addAll(rows.toRows(originalOrder));
+        rows.clear();
+        // the rows of a cache hit have been reduced already;
+        // merged rows cover additional combinations, which can make other rows redundant
+        if (mergeDontCareRows && !report.isCacheHit()) {
+            report.addMergedRows(new DontCareRowMerging(coveringArray, constraints, guard).mergeRows());
+        }
+        if (removeRedundantRows && !report.isCacheHit()) {
+            report.addRemovedRows(new RedundantRowElimination(coveringArray, seedRows, originalOrder, guard,
+                    strength - 1, i -> newCoverageMap(i, true)).removeRedundantRows());
+        }
+        if (fillDontCareValues()) {
+            coverCombinationsOfDroppedRows(Integer.MAX_VALUE);
         }
         return new CoveringArray(parameters, coveringArray);
     }
 
+    // returns whether rows have been dropped because they cannot satisfy the constraints
+    private boolean fillDontCareValues() {
+        // the rows of a cache hit have been filled already
+        if (fillDontCaresForHigherStrength && !report.isCacheHit()) {
+            DontCareFilling dontCareFilling = new DontCareFilling(coveringArray, seedRows, originalOrder,
+                    alphabetSizes, strength, constraints, guard);
+            report.addHigherStrengthCombinationsGained(dontCareFilling.fillDontCareValues());
+            report.addFilledDontCareCells(dontCareFilling.getFilledCellsCount());
+        }
+        if (constraints.isEmpty()) {
+            return false;
+        }
+        // a random value of a don't-care cell could violate a constraint; a row whose don't-care values
+        // cannot be replaced by values that satisfy the constraints is no valid test and gets dropped
+        List<int[]> satisfiableRows = new ArrayList<>(coveringArray.size());
+        for (int[] row : coveringArray) {
+            if (constraints.fillDontCareValues(row)) {
+                satisfiableRows.add(row);
+            }
+            else {
+                report.addUnsatisfiableRow();
+            }
+        }
+        if (satisfiableRows.size() == coveringArray.size()) {
+            return false;
+        }
+        coveringArray.clear();
+        coveringArray.addAll(satisfiableRows);
+        return true;
+    }
+
+    // covers the combinations that only the dropped rows have covered by new rows (as long as there are fewer
+    // than maximumNumberOfRows rows), each completed with values that satisfy the constraints; a combination
+    // that is not part of any such row is infeasible, even if it does not contain a forbidden tuple itself
+    private void coverCombinationsOfDroppedRows(int maximumNumberOfRows) {
+        for (int i = strength - 1; i < numberOfParameters && coveringArray.size() < maximumNumberOfRows; i++) {
+            CoverageMap coverageMap = newCoverageMap(i, false);
+            for (int[] seedRow : seedRows) {
+                coverageMap.markAsCovered(seedRow);
+            }
+            constraints.markInfeasibleCombinationsAsCovered(coverageMap, i, originalOrder, alphabetSizes);
+            for (int[] row : coveringArray) {
+                coverageMap.markAsCovered(row);
+            }
+            int coveredParameterCombinationsUntilRank = 0, coveredValueCombinationsUntilRank = 0;
+            Optional<int[][]> uncoveredCombination = coverageMap.getUncoveredCombination(
+                    coveredParameterCombinationsUntilRank, coveredValueCombinationsUntilRank);
+            while (uncoveredCombination.isPresent() && coveringArray.size() < maximumNumberOfRows) {
+                guard.check();
+                int[] parameterCombination = uncoveredCombination.get()[0],
+                        valueCombination = uncoveredCombination.get()[1];
+                coveredParameterCombinationsUntilRank = uncoveredCombination.get()[2][0];
+                coveredValueCombinationsUntilRank = uncoveredCombination.get()[2][1];
+                int length = parameterCombination.length;
+                int[] newRow = new int[numberOfParameters];
+                Arrays.fill(newRow, DONT_CARE_VALUE);
+                if (constraints.tryAssign(newRow, parameterCombination, valueCombination, length, originalOrder)
+                        && constraints.fillDontCareValues(newRow)) {
+                    coveringArray.add(newRow);
+                    coverageMap.markAsCovered(newRow);
+                }
+                else {
+                    report.addInfeasibleCombinations(1);
+                }
+                coveredValueCombinationsUntilRank++;
+                uncoveredCombination = coverageMap.getUncoveredCombination(
+                        coveredParameterCombinationsUntilRank, coveredValueCombinationsUntilRank);
+            }
+        }
+    }
+
+    private void reportProgress(int i, ProgressListener.Phase phase, CoverageMap coverageMap) {
+        if (progressListener != null) {
+            progressListener.onProgress(i, numberOfParameters, phase, rows.numberOfRows(),
+                    coverageMap.uncoveredValueCombinationsCount());
+        }
+    }
+
     private IPO getIpoStrategy(
             Map<Integer, Integer> dontCareValuesPerRowCount) {
         IPO ipoStrategy;
         switch (baseAlgorithm) {
             case IPOG:
-                ipoStrategy = new IPOG(coveringArray, strength,
-                        originalOrder);
+            case IPOG_D:
+                ipoStrategy = new IPOG(rows, strength, guard, constraintsInInternalOrder);
                 break;
             case IPOG_F:
-                ipoStrategy = new IPOGF(coveringArray, strength,
-                        originalOrder, alphabetSizes,
+                ipoStrategy = new IPOGF(rows, strength, alphabetSizes,
                         numberOfParameters, dontCareValuesPerRowCount,
-                        binomialCoefficient, false);
+                        binomialCoefficient, false, guard, constraintsInInternalOrder);
                 break;
             case IPOG_F2:
-                ipoStrategy = new IPOGF(coveringArray, strength,
-                        originalOrder, alphabetSizes,
+                ipoStrategy = new IPOGF(rows, strength, alphabetSizes,
                         numberOfParameters, dontCareValuesPerRowCount,
-                        binomialCoefficient, true);
+                        binomialCoefficient, true, guard, constraintsInInternalOrder);
                 break;
             default:
                 throw new IllegalStateException(
@@ -125,29 +916,58 @@ public class IpogRunner {
         if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
             starValuesPerRowCount = new HashMap<>();
         }
+        Set<List<Integer>> seedCoveredCombinations = new HashSet<>();
+        seed_loop:
+        for (int[] seedRow : seedRows) {
+            List<Integer> valueCombination = new ArrayList<>(strength);
+            for (int i = 0; i < strength; i++) {
+                if (seedRow[originalOrder[i]] == DONT_CARE_VALUE) {
+                    continue seed_loop;
+                }
+                valueCombination.add(seedRow[originalOrder[i]]);
+            }
+            seedCoveredCombinations.add(valueCombination);
+        }
+        long combinationsCount = 1;
+        for (int alphabetSize : tupleAlphabetSizes) {
+            combinationsCount *= alphabetSize;
+        }
+        report.addRequiredCombinations(combinationsCount);
+        report.addSeedCoveredCombinations(seedCoveredCombinations.size());
+        product_loop:
         for (int[] valueCombination : new CombinatoricUtils.CartesianProduct(tupleAlphabetSizes)) {
-            int[] nextCombination = new int[numberOfParameters];
+            if (!seedCoveredCombinations.isEmpty()
+                    && seedCoveredCombinations.contains(Arrays.stream(valueCombination).boxed().collect(Collectors.toList()))) {
+                continue;
+            }
+            int[] nextCombination = new int[numberOfParameters];  // in the internal order
             Arrays.fill(nextCombination, DONT_CARE_VALUE);
             for (int i = 0; i < strength; i++) {
-                nextCombination[originalOrder[i]] = valueCombination[i];
+                if (!constraints.isEmpty()
+                        && !constraintsInInternalOrder.isAllowed(nextCombination, i, valueCombination[i])) {
+                    report.addInfeasibleCombinations(1);
+                    continue product_loop;
+                }
+                nextCombination[i] = valueCombination[i];
             }
-            coveringArray.add(nextCombination);
+            int row = rows.addRow(nextCombination);
             if (starValuesPerRowCount != null) {
-                starValuesPerRowCount.put(coveringArray.size() - 1, numberOfParameters - strength);
+                starValuesPerRowCount.put(row, numberOfParameters - strength);
             }
         }
         return starValuesPerRowCount;
     }
 
     // Based on paper "An Efficient Design and Implementation of the In-Parameter-Order Algorithm"
-    private static Map<Integer, Set<Integer>> createPartitions(List<int[]> coveringArray,
-                                                               int[] originalOrder, int i) {
+    private static Map<Integer, Set<Integer>> createPartitions(RowStore rows, int i) {
         Map<Integer, Set<Integer>> partitions = new HashMap<>();
-        for (int rowIndex = 0; rowIndex < coveringArray.size(); rowIndex++) {
-            partitions.putIfAbsent(coveringArray.get(rowIndex)[originalOrder[i]], new HashSet<>());
+        int[] cells = rows.cells();
+        for (int rowIndex = 0; rowIndex < rows.numberOfRows(); rowIndex++) {
+            int offset = rows.offset(rowIndex);
+            partitions.putIfAbsent(cells[offset + i], new HashSet<>());
             for (int columnIndex = 0; columnIndex < i; columnIndex++) {
-                if (coveringArray.get(rowIndex)[originalOrder[columnIndex]] == DONT_CARE_VALUE) {
-                    partitions.get(coveringArray.get(rowIndex)[originalOrder[i]]).add(rowIndex);
+                if (cells[offset + columnIndex] == DONT_CARE_VALUE) {
+                    partitions.get(cells[offset + i]).add(rowIndex);
                     break;
                 }
             }
@@ -160,7 +980,8 @@ public class IpogRunner {
      */
     private class SIPO {
         private void enhanceHorizontal(CoverageMap coverageMap, int i,
-                                       Map<Integer, Integer> dontCareValuesPerRowCount) {
+                                       Map<Integer, Integer> dontCareValuesPerRowCount,
+                                       SplittableRandom random) {
             Preconditions.checkArgument(coverageMap.areOccurrencesCounted(), Preconditions.OCC_NOT_COUNTED);
             final double finalTemp = 0.1, initialTemp = 5.0;
             int numberOfBaseIterations = 1000;
@@ -173,18 +994,23 @@ public class IpogRunner {
             final double coolingFactor = 1.0 + (100.0 *
                     ((Math.pow(finalTemp / initialTemp, 1.0 / numberOfIterations)) - 1)) / 100.0;
             for (double currentTemp = initialTemp; currentTemp > finalTemp; currentTemp *= coolingFactor) {
-                int randomIndex = ThreadLocalRandom.current().nextInt(0, modifiableEntries.size());
+                guard.check();
+                int randomIndex = random.nextInt(0, modifiableEntries.size());
                 int[] modifiableEntry = modifiableEntries.get(randomIndex);
                 int chosenRow = modifiableEntry[0], chosenColumn = modifiableEntry[1];
-                int beforeValue = coveringArray.get(chosenRow)[originalOrder[chosenColumn]];
+                int beforeValue = rows.get(chosenRow, chosenColumn);
                 int newValue;  // random value that we try to make a move to
                 do {
-                    newValue = ThreadLocalRandom.current().nextInt(-1, alphabetSizes[chosenColumn]);
+                    newValue = random.nextInt(-1, alphabetSizes[chosenColumn]);
                 }
                 while (newValue == beforeValue);
+                if (newValue != DONT_CARE_VALUE && !constraints.isEmpty() && !constraintsInInternalOrder.isAllowed(
+                        rows.cells(), rows.offset(chosenRow), chosenColumn, newValue)) {
+                    continue;
+                }
                 int numberOfCombinationsCoveredBefore = coverageMap.totalCoveredValueCombinationsCount();
-                coveringArray.get(chosenRow)[originalOrder[chosenColumn]] = newValue;
-                coverageMap.update(coveringArray, chosenRow, chosenColumn, beforeValue);
+                rows.set(chosenRow, chosenColumn, newValue);
+                coverageMap.update(rows, chosenRow, chosenColumn, beforeValue);
                 int numberOfCombinationsCoveredAfter = coverageMap.totalCoveredValueCombinationsCount();
                 int incentive = 0;
                 if (newValue == DONT_CARE_VALUE) {  // if true, then beforeValue != DONT_CARE_VALUE
@@ -201,10 +1027,10 @@ public class IpogRunner {
                 }
                 int objectiveValue = numberOfCombinationsCoveredBefore - numberOfCombinationsCoveredAfter
                         + incentive;
-                if (objectiveValue > 0 && Math.exp(-objectiveValue / currentTemp) < ThreadLocalRandom.current().nextDouble()) {
+                if (objectiveValue > 0 && Math.exp(-objectiveValue / currentTemp) < random.nextDouble()) {
                     // move not accepted; revert changes
-                    coveringArray.get(chosenRow)[originalOrder[chosenColumn]] = beforeValue;
-                    coverageMap.update(coveringArray, chosenRow, chosenColumn, newValue);
+                    rows.set(chosenRow, chosenColumn, beforeValue);
+                    coverageMap.update(rows, chosenRow, chosenColumn, newValue);
                     if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
                         if (incentive == -1) {
                             dontCareValuesPerRowCount.put(chosenRow, dontCareValuesPerRowCount.get(chosenRow) - 1);
@@ -221,9 +1047,9 @@ public class IpogRunner {
         private List<int[]> getModifiableEntries(int i) {
             List<int[]> modifiableEntries = new ArrayList<>();
             if (fullHorizontal) {  // enhance type is fullHorizontal
-                for (int row = 0; row < coveringArray.size(); row++) {
+                for (int row = 0; row < rows.numberOfRows(); row++) {
                     for (int col = 0; col <= i; col++) {
-                        if (coveringArray.get(row)[originalOrder[col]] == DONT_CARE_VALUE
+                        if (rows.get(row, col) == DONT_CARE_VALUE
                                 || col == i) {
                             modifiableEntries.add(new int[]{row, col});
                         }
@@ -231,7 +1057,7 @@ public class IpogRunner {
                 }
             }
             else {  // enhance type is newColumn
-                for (int row = 0; row < coveringArray.size(); row++) {
+                for (int row = 0; row < rows.numberOfRows(); row++) {
                     modifiableEntries.add(new int[]{row, i});
                 }
             }
@@ -262,9 +1088,8 @@ public class IpogRunner {
         private void extendVerticallyByOrder(CoverageMap coverageMap, Map<Integer, Set<Integer>> partitions,
                                              int[][][] smallestLastOrder, Map<Integer, Integer> dontCareValuesPerRowCount) {
             for (int j = 0; j < smallestLastOrder.length; j++) {
-                while (j > 0 && j < smallestLastOrder.length && coverageMap.isCovered(Arrays.copyOf(smallestLastOrder[j][0], strength - 1),
-                        Arrays.copyOf(smallestLastOrder[j][1], strength - 1),
-                        smallestLastOrder[j][1][strength - 1])) {
+                guard.check();
+                while (j > 0 && j < smallestLastOrder.length && isCovered(coverageMap, smallestLastOrder[j])) {
                     j++;
                 }
                 if (j >= smallestLastOrder.length) {
@@ -273,15 +1098,17 @@ public class IpogRunner {
                 int[][] missingTuple = smallestLastOrder[j];
                 int[] parameterCombination = missingTuple[0],
                         valueCombination = missingTuple[1];
-                int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[strength - 1];
+                int length = parameterCombination.length;  // exceeds the strength for sub-models
+                int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[length - 1];
                 Set<Integer> partition = partitions.getOrDefault(valueOfNewColumnInCurrentUncoveredTuple, null);
                 Integer goodRow = null;
                 if (partition != null) {
                     for (Integer row : partition) {
-                        int[] candidateRow = coveringArray.get(row);
+                        int[] cells = rows.cells();
+                        int offset = rows.offset(row);
                         boolean rowIsGood = true;
-                        for (int k = 0; k < strength - 1; k++) {
-                            int curCellValue = candidateRow[originalOrder[parameterCombination[k]]];
+                        for (int k = 0; k < length - 1; k++) {
+                            int curCellValue = cells[offset + parameterCombination[k]];
                             if (curCellValue != DONT_CARE_VALUE && curCellValue != valueCombination[k]) {
                                 rowIsGood = false;
                                 break;
@@ -290,25 +1117,32 @@ public class IpogRunner {
                         if (!rowIsGood) {
                             continue;
                         }
-                        goodRow = row;
-                        for (int k = 0; k < strength - 1; k++) {
-                            if ((baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2)
-                                    && candidateRow[originalOrder[parameterCombination[k]]] == DONT_CARE_VALUE) {
-                                dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - 1);
+                        int dontCareValuesCount = 0;
+                        for (int k = 0; k < length - 1; k++) {
+                            if (cells[offset + parameterCombination[k]] == DONT_CARE_VALUE) {
+                                dontCareValuesCount++;
                             }
-                            candidateRow[originalOrder[parameterCombination[k]]] = valueCombination[k];
                         }
-                        coverageMap.markAsCovered(candidateRow);
+                        if (!constraintsInInternalOrder.tryAssign(cells, offset, parameterCombination,
+                                valueCombination, length - 1)) {
+                            continue;
+                        }
+                        goodRow = row;
+                        if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
+                            dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - dontCareValuesCount);
+                        }
+                        coverageMap.markAsCovered(rows, row);
                         break;
                     }
                 }
                 partition = partitions.getOrDefault(DONT_CARE_VALUE, null);
                 if (goodRow == null && partition != null) {
                     for (Integer row : partition) {
-                        int[] candidateRow = coveringArray.get(row);
+                        int[] cells = rows.cells();
+                        int offset = rows.offset(row);
                         boolean rowIsGood = true;
-                        for (int k = 0; k < strength; k++) {
-                            int curCellValue = candidateRow[originalOrder[parameterCombination[k]]];
+                        for (int k = 0; k < length; k++) {
+                            int curCellValue = cells[offset + parameterCombination[k]];
                             if (curCellValue != DONT_CARE_VALUE && curCellValue != valueCombination[k]) {
                                 rowIsGood = false;
                                 break;
@@ -317,37 +1151,48 @@ public class IpogRunner {
                         if (!rowIsGood) {
                             continue;
                         }
-                        goodRow = row;
-                        for (int k = 0; k < strength; k++) {
-                            if ((baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2)
-                                    && candidateRow[originalOrder[parameterCombination[k]]] == DONT_CARE_VALUE) {
-                                dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - 1);
+                        int dontCareValuesCount = 0;
+                        for (int k = 0; k < length; k++) {
+                            if (cells[offset + parameterCombination[k]] == DONT_CARE_VALUE) {
+                                dontCareValuesCount++;
                             }
-                            candidateRow[originalOrder[parameterCombination[k]]] = valueCombination[k];
                         }
-                        coverageMap.markAsCovered(candidateRow);
+                        if (!constraintsInInternalOrder.tryAssign(cells, offset, parameterCombination,
+                                valueCombination, length)) {
+                            continue;
+                        }
+                        goodRow = row;
+                        if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
+                            dontCareValuesPerRowCount.put(goodRow, dontCareValuesPerRowCount.get(goodRow) - dontCareValuesCount);
+                        }
+                        coverageMap.markAsCovered(rows, row);
                         break;
                     }
                 }
                 if (goodRow == null) {
-                    int[] newRow = new int[numberOfParameters];
-                    Arrays.fill(newRow, DONT_CARE_VALUE);
-                    for (int k = 0; k < strength; k++) {
-                        newRow[originalOrder[parameterCombination[k]]] = valueCombination[k];
+                    int indexOfNewRow = rows.addRow();
+                    for (int k = 0; k < length; k++) {
+                        rows.set(indexOfNewRow, parameterCombination[k], valueCombination[k]);
                     }
-                    coveringArray.add(newRow);
-                    int indexOfNewRow = coveringArray.size() - 1;
                     if (baseAlgorithm == BaseAlgorithm.IPOG_F || baseAlgorithm == BaseAlgorithm.IPOG_F2) {
-                        dontCareValuesPerRowCount.put(indexOfNewRow, numberOfParameters - strength);
+                        dontCareValuesPerRowCount.put(indexOfNewRow, numberOfParameters - length);
                     }
-                    coverageMap.markAsCovered(Arrays.copyOf(parameterCombination, strength - 1),
+                    coverageMap.markAsCovered(Arrays.copyOf(parameterCombination, length - 1),
                             Arrays.copyOf(valueCombination, valueCombination.length - 1),
                             valueCombination[valueCombination.length - 1]);
-                    partitions.get(valueOfNewColumnInCurrentUncoveredTuple).add(indexOfNewRow);  // row always has at least one star value (because strength < numberOfParameters)
+                    // row always has at least one star value (because strength < numberOfParameters)
+                    partitions.computeIfAbsent(valueOfNewColumnInCurrentUncoveredTuple, value -> new HashSet<>())
+                            .add(indexOfNewRow);
                 }
             }
         }
 
+        private boolean isCovered(CoverageMap coverageMap, int[][] missingTuple) {
+            int length = missingTuple[0].length;
+            return coverageMap.isCovered(Arrays.copyOf(missingTuple[0], length - 1),
+                    Arrays.copyOf(missingTuple[1], length - 1), missingTuple[1][length - 1]);
+        }
+
         /**
          * compute sl-ordering in O(|E|+|V|) time
          */
@@ -400,10 +1245,11 @@ public class IpogRunner {
                 List<int[][]> missingTuplesForCurrentValue = integerListEntry.getValue();
                 // look for compatible tuples in other missing tuples (those that have the same value in the new column)
                 for (int j = 0; j < missingTuplesForCurrentValue.size(); j++) {
+                    guard.check();
                     int[][] missingTupleA = missingTuplesForCurrentValue.get(j);
                     int[] parameterCombinationA = missingTupleA[0], valueCombinationA = missingTupleA[1];
                     Map<Integer, Integer> parameterToValueInTupleA = new HashMap<>();
-                    for (int l = 0; l < strength - 1; l++) {
+                    for (int l = 0; l < parameterCombinationA.length - 1; l++) {
                         parameterToValueInTupleA.put(parameterCombinationA[l], valueCombinationA[l]);
                     }
                     tupleB_loop:
@@ -411,7 +1257,7 @@ public class IpogRunner {
                         int[][] missingTupleB = missingTuplesForCurrentValue.get(k);
                         int[] parameterCombinationB = missingTupleB[0],
                                 valueCombinationB = missingTupleB[1];
-                        for (int l = 0; l < strength - 1; l++) {
+                        for (int l = 0; l < parameterCombinationB.length - 1; l++) {
                             if (parameterToValueInTupleA.containsKey(parameterCombinationB[l])
                                     && parameterToValueInTupleA.get(parameterCombinationB[l]) != valueCombinationB[l]) {
                                 // found a conflict between tuple A and tuple B
@@ -459,11 +1305,12 @@ public class IpogRunner {
                                                        int[] parameterCombination, int[] valueCombination,
                                                        List<Integer> key) {
             if (sameValuePartition != null) {
+                int[] cells = rows.cells();  // no rows are added
                 row_loop:
                 for (Integer row : sameValuePartition) {
-                    int[] currentRow = coveringArray.get(row);
-                    for (int j = 0; j < strength - 1; j++) {
-                        int parameterValueInRow = currentRow[originalOrder[parameterCombination[j]]];
+                    int offset = rows.offset(row);
+                    for (int j = 0; j < parameterCombination.length - 1; j++) {
+                        int parameterValueInRow = cells[offset + parameterCombination[j]];
                         if (valueCombination[j] != parameterValueInRow
                                 && parameterValueInRow != DONT_CARE_VALUE) {
                             continue row_loop;
@@ -490,7 +1337,7 @@ public class IpogRunner {
                 coveredValueCombinationsUntilRank = uncoveredCombination.get()[2][1];
                 nonConflictsCountsForMissingTuples.put(List.of(coveredParameterCombinationsUntilRank,
                         coveredValueCombinationsUntilRank), 0);
-                int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[strength - 1];
+                int valueOfNewColumnInCurrentUncoveredTuple = valueCombination[valueCombination.length - 1];
                 if (!missingTuplesByValue.containsKey(valueOfNewColumnInCurrentUncoveredTuple)) {
                     missingTuplesByValue.put(valueOfNewColumnInCurrentUncoveredTuple, new ArrayList<>());
                 }
@@ -0,0 +1,293 @@
+package ipog;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Shrinks a covering array by simulated annealing within a time budget (anytime: the smallest valid
+ * covering array found so far is always available). Whenever the rows cover every combination,
+ * the row with the fewest combinations of its own is removed, which uncovers some combinations.
+ * A move takes an uncovered combination and the row that needs the fewest changes to cover it,
+ * changes those cells and is accepted if it does not increase the number of uncovered combinations,
+ * or otherwise with the probability exp(-increase / temperature).
+ * The occurrences of the combinations are counted in one coverage map per column
+ * (see {@link CoverageMap#update(List, int, int, int)}). Every thread runs its own search
+ * and continues from the smallest covering array of all threads once it has fallen behind.
+ */
+final class LocalSearchOptimizer {
+    private static final double INITIAL_TEMPERATURE = 0.5;
+    private static final double COOLING_FACTOR = 0.9995;
+    private static final double MINIMUM_TEMPERATURE = 0.02;
+    private static final int MOVES_BETWEEN_SYNCHRONIZATIONS = 1000;
+    private final int[] originalOrder;
+    private final int firstColumn, numberOfParameters;
+    private final ConstraintChecker constraints;
+    private final IntFunction<CoverageMap> coverageMapOfColumn;
+    private final GenerationGuard guard;
+    private final AtomicReference<List<int[]>> smallestCoveringArray = new AtomicReference<>();
+
+    /**
+     * @param firstColumn the first column (in the internal order) that has a coverage map, i.e. t - 1
+     * @param coverageMapOfColumn creates the coverage map of a column that counts the occurrences,
+     *                            with the combinations of the seed rows and the infeasible ones marked as covered
+     * @param guard stops the search early (with the smallest covering array so far) once cancelled
+     */
+    LocalSearchOptimizer(int[] originalOrder, int firstColumn, ConstraintChecker constraints,
+                         IntFunction<CoverageMap> coverageMapOfColumn, GenerationGuard guard) {
+        this.originalOrder = originalOrder;
+        this.firstColumn = firstColumn;
+        this.numberOfParameters = originalOrder.length;
+        this.constraints = constraints;
+        this.coverageMapOfColumn = coverageMapOfColumn;
+        this.guard = guard;
+    }
+
+    /**
+     * @param coveringArray rows (in the order of the parameters) that cover every combination
+     * @return the smallest covering array that has been found until the deadline
+     */
+    List<int[]> optimize(List<int[]> coveringArray, long timeBudgetNanos, int threads, long seed) {
+        long deadlineNanos = System.nanoTime() + timeBudgetNanos;
+        smallestCoveringArray.set(copyOf(coveringArray));
+        SplittableRandom random = new SplittableRandom(seed);
+        if (threads == 1) {
+            new Search(random, deadlineNanos).run();
+            return smallestCoveringArray.get();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> searches = new ArrayList<>(threads);
+            for (int thread = 0; thread < threads; thread++) {
+                searches.add(executor.submit(new Search(random.split(), deadlineNanos)));
+            }
+            for (Future<?> search : searches) {
+                search.get();
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return smallestCoveringArray.get();
+    }
+
+    private static List<int[]> copyOf(List<int[]> rows) {
+        List<int[]> copy = new ArrayList<>(rows.size());
+        for (int[] row : rows) {
+            copy.add(row.clone());
+        }
+        return copy;
+    }
+
+    private final class Search implements Runnable {
+        private final SplittableRandom random;
+        private final long deadlineNanos;
+        private List<int[]> rows;
+        private CoverageMap[] coverageMaps;
+        private List<List<int[]>> columnSelections;
+
+        private Search(SplittableRandom random, long deadlineNanos) {
+            this.random = random;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public void run() {
+            restartFrom(smallestCoveringArray.get());
+            double temperature = INITIAL_TEMPERATURE;
+            int moves = 0;
+            while (System.nanoTime() < deadlineNanos && !guard.isCancelled() && !rows.isEmpty()) {
+                if (++moves % MOVES_BETWEEN_SYNCHRONIZATIONS == 0
+                        && smallestCoveringArray.get().size() <= rows.size()) {
+                    restartFrom(smallestCoveringArray.get());  // another thread is ahead
+                    temperature = INITIAL_TEMPERATURE;
+                    continue;
+                }
+                int uncoveredCombinationsCount = uncoveredCombinationsCount();
+                if (uncoveredCombinationsCount == 0) {
+                    publish();
+                    removeRow(rowWithFewestOwnCombinations());
+                    temperature = INITIAL_TEMPERATURE;
+                    continue;
+                }
+                move(uncoveredCombinationsCount, temperature);
+                temperature = Math.max(MINIMUM_TEMPERATURE, temperature * COOLING_FACTOR);
+            }
+            if (uncoveredCombinationsCount() == 0) {
+                publish();
+            }
+        }
+
+        // starts from a valid covering array with one row less
+        private void restartFrom(List<int[]> coveringArray) {
+            rows = copyOf(coveringArray);
+            coverageMaps = new CoverageMap[numberOfParameters - firstColumn];
+            columnSelections = new ArrayList<>(coverageMaps.length);
+            for (int column = 0; column < coverageMaps.length; column++) {
+                coverageMaps[column] = coverageMapOfColumn.apply(firstColumn + column);
+                columnSelections.add(coverageMaps[column].getColumnSelections());
+                for (int[] row : rows) {
+                    coverageMaps[column].markAsCovered(row);
+                }
+            }
+            if (!rows.isEmpty()) {
+                removeRow(rowWithFewestOwnCombinations());
+            }
+        }
+
+        private void publish() {
+            List<int[]> coveringArray = copyOf(rows);
+            smallestCoveringArray.accumulateAndGet(coveringArray,
+                    (smallest, candidate) -> candidate.size() < smallest.size() ? candidate : smallest);
+        }
+
+        private int uncoveredCombinationsCount() {
+            int count = 0;
+            for (CoverageMap coverageMap : coverageMaps) {
+                count += coverageMap.uncoveredValueCombinationsCount();
+            }
+            return count;
+        }
+
+        // the row that covers the fewest combinations which no other row covers (ties are broken randomly)
+        private int rowWithFewestOwnCombinations() {
+            int bestRow = 0, fewestOwnCombinations = Integer.MAX_VALUE, ties = 0;
+            for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+                int ownCombinations = 0;
+                int[] row = rows.get(rowIndex);
+                for (int column = 0; column < coverageMaps.length && ownCombinations <= fewestOwnCombinations; column++) {
+                    ownCombinations += ownCombinations(row, column);
+                }
+                if (ownCombinations < fewestOwnCombinations) {
+                    bestRow = rowIndex;
+                    fewestOwnCombinations = ownCombinations;
+                    ties = 1;
+                }
+                else if (ownCombinations == fewestOwnCombinations && random.nextInt(++ties) == 0) {
+                    bestRow = rowIndex;
+                }
+            }
+            return bestRow;
+        }
+
+        private int ownCombinations(int[] row, int column) {
+            int fixedParameterValue = row[originalOrder[firstColumn + column]];
+            if (fixedParameterValue == DONT_CARE_VALUE) {
+                return 0;
+            }
+            int count = 0;
+            selection_loop:
+            for (int[] columnSelection : columnSelections.get(column)) {
+                int length = columnSelection.length;
+                int[] valueCombination = new int[length];
+                for (int k = 0; k < length; k++) {
+                    valueCombination[k] = row[originalOrder[columnSelection[k]]];
+                    if (valueCombination[k] == DONT_CARE_VALUE) {
+                        continue selection_loop;
+                    }
+                }
+                if (coverageMaps[column].occurrenceCount(Arrays.copyOf(columnSelection, length - 1),
+                        valueCombination) == 1) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // a row without fixed cells covers nothing, so it can be taken out of the coverage maps cell by cell
+        private void removeRow(int rowIndex) {
+            for (int position = 0; position < numberOfParameters; position++) {
+                setCell(rowIndex, position, DONT_CARE_VALUE);
+            }
+            rows.remove(rowIndex);
+        }
+
+        private void setCell(int rowIndex, int position, int value) {
+            int[] row = rows.get(rowIndex);
+            int beforeValue = row[originalOrder[position]];
+            if (beforeValue == value) {
+                return;
+            }
+            row[originalOrder[position]] = value;
+            // the selections of the columns before do not contain the position
+            for (int column = Math.max(0, position - firstColumn); column < coverageMaps.length; column++) {
+                coverageMaps[column].update(rows, rowIndex, position, beforeValue);
+            }
+        }
+
+        private void move(int uncoveredCombinationsCount, double temperature) {
+            int[][] uncoveredCombination = randomUncoveredCombination();
+            int[] columnSelection = uncoveredCombination[0], valueCombination = uncoveredCombination[1];
+            // the row that differs in the fewest cells of the selection
+            int chosenRow = -1, fewestChanges = Integer.MAX_VALUE, ties = 0;
+            for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+                int changes = 0;
+                for (int k = 0; k < columnSelection.length && changes <= fewestChanges; k++) {
+                    if (rows.get(rowIndex)[originalOrder[columnSelection[k]]] != valueCombination[k]) {
+                        changes++;
+                    }
+                }
+                if (changes < fewestChanges) {
+                    chosenRow = rowIndex;
+                    fewestChanges = changes;
+                    ties = 1;
+                }
+                else if (changes == fewestChanges && random.nextInt(++ties) == 0) {
+                    chosenRow = rowIndex;
+                }
+            }
+            int[] row = rows.get(chosenRow);
+            int[] beforeValues = new int[columnSelection.length];
+            int changed = 0;
+            for (; changed < columnSelection.length; changed++) {
+                int column = originalOrder[columnSelection[changed]];
+                beforeValues[changed] = row[column];
+                if (row[column] != valueCombination[changed] && !constraints.isEmpty()
+                        && !constraints.isAllowed(row, column, valueCombination[changed])) {
+                    break;
+                }
+                setCell(chosenRow, columnSelection[changed], valueCombination[changed]);
+            }
+            boolean isAccepted = changed == columnSelection.length;
+            if (isAccepted) {
+                int increase = uncoveredCombinationsCount() - uncoveredCombinationsCount;
+                isAccepted = increase <= 0 || random.nextDouble() < Math.exp(-increase / temperature);
+            }
+            if (!isAccepted) {
+                for (int k = changed - 1; k >= 0; k--) {
+                    setCell(chosenRow, columnSelection[k], beforeValues[k]);
+                }
+            }
+        }
+
+        // starts the search at a random column and selection, so that every uncovered combination gets its turn
+        private int[][] randomUncoveredCombination() {
+            int startingColumn = random.nextInt(coverageMaps.length);
+            for (int j = 0; j < coverageMaps.length; j++) {
+                int column = (startingColumn + j) % coverageMaps.length;
+                CoverageMap coverageMap = coverageMaps[column];
+                if (coverageMap.uncoveredValueCombinationsCount() == 0) {
+                    continue;
+                }
+                Optional<int[][]> uncoveredCombination =
+                        coverageMap.getUncoveredCombination(random.nextInt(columnSelections.get(column).size()), 0);
+                if (uncoveredCombination.isEmpty()) {
+                    uncoveredCombination = coverageMap.getUncoveredCombination(0, 0);
+                }
+                if (uncoveredCombination.isPresent()) {
+                    return uncoveredCombination.get();
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ipog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bush's construction of the orthogonal array OA(q^t; t, q + 1, q) for a prime power q and t <= q:
+ * every row is a polynomial f of degree < t over the finite field GF(q),
+ * column x (for every field element x) holds f(x) and the last column holds the coefficient of x^(t-1).
+ * Two different polynomials of degree < t agree in at most t - 1 points, so every t columns
+ * contain every value combination exactly once, which makes the array optimal (q^t rows).
+ */
+final class OrthogonalArray {
+    // q^t rows need to fit into a list
+    private static final long MAX_NUMBER_OF_ROWS = Integer.MAX_VALUE;
+
+    private OrthogonalArray() {
+    }
+
+    /**
+     * @return true if the uniform model q^k can be covered (at least partly) by Bush's construction
+     */
+    static boolean isApplicable(int parameterSize, int strength) {
+        if (primeFactor(parameterSize) == 0 || strength > parameterSize) {
+            return false;
+        }
+        long numberOfRows = 1;
+        for (int j = 0; j < strength; j++) {
+            numberOfRows *= parameterSize;
+            if (numberOfRows > MAX_NUMBER_OF_ROWS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param numberOfColumns at most q + 1
+     * @return the q^t rows of the orthogonal array restricted to the first numberOfColumns columns
+     */
+    static List<int[]> bush(int q, int strength, int numberOfColumns) {
+        Preconditions.checkArgument(isApplicable(q, strength) && numberOfColumns <= q + 1);
+        GaloisField field = new GaloisField(q);
+        int numberOfRows = 1;
+        for (int j = 0; j < strength; j++) {
+            numberOfRows *= q;
+        }
+        List<int[]> rows = new ArrayList<>(numberOfRows);
+        int[] coefficients = new int[strength];
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+            for (int j = 0, rest = rowIndex; j < strength; j++, rest /= q) {
+                coefficients[j] = rest % q;
+            }
+            int[] row = new int[numberOfColumns];
+            for (int x = 0; x < numberOfColumns; x++) {
+                if (x == q) {
+                    row[x] = coefficients[strength - 1];  // the point at infinity
+                    continue;
+                }
+                int value = coefficients[strength - 1];  // Horner's method
+                for (int j = strength - 2; j >= 0; j--) {
+                    value = field.add(field.multiply(value, x), coefficients[j]);
+                }
+                row[x] = value;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // the prime p if n = p^m, 0 otherwise
+    private static int primeFactor(int n) {
+        if (n < 2) {
+            return 0;
+        }
+        int p = 2;
+        while ((long) p * p <= n && n % p != 0) {
+            p++;
+        }
+        if (n % p != 0) {
+            return n;  // n is a prime
+        }
+        while (n % p == 0) {
+            n /= p;
+        }
+        return n == 1 ? p : 0;
+    }
+
+    /**
+     * GF(p^m): the elements are the polynomials of degree < m over GF(p), encoded by their coefficients
+     * as digits in base p. Multiplication uses logarithm tables with respect to a primitive element.
+     */
+    static final class GaloisField {
+        private final int order, characteristic, degree;
+        private final int[] exp;  // exp[i] = alpha^i, twice the length of the multiplicative group
+        private final int[] log;  // log[alpha^i] = i
+
+        GaloisField(int order) {
+            this.order = order;
+            characteristic = primeFactor(order);
+            Preconditions.checkArgument(characteristic != 0);
+            int m = 0;
+            for (int n = order; n > 1; n /= characteristic) {
+                m++;
+            }
+            degree = m;
+            exp = new int[2 * (order - 1)];
+            log = new int[order];
+            // find a primitive polynomial x^m + c(x) by checking whether x generates the multiplicative group
+            for (int c = 1; c < order; c++) {
+                if (c % characteristic != 0 && generatesMultiplicativeGroup(c)) {
+                    return;
+                }
+            }
+            throw new IllegalStateException("no primitive polynomial found for GF(" + order + ")");
+        }
+
+        private boolean generatesMultiplicativeGroup(int c) {
+            int element = 1;
+            for (int i = 0; i < order - 1; i++) {
+                if (i > 0 && element == 1) {
+                    return false;
+                }
+                exp[i] = element;
+                exp[i + order - 1] = element;
+                log[element] = i;
+                element = multiplyByX(element, c);
+            }
+            return element == 1;
+        }
+
+        // reduces x * element modulo x^m + c(x)
+        private int multiplyByX(int element, int c) {
+            int highest = 1;
+            for (int j = 1; j < degree; j++) {
+                highest *= characteristic;
+            }
+            int top = element / highest;
+            int shifted = (element % highest) * characteristic;
+            // x^m = -c(x)
+            int result = 0, multiplier = 1;
+            for (int j = 0; j < degree; j++, shifted /= characteristic, c /= characteristic) {
+                int digit = Math.floorMod(shifted % characteristic - top * (c % characteristic), characteristic);
+                result += digit * multiplier;
+                multiplier *= characteristic;
+            }
+            return result;
+        }
+
+        int add(int a, int b) {
+            if (characteristic == 2) {
+                return a ^ b;
+            }
+            int result = 0, multiplier = 1;
+            for (int j = 0; j < degree; j++, a /= characteristic, b /= characteristic) {
+                result += (a % characteristic + b % characteristic) % characteristic * multiplier;
+                multiplier *= characteristic;
+            }
+            return result;
+        }
+
+        int multiply(int a, int b) {
+            if (a == 0 || b == 0) {
+                return 0;
+            }
+            return exp[log[a] + log[b]];
+        }
+    }
+}
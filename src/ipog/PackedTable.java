@@ -0,0 +1,295 @@
+package ipog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * The cells of a covering array in one primitive array instead of one int[] per row.
+ * A cell stores its value index + 1 (so that don't-care values are stored as 0) in as few bits as
+ * the largest domain allows: 1, 2 or 4 bits packed into longs (which never straddle two longs),
+ * or a byte, a short or an int per cell. The cells are stored row by row or column by column;
+ * the column-major layout keeps the values of a column together, e.g. for computing statistics per column.
+ * The cells can also be read from a (memory-mapped) buffer that holds them in little-endian order,
+ * see {@link CoveringArrayFile}.
+ */
+public final class PackedTable {
+    public enum Layout {
+        ROW_MAJOR, COLUMN_MAJOR
+    }
+
+    private final int numberOfRows, numberOfColumns;
+    private final int bitsPerCell;
+    private final Layout layout;
+    private final long[] words;  // for 1, 2 or 4 bits per cell
+    private final byte[] bytes;
+    private final short[] shorts;
+    private final int[] ints;
+    private final ByteBuffer buffer;  // instead of the arrays
+
+    private PackedTable(int numberOfRows, int numberOfColumns, int bitsPerCell, Layout layout) {
+        this.bitsPerCell = bitsPerCell;
+        long numberOfCells = (long) numberOfRows * numberOfColumns;
+        Preconditions.checkArgument(numberOfCells * bitsPerCell / Long.SIZE < Integer.MAX_VALUE
+                && (bitsPerCell < Byte.SIZE || numberOfCells < Integer.MAX_VALUE), Preconditions.TABLE_TOO_LARGE);
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.layout = layout;
+        int length = (int) numberOfCells;
+        words = bitsPerCell < Byte.SIZE ? new long[(int) ((numberOfCells * bitsPerCell + Long.SIZE - 1) / Long.SIZE)] : null;
+        bytes = bitsPerCell == Byte.SIZE ? new byte[length] : null;
+        shorts = bitsPerCell == Short.SIZE ? new short[length] : null;
+        ints = bitsPerCell == Integer.SIZE ? new int[length] : null;
+        buffer = null;
+    }
+
+    private PackedTable(int numberOfRows, int numberOfColumns, int bitsPerCell, Layout layout, ByteBuffer buffer) {
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.bitsPerCell = bitsPerCell;
+        this.layout = layout;
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        words = null;
+        bytes = null;
+        shorts = null;
+        ints = null;
+    }
+
+    /**
+     * @param rows the value indices of the rows (don't-care values are allowed)
+     * @param alphabetSizes alphabetSizes[column] = number of values of the column
+     * @throws IllegalArgumentException if a row has the wrong length or a value that is not in the domain of its column
+     */
+    public static PackedTable of(List<int[]> rows, int[] alphabetSizes, Layout layout) {
+        Preconditions.checkNotNull(rows);
+        Preconditions.checkNotNull(layout);
+        PackedTable table = new PackedTable(rows.size(), alphabetSizes.length,
+                bitsPerCell(Arrays.stream(alphabetSizes).max().orElse(1)), layout);
+        for (int row = 0; row < rows.size(); row++) {
+            int[] values = rows.get(row);
+            Preconditions.checkArgument(values.length == alphabetSizes.length, Preconditions.FALSE_ARRAY_LENGTH);
+            for (int column = 0; column < values.length; column++) {
+                Preconditions.checkArgument(values[column] >= DONT_CARE_VALUE && values[column] < alphabetSizes[column],
+                        Preconditions.INVALID_CELL_VALUE);
+                table.setCell(table.cellIndex(row, column), values[column] + 1);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return a table that reads its cells from the buffer (from its position on), without copying them
+     * @throws IllegalArgumentException if the number of bits per cell is not supported
+     *                                  or the buffer has fewer bytes than the cells need
+     */
+    static PackedTable wrap(ByteBuffer buffer, int numberOfRows, int numberOfColumns, int bitsPerCell, Layout layout) {
+        Preconditions.checkArgument(Integer.bitCount(bitsPerCell) == 1 && bitsPerCell <= Integer.SIZE
+                && numberOfRows >= 0 && numberOfColumns > 0, Preconditions.INVALID_CELL_VALUE);
+        PackedTable table = new PackedTable(numberOfRows, numberOfColumns, bitsPerCell, layout, buffer);
+        Preconditions.checkArgument(table.sizeInBytes() <= buffer.remaining(), Preconditions.TABLE_TOO_LARGE);
+        return table;
+    }
+
+    /**
+     * @return a table with the same cells in the given layout (this table if it has the layout already)
+     */
+    public PackedTable withLayout(Layout layout) {
+        if (layout == this.layout) {
+            return this;
+        }
+        PackedTable table = new PackedTable(numberOfRows, numberOfColumns, bitsPerCell, layout);
+        for (int row = 0; row < numberOfRows; row++) {
+            for (int column = 0; column < numberOfColumns; column++) {
+                table.setCell(table.cellIndex(row, column), getCell(cellIndex(row, column)));
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return the value index of the cell, {@link CoveringArray#DONT_CARE_VALUE} for a don't-care value
+     */
+    public int get(int row, int column) {
+        Objects.checkIndex(row, numberOfRows);
+        Objects.checkIndex(column, numberOfColumns);
+        return getCell(cellIndex(row, column)) - 1;
+    }
+
+    /**
+     * @return a copy of the value indices of the row
+     */
+    public int[] getRow(int row) {
+        int[] values = new int[numberOfColumns];
+        getRow(row, values);
+        return values;
+    }
+
+    /**
+     * Copies the value indices of the row into the given array, so that the rows can be visited without allocations.
+     */
+    public void getRow(int row, int[] values) {
+        Objects.checkIndex(row, numberOfRows);
+        Preconditions.checkArgument(values.length >= numberOfColumns, Preconditions.FALSE_ARRAY_LENGTH);
+        if (layout == Layout.ROW_MAJOR && bytes != null) {
+            int offset = row * numberOfColumns;
+            for (int column = 0; column < numberOfColumns; column++) {
+                values[column] = (bytes[offset + column] & 0xFF) - 1;
+            }
+            return;
+        }
+        for (int column = 0; column < numberOfColumns; column++) {
+            values[column] = getCell(cellIndex(row, column)) - 1;
+        }
+    }
+
+    /**
+     * @return the rows as int[] (each call of get copies the row), for the code that expects a list of rows
+     */
+    public List<int[]> asList() {
+        return new AbstractList<>() {
+            @Override
+            public int[] get(int row) {
+                return getRow(row);
+            }
+
+            @Override
+            public int size() {
+                return numberOfRows;
+            }
+        };
+    }
+
+    public int numberOfRows() {
+        return numberOfRows;
+    }
+
+    public int numberOfColumns() {
+        return numberOfColumns;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return 1, 2, 4, 8, 16 or 32
+     */
+    public int getBitsPerCell() {
+        return bitsPerCell;
+    }
+
+    /**
+     * @return the number of bytes of the cells (without the object headers)
+     */
+    public long sizeInBytes() {
+        long numberOfCells = (long) numberOfRows * numberOfColumns;
+        return bitsPerCell < Byte.SIZE ? (numberOfCells * bitsPerCell + Long.SIZE - 1) / Long.SIZE * Long.BYTES
+                : numberOfCells * bitsPerCell / Byte.SIZE;
+    }
+
+    /**
+     * Writes the cells in their layout as {@link #sizeInBytes()} bytes in little-endian order (as read by
+     * {@link #wrap(ByteBuffer, int, int, int, Layout)}), through a buffer of the given size.
+     */
+    void writeCells(WritableByteChannel channel, int bufferSize) throws IOException {
+        if (buffer != null) {
+            write(channel, buffer.duplicate().limit((int) sizeInBytes()));
+            return;
+        }
+        ByteBuffer chunk = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        int cellsPerChunk = bufferSize * Byte.SIZE / Math.max(Byte.SIZE, bitsPerCell);
+        int length = words != null ? words.length : (int) ((long) numberOfRows * numberOfColumns);
+        int step = words != null ? bufferSize / Long.BYTES : cellsPerChunk;
+        for (int offset = 0; offset < length; offset += step) {
+            int count = Math.min(step, length - offset);
+            chunk.clear();
+            if (words != null) {
+                chunk.asLongBuffer().put(words, offset, count);
+                chunk.limit(count * Long.BYTES);
+            }
+            else if (bytes != null) {
+                chunk.put(bytes, offset, count).flip();
+            }
+            else if (shorts != null) {
+                chunk.asShortBuffer().put(shorts, offset, count);
+                chunk.limit(count * Short.BYTES);
+            }
+            else {
+                chunk.asIntBuffer().put(ints, offset, count);
+                chunk.limit(count * Integer.BYTES);
+            }
+            write(channel, chunk);
+        }
+    }
+
+    private static void write(WritableByteChannel channel, ByteBuffer chunk) throws IOException {
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+    }
+
+    // the cells store the values 0 (don't-care) to the domain size
+    private static int bitsPerCell(int maximumDomainSize) {
+        int bits = Integer.SIZE - Integer.numberOfLeadingZeros(maximumDomainSize);
+        return bits <= 4 ? Integer.highestOneBit(2 * bits - 1) : bits <= Byte.SIZE ? Byte.SIZE
+                : bits <= Short.SIZE ? Short.SIZE : Integer.SIZE;
+    }
+
+    private long cellIndex(int row, int column) {
+        return layout == Layout.ROW_MAJOR ? (long) row * numberOfColumns + column
+                : (long) column * numberOfRows + row;
+    }
+
+    private int getCell(long cellIndex) {
+        if (buffer != null) {
+            return getBufferedCell(cellIndex);
+        }
+        switch (bitsPerCell) {
+            case Byte.SIZE:
+                return bytes[(int) cellIndex] & 0xFF;
+            case Short.SIZE:
+                return shorts[(int) cellIndex] & 0xFFFF;
+            case Integer.SIZE:
+                return ints[(int) cellIndex];
+            default:
+                long bitIndex = cellIndex * bitsPerCell;
+                return (int) (words[(int) (bitIndex >>> 6)] >>> bitIndex) & ((1 << bitsPerCell) - 1);
+        }
+    }
+
+    private int getBufferedCell(long cellIndex) {
+        switch (bitsPerCell) {
+            case Byte.SIZE:
+                return buffer.get((int) cellIndex) & 0xFF;
+            case Short.SIZE:
+                return buffer.getShort((int) cellIndex * Short.BYTES) & 0xFFFF;
+            case Integer.SIZE:
+                return buffer.getInt((int) cellIndex * Integer.BYTES);
+            default:
+                long bitIndex = cellIndex * bitsPerCell;
+                return (int) (buffer.getLong((int) (bitIndex >>> 6) * Long.BYTES) >>> bitIndex) & ((1 << bitsPerCell) - 1);
+        }
+    }
+
+    private void setCell(long cellIndex, int cell) {
+        switch (bitsPerCell) {
+            case Byte.SIZE:
+                bytes[(int) cellIndex] = (byte) cell;
+                break;
+            case Short.SIZE:
+                shorts[(int) cellIndex] = (short) cell;
+                break;
+            case Integer.SIZE:
+                ints[(int) cellIndex] = cell;
+                break;
+            default:
+                long bitIndex = cellIndex * bitsPerCell;
+                long mask = ((1L << bitsPerCell) - 1) << bitIndex;
+                words[(int) (bitIndex >>> 6)] = words[(int) (bitIndex >>> 6)] & ~mask | ((long) cell << bitIndex) & mask;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package ipog;
+
+import java.util.*;
+
+/**
+ * Coverage map for t = 2: every earlier column j is paired with the fixed parameter,
+ * so the covered pairs of column j are a v_j x v_new bit matrix (one row of words per value of column j).
+ * The gains of the values of the fixed parameter are accumulated word-parallel in bit-sliced counters:
+ * the uncovered bits of the matrix row that is selected by the value of column j
+ * are added to all the counters of a word at once.
+ * The ranks of the column selections and value combinations are the same as in {@link GenericCoverageMap},
+ * so both produce the same covering arrays.
+ */
+final class PairwiseCoverageMap implements CoverageMap {
+    private final int fixedParameter;
+    private final int fixedParameterSize;
+    private final int[] parameterSizes;
+    private final int[] originalOrder;
+    private final int[] internalRow;  // a row in the order of the parameters, copied into the internal order
+    private final boolean countOccurrences;
+    private final int wordsPerValue;
+    private final long lastWordMask;
+    private final long[][] coveredPairs;  // [j][value of j * wordsPerValue + word] -> covered values of the fixed parameter
+    private final int[][] occurrencesCount;  // [j][value of j * fixedParameterSize + value of fixed parameter]
+    private final int[] coveredPairsCount;  // [j]
+    private final long[][] counters;  // bit-sliced gains: [bit of the counter][word]
+    private int coveredCombinationsCount;
+    private final int combinationsCount;
+
+    PairwiseCoverageMap(int[] parameterSizes, int[] originalOrder, boolean countOccurrences) {
+        Preconditions.checkNotNull(parameterSizes);
+        Preconditions.checkNotNull(originalOrder);
+        Preconditions.checkArgument(parameterSizes.length >= 2);
+        this.parameterSizes = parameterSizes;
+        this.originalOrder = originalOrder;
+        internalRow = new int[parameterSizes.length];
+        this.countOccurrences = countOccurrences;
+        fixedParameter = parameterSizes.length - 1;
+        fixedParameterSize = parameterSizes[fixedParameter];
+        wordsPerValue = (fixedParameterSize + Long.SIZE - 1) / Long.SIZE;
+        lastWordMask = fixedParameterSize % Long.SIZE == 0 ? -1L : (1L << (fixedParameterSize % Long.SIZE)) - 1;
+        coveredPairs = new long[fixedParameter][];
+        occurrencesCount = countOccurrences ? new int[fixedParameter][] : null;
+        coveredPairsCount = new int[fixedParameter];
+        int count = 0;
+        for (int j = 0; j < fixedParameter; j++) {
+            coveredPairs[j] = new long[parameterSizes[j] * wordsPerValue];
+            if (countOccurrences) {
+                occurrencesCount[j] = new int[parameterSizes[j] * fixedParameterSize];
+            }
+            Preconditions.checkArgument((long) count + (long) parameterSizes[j] * fixedParameterSize
+                    <= Integer.MAX_VALUE);
+            count += parameterSizes[j] * fixedParameterSize;
+        }
+        combinationsCount = count;
+        // the gain of a value is at most the number of earlier columns
+        counters = new long[Integer.SIZE - Integer.numberOfLeadingZeros(fixedParameter)][wordsPerValue];
+    }
+
+    @Override
+    public List<int[]> getColumnSelections() {
+        List<int[]> selections = new ArrayList<>(fixedParameter);
+        for (int j = 0; j < fixedParameter; j++) {
+            selections.add(new int[]{j, fixedParameter});
+        }
+        return selections;
+    }
+
+    @Override
+    public boolean mayHaveUncoveredCombinations() {
+        return coveredCombinationsCount < combinationsCount;
+    }
+
+    private boolean hasUncoveredCombinations(int j) {
+        return coveredPairsCount[j] < parameterSizes[j] * fixedParameterSize;
+    }
+
+    private boolean isCovered(int j, int value, int fixedParameterValue) {
+        return (coveredPairs[j][value * wordsPerValue + fixedParameterValue / Long.SIZE]
+                & (1L << fixedParameterValue)) != 0;
+    }
+
+    private void checkValues(int j, int value, int fixedParameterValue) {
+        if (value < 0 || value >= parameterSizes[j] || fixedParameterValue < 0
+                || fixedParameterValue >= fixedParameterSize) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    // rank of the column selection {j, fixed parameter}
+    private int checkColumn(int[] parameterCombination) {
+        Preconditions.checkArgument(parameterCombination.length == 1, Preconditions.FALSE_ARRAY_LENGTH);
+        Preconditions.checkArgument(parameterCombination[0] >= 0 && parameterCombination[0] < fixedParameter,
+                Preconditions.INVALID_ELEMENT_IN_KSUBSET);
+        return parameterCombination[0];
+    }
+
+    @Override
+    public int occurrenceCount(int[] parameterCombination, int[] valueCombination) {
+        if (!countOccurrences) {
+            throw new IllegalStateException(Preconditions.OCC_NOT_COUNTED);
+        }
+        int j = checkColumn(parameterCombination);
+        checkValues(j, valueCombination[0], valueCombination[1]);
+        return occurrencesCount[j][valueCombination[0] * fixedParameterSize + valueCombination[1]];
+    }
+
+    @Override
+    public boolean isCovered(int[] parameterCombination, int[] valueCombination, int fixedParameterValue) {
+        Preconditions.checkArgument(parameterCombination.length == valueCombination.length,
+                Preconditions.FALSE_ARRAY_LENGTH);
+        int j = checkColumn(parameterCombination);
+        checkValues(j, valueCombination[0], fixedParameterValue);
+        return isCovered(j, valueCombination[0], fixedParameterValue);
+    }
+
+    @Override
+    public void markAsCovered(int[] parameterCombination, int[] valueCombination, int fixedParameterValue) {
+        Preconditions.checkArgument(parameterCombination.length == valueCombination.length,
+                Preconditions.FALSE_ARRAY_LENGTH);
+        int j = checkColumn(parameterCombination);
+        checkValues(j, valueCombination[0], fixedParameterValue);
+        markAsCovered(j, valueCombination[0], fixedParameterValue);
+    }
+
+    private void markAsCovered(int j, int value, int fixedParameterValue) {
+        if (countOccurrences) {
+            occurrencesCount[j][value * fixedParameterSize + fixedParameterValue]++;
+        }
+        int word = value * wordsPerValue + fixedParameterValue / Long.SIZE;
+        long bit = 1L << fixedParameterValue;
+        if ((coveredPairs[j][word] & bit) == 0) {
+            coveredPairs[j][word] |= bit;
+            coveredPairsCount[j]++;
+            coveredCombinationsCount++;
+        }
+    }
+
+    @Override
+    public void markAsCovered(int[] row) {
+        markAsCovered(RowStore.toInternalOrder(row, originalOrder, internalRow), 0);
+    }
+
+    @Override
+    public void markAsCovered(RowStore rows, int row) {
+        markAsCovered(rows.cells(), rows.offset(row));
+    }
+
+    // the value of position j is cells[offset + j]
+    private void markAsCovered(int[] cells, int offset) {
+        int fixedParameterValue = cells[offset + fixedParameter];
+        if (fixedParameterValue == CoveringArray.DONT_CARE_VALUE) {
+            return;
+        }
+        for (int j = 0; j < fixedParameter; j++) {
+            int value = cells[offset + j];
+            if (value != CoveringArray.DONT_CARE_VALUE) {
+                markAsCovered(j, value, fixedParameterValue);
+            }
+        }
+    }
+
+    @Override
+    public void markAsUncovered(int[] parameterCombination, int[] valueCombination) {
+        int j = checkColumn(parameterCombination);
+        checkValues(j, valueCombination[0], valueCombination[1]);
+        markAsUncovered(j, valueCombination[0], valueCombination[1]);
+    }
+
+    private void markAsUncovered(int j, int value, int fixedParameterValue) {
+        if (!isCovered(j, value, fixedParameterValue)) {
+            return;
+        }
+        if (!countOccurrences || --occurrencesCount[j][value * fixedParameterSize + fixedParameterValue] <= 0) {
+            coveredPairs[j][value * wordsPerValue + fixedParameterValue / Long.SIZE] &= ~(1L << fixedParameterValue);
+            coveredPairsCount[j]--;
+            coveredCombinationsCount--;
+        }
+    }
+
+    /**
+     * Only the pairs with the chosen column change: the pairs with the value before are uncovered,
+     * the pairs with the new value are covered.
+     */
+    @Override
+    public void update(List<int[]> coveringArray, int chosenRow, int chosenColumn, int beforeValue) {
+        update(RowStore.toInternalOrder(coveringArray.get(chosenRow), originalOrder, internalRow), 0,
+                chosenColumn, beforeValue);
+    }
+
+    @Override
+    public void update(RowStore rows, int chosenRow, int chosenColumn, int beforeValue) {
+        update(rows.cells(), rows.offset(chosenRow), chosenColumn, beforeValue);
+    }
+
+    private void update(int[] cells, int offset, int chosenColumn, int beforeValue) {
+        if (chosenColumn > fixedParameter) {
+            return;
+        }
+        int currentValue = cells[offset + chosenColumn];
+        if (chosenColumn == fixedParameter) {
+            for (int j = 0; j < fixedParameter; j++) {
+                int value = cells[offset + j];
+                if (value == CoveringArray.DONT_CARE_VALUE) {
+                    continue;
+                }
+                if (beforeValue != CoveringArray.DONT_CARE_VALUE) {
+                    markAsUncovered(j, value, beforeValue);
+                }
+                if (currentValue != CoveringArray.DONT_CARE_VALUE) {
+                    markAsCovered(j, value, currentValue);
+                }
+            }
+            return;
+        }
+        int fixedParameterValue = cells[offset + fixedParameter];
+        if (fixedParameterValue == CoveringArray.DONT_CARE_VALUE) {
+            return;
+        }
+        if (beforeValue != CoveringArray.DONT_CARE_VALUE) {
+            markAsUncovered(chosenColumn, beforeValue, fixedParameterValue);
+        }
+        if (currentValue != CoveringArray.DONT_CARE_VALUE) {
+            markAsCovered(chosenColumn, currentValue, fixedParameterValue);
+        }
+    }
+
+    @Override
+    public int[] computeGainsOfFixedParameter(int[] row, int[] best) {
+        return computeGainsOfFixedParameter(RowStore.toInternalOrder(row, originalOrder, internalRow), 0, best);
+    }
+
+    @Override
+    public int[] computeGainsOfFixedParameter(RowStore rows, int row, int[] best) {
+        return computeGainsOfFixedParameter(rows.cells(), rows.offset(row), best);
+    }
+
+    private int[] computeGainsOfFixedParameter(int[] cells, int offset, int[] best) {
+        Preconditions.checkArgument(best.length == 2);
+        for (long[] counter : counters) {
+            Arrays.fill(counter, 0);
+        }
+        for (int j = 0; j < fixedParameter; j++) {
+            int value = cells[offset + j];
+            if (value == CoveringArray.DONT_CARE_VALUE || !hasUncoveredCombinations(j)) {
+                continue;
+            }
+            int firstWord = value * wordsPerValue;
+            for (int word = 0; word < wordsPerValue; word++) {
+                long carry = ~coveredPairs[j][firstWord + word];
+                if (word == wordsPerValue - 1) {
+                    carry &= lastWordMask;
+                }
+                // ripple-carry addition of one to all counters whose bit is set
+                for (int bit = 0; carry != 0; bit++) {
+                    long sum = counters[bit][word] ^ carry;
+                    carry &= counters[bit][word];
+                    counters[bit][word] = sum;
+                }
+            }
+        }
+        int[] gains = new int[fixedParameterSize];
+        for (int bit = 0; bit < counters.length; bit++) {
+            for (int word = 0; word < wordsPerValue; word++) {
+                for (long bits = counters[bit][word]; bits != 0; bits &= bits - 1) {
+                    gains[word * Long.SIZE + Long.numberOfTrailingZeros(bits)] += 1 << bit;
+                }
+            }
+        }
+        for (int value = 0; value < fixedParameterSize; value++) {
+            if (gains[value] > best[1] || gains[value] == best[1] && gains[value] > 0 && value < best[0]) {
+                best[1] = gains[value];
+                best[0] = value;
+            }
+        }
+        return gains;
+    }
+
+    @Override
+    public Optional<int[][]> getUncoveredCombination() {
+        Optional<int[][]> uncoveredCombination = getUncoveredCombination(0, 0);
+        return uncoveredCombination.map(combination -> new int[][]{combination[0], combination[1]});
+    }
+
+    // the rank of a value combination is value of column j + value of the fixed parameter * v_j
+    @Override
+    public Optional<int[][]> getUncoveredCombination(int startingRankOfParameterCombination,
+                                                     int startingRankOfValueCombination) {
+        for (int j = startingRankOfParameterCombination; j < fixedParameter; j++) {
+            int size = parameterSizes[j];
+            if (hasUncoveredCombinations(j)) {
+                for (int rank = startingRankOfValueCombination; rank < size * fixedParameterSize; rank++) {
+                    int value = rank % size, fixedParameterValue = rank / size;
+                    if (!isCovered(j, value, fixedParameterValue)) {
+                        return Optional.of(new int[][]{{j, fixedParameter}, {value, fixedParameterValue},
+                                {j, rank}});
+                    }
+                }
+            }
+            startingRankOfValueCombination = 0;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int totalCoveredValueCombinationsCount() {
+        return coveredCombinationsCount;
+    }
+
+    @Override
+    public int valueCombinationsCount() {
+        return combinationsCount;
+    }
+
+    @Override
+    public int uncoveredValueCombinationsCount() {
+        return combinationsCount - coveredCombinationsCount;
+    }
+
+    @Override
+    public boolean areOccurrencesCounted() {
+        return countOccurrences;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < fixedParameter; j++) {
+            sb.append(Arrays.toString(new int[]{j, fixedParameter})).append("\n");
+            for (int rank = 0; rank < parameterSizes[j] * fixedParameterSize; rank++) {
+                sb.append(isCovered(j, rank % parameterSizes[j], rank / parameterSizes[j]) ? 1 : 0);
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package ipog;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -18,7 +19,7 @@ public class Parameter<T> {
     @SafeVarargs
     public Parameter(String name, T... values) {
         this.name = name;
-        this.values = Arrays.asList(values);
+        this.values = new ArrayList<>(Arrays.asList(values));
     }
 
     public String getName() {
@@ -0,0 +1,76 @@
+package ipog;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Decides in which order the parameters are added to the covering array (the internal order).
+ * The order affects both the number of rows and the runtime: the first t parameters
+ * form the initial Cartesian product, every further parameter is added by horizontal and vertical growth.
+ */
+@FunctionalInterface
+public interface ParameterOrdering {
+    /**
+     * @param random source of randomness for randomized orderings
+     *               (seeded by the run configuration and different for every attempt)
+     * @return a permutation of the parameter indices; the parameter at index 0 is added first
+     */
+    int[] order(List<Parameter<?>> parameters, int strength, List<Constraint> constraints, SplittableRandom random);
+
+    /**
+     * Parameters with the largest domains first (the classic IPOG order).
+     */
+    static ParameterOrdering sizeDescending() {
+        return (parameters, strength, constraints, random) -> IntStream.range(0, parameters.size()).boxed()
+                .sorted((a, b) -> Integer.compare(parameters.get(b).size(), parameters.get(a).size()))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * The t parameters with the largest domains first (they determine the minimum number of rows anyway),
+     * followed by the others in ascending order of their domain sizes, so that the later columns
+     * with small domains fit into the don't-care values of the existing rows.
+     */
+    static ParameterOrdering sizeAscendingAfterFirstT() {
+        return (parameters, strength, constraints, random) -> {
+            int[] order = sizeDescending().order(parameters, strength, constraints, random);
+            int[] rest = Arrays.copyOfRange(order, strength, order.length);
+            for (int j = 0; j < rest.length; j++) {
+                order[order.length - 1 - j] = rest[j];
+            }
+            return order;
+        };
+    }
+
+    /**
+     * Parameters that are involved in many forbidden value combinations first
+     * (ties are broken by descending domain size), so that the infeasible combinations
+     * are excluded while the rows still have few fixed values.
+     */
+    static ParameterOrdering constraintDensity() {
+        return (parameters, strength, constraints, random) -> {
+            double[] densities = ConstraintChecker.compile(parameters, constraints).forbiddenDensities();
+            return IntStream.range(0, parameters.size()).boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(column -> -densities[column])
+                            .thenComparing(column -> -parameters.get(column).size()))
+                    .mapToInt(Integer::intValue).toArray();
+        };
+    }
+
+    /**
+     * A uniformly random permutation; meant to be used with several attempts
+     * (see {@link RunConfiguration.Builder#parameterOrdering(ParameterOrdering, int)}).
+     */
+    static ParameterOrdering random() {
+        return (parameters, strength, constraints, random) -> {
+            int[] order = IntStream.range(0, parameters.size()).toArray();
+            for (int j = order.length - 1; j > 0; j--) {
+                int k = random.nextInt(j + 1);
+                int swap = order[j];
+                order[j] = order[k];
+                order[k] = swap;
+            }
+            return order;
+        };
+    }
+}
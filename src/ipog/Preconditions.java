@@ -8,6 +8,30 @@ final class Preconditions {
     static final String FALSE_ARRAY_LENGTH = "The provided parameter combination or value combination array has the wrong length!";
     static final String OCC_NOT_COUNTED = "The coverage map needs to count the occurrences!";
     static final String INVALID_ELEMENT_IN_KSUBSET = "Invalid element in provided k-subset!";
+    static final String TIMEOUT_NOT_POSITIVE = "The timeout must be positive!";
+    static final String CORRUPT_CHECKPOINT = "The provided file is not a valid checkpoint!";
+    static final String CORRUPT_COVERING_ARRAY_FILE = "The provided file is not a valid covering array file!";
+    static final String CHECKPOINT_TOO_LARGE = "The covering array is too large to be checkpointed!";
+    static final String EXTENSION_MISMATCH = "The parameters need to start with the parameters of the covering array that is extended!";
+    static final String TOO_FEW_COLUMNS_TO_EXTEND = "The covering array that is extended needs at least as many columns as the strength!";
+    static final String REPAIR_MISMATCH = "The parameters need to be the parameters of the covering array that is repaired!";
+    static final String INVALID_SEED_ROW = "The seed row does not fit the parameters!";
+    static final String UNKNOWN_PARAMETER = "There is no parameter with the provided name!";
+    static final String CONSTRAINT_TOO_LARGE = "The constraint involves too many value combinations!";
+    static final String INVALID_ORDER = "The parameter ordering did not return a permutation of the parameter indices!";
+    static final String ATTEMPTS_NOT_POSITIVE = "The number of attempts must be positive!";
+    static final String COVERAGE_LOST = "Removing the redundant rows has lost covered value combinations!";
+    static final String OPTIMIZATION_MISMATCH = "The parameters need to be the parameters of the covering array that is optimized!";
+    static final String NOT_COVERED = "The covering array that is optimized needs to cover all value combinations!";
+    static final String PRIORITIZATION_MISMATCH = "The parameters need to be the parameters of the covering array that is prioritized!";
+    static final String TIME_BUDGET_NOT_POSITIVE = "The time budget must be positive!";
+    static final String THREADS_NOT_POSITIVE = "The number of threads must be positive!";
+    static final String ROW_BUDGET_NOT_POSITIVE = "The number of rows must be positive!";
+    static final String SHARDS_NOT_POSITIVE = "The number of shards must be positive!";
+    static final String INVALID_ROW_COST = "The cost of a row must be a non-negative number!";
+    static final String TABLE_TOO_LARGE = "The covering array has too many cells to be stored in one array!";
+    static final String INVALID_CELL_VALUE = "The value of a cell is not in the domain of its parameter!";
+    static final String CHECKPOINT_MISMATCH = "The checkpoint was written for a different run configuration!";
 
     private Preconditions() {
     }
@@ -0,0 +1,23 @@
+package ipog;
+
+/**
+ * Gets notified by the {@link IpogRunner} after each phase of the column extension.
+ * The listener is invoked on the generating thread, so it should return quickly.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * @param column the (zero-based) number of the column that is currently being added
+     * @param numberOfParameters the total number of columns (k)
+     * @param phase the phase that has just been completed for this column
+     * @param numberOfRows the current number of rows (N)
+     * @param uncoveredCombinationsCount the number of t-way value combinations of this column
+     *                                   that are still uncovered after the phase
+     */
+    void onProgress(int column, int numberOfParameters, Phase phase, int numberOfRows,
+                    int uncoveredCombinationsCount);
+
+    enum Phase {
+        HORIZONTAL, SIPO, VERTICAL
+    }
+}
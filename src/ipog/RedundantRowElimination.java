@@ -0,0 +1,148 @@
+package ipog;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Removes rows whose value combinations are all covered at least twice after the generation.
+ * Rows that have been added early often become redundant, because the horizontal and vertical growth
+ * of the later columns cover their combinations again. The occurrences of the value combinations
+ * of the whole covering array are counted in one coverage map per column (column i is the fixed parameter
+ * of the selections that end with it), the rows are visited in the order of their generation and a row
+ * is removed if every combination it covers occurs at least twice (its occurrences are subtracted then).
+ */
+final class RedundantRowElimination {
+    private final List<int[]> coveringArray;
+    private final List<int[]> seedRows;
+    private final int[] originalOrder;
+    private final GenerationGuard guard;
+    private final int firstColumn, numberOfParameters;
+    private final IntFunction<CoverageMap> coverageMapOfColumn;
+
+    /**
+     * @param firstColumn the first column (in the internal order) that has a coverage map, i.e. t - 1
+     * @param coverageMapOfColumn creates the coverage map of a column, counting the occurrences if asked to
+     */
+    RedundantRowElimination(List<int[]> coveringArray, List<int[]> seedRows, int[] originalOrder,
+                            GenerationGuard guard, int firstColumn, IntFunction<CoverageMap> coverageMapOfColumn) {
+        this.coveringArray = coveringArray;
+        this.seedRows = seedRows;
+        this.originalOrder = originalOrder;
+        this.guard = guard;
+        this.firstColumn = firstColumn;
+        this.numberOfParameters = originalOrder.length;
+        this.coverageMapOfColumn = coverageMapOfColumn;
+    }
+
+    /**
+     * Removes the redundant rows from the covering array and verifies afterwards
+     * that the remaining rows still cover every combination that has been covered before.
+     * @return the number of removed rows
+     */
+    int removeRedundantRows() {
+        int numberOfColumns = numberOfParameters - firstColumn;
+        CoverageMap[] coverageMaps = new CoverageMap[numberOfColumns];
+        int[][][] parameterCombinations = new int[numberOfColumns][][];
+        int[] coveredCombinationsCounts = new int[numberOfColumns];
+        for (int column = 0; column < numberOfColumns; column++) {
+            CoverageMap coverageMap = coverageMapOfColumn.apply(firstColumn + column);
+            Preconditions.checkArgument(coverageMap.areOccurrencesCounted(), Preconditions.OCC_NOT_COUNTED);
+            for (int[] seedRow : seedRows) {
+                coverageMap.markAsCovered(seedRow);
+            }
+            for (int[] row : coveringArray) {
+                guard.check();
+                coverageMap.markAsCovered(row);
+            }
+            coverageMaps[column] = coverageMap;
+            coveredCombinationsCounts[column] = coverageMap.totalCoveredValueCombinationsCount();
+            // the selections without the fixed parameter, as they are looked up
+            List<int[]> columnSelections = coverageMap.getColumnSelections();
+            parameterCombinations[column] = new int[columnSelections.size()][];
+            for (int j = 0; j < columnSelections.size(); j++) {
+                int[] columnSelection = columnSelections.get(j);
+                parameterCombinations[column][j] = Arrays.copyOf(columnSelection, columnSelection.length - 1);
+            }
+        }
+        List<int[]> remainingRows = new ArrayList<>(coveringArray.size());
+        for (int[] row : coveringArray) {
+            guard.check();
+            if (isRedundant(row, coverageMaps, parameterCombinations)) {
+                for (int column = 0; column < numberOfColumns; column++) {
+                    markAsUncovered(row, coverageMaps[column], parameterCombinations[column], firstColumn + column);
+                }
+            }
+            else {
+                remainingRows.add(row);
+            }
+        }
+        int numberOfRemovedRows = coveringArray.size() - remainingRows.size();
+        coveringArray.clear();
+        coveringArray.addAll(remainingRows);
+        verify(coveredCombinationsCounts);
+        return numberOfRemovedRows;
+    }
+
+    private boolean isRedundant(int[] row, CoverageMap[] coverageMaps, int[][][] parameterCombinations) {
+        for (int column = 0; column < coverageMaps.length; column++) {
+            int fixedParameterValue = row[originalOrder[firstColumn + column]];
+            if (fixedParameterValue == DONT_CARE_VALUE) {
+                continue;
+            }
+            for (int[] parameterCombination : parameterCombinations[column]) {
+                int[] valueCombination = valueCombination(row, parameterCombination, fixedParameterValue);
+                if (valueCombination != null
+                        && coverageMaps[column].occurrenceCount(parameterCombination, valueCombination) < 2) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void markAsUncovered(int[] row, CoverageMap coverageMap, int[][] parameterCombinations, int i) {
+        int fixedParameterValue = row[originalOrder[i]];
+        if (fixedParameterValue == DONT_CARE_VALUE) {
+            return;
+        }
+        for (int[] parameterCombination : parameterCombinations) {
+            int[] valueCombination = valueCombination(row, parameterCombination, fixedParameterValue);
+            if (valueCombination != null) {
+                coverageMap.markAsUncovered(parameterCombination, valueCombination);
+            }
+        }
+    }
+
+    // the values of the row in the given columns followed by the value of the fixed parameter,
+    // null if one of them is a don't-care value
+    private int[] valueCombination(int[] row, int[] parameterCombination, int fixedParameterValue) {
+        int[] valueCombination = new int[parameterCombination.length + 1];
+        for (int k = 0; k < parameterCombination.length; k++) {
+            valueCombination[k] = row[originalOrder[parameterCombination[k]]];
+            if (valueCombination[k] == DONT_CARE_VALUE) {
+                return null;
+            }
+        }
+        valueCombination[parameterCombination.length] = fixedParameterValue;
+        return valueCombination;
+    }
+
+    // recounts the coverage with new coverage maps, independently of the occurrence counts
+    private void verify(int[] coveredCombinationsCounts) {
+        for (int column = 0; column < coveredCombinationsCounts.length; column++) {
+            CoverageMap coverageMap = coverageMapOfColumn.apply(firstColumn + column);
+            for (int[] seedRow : seedRows) {
+                coverageMap.markAsCovered(seedRow);
+            }
+            for (int[] row : coveringArray) {
+                guard.check();
+                coverageMap.markAsCovered(row);
+            }
+            if (coverageMap.totalCoveredValueCombinationsCount() != coveredCombinationsCounts[column]) {
+                throw new IllegalStateException(Preconditions.COVERAGE_LOST);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ipog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * The rows of a generation in one growable primitive array instead of one int[] per row.
+ * The cells are stored row by row in the internal order of the columns (position i holds the value
+ * of the parameter originalOrder[i]), so that the horizontal and vertical growth access them without
+ * a lookup in the original order. The rows are converted to the order of the parameters
+ * when the covering array is built (see {@link #toRows(int[])}).
+ */
+final class RowStore {
+    private static final int INITIAL_CAPACITY = 64;  // rows
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;  // some VMs reserve header words in arrays
+
+    private final int numberOfColumns;
+    private int[] cells;
+    private int numberOfRows;
+
+    RowStore(int numberOfColumns) {
+        this.numberOfColumns = numberOfColumns;
+        cells = new int[INITIAL_CAPACITY * numberOfColumns];
+    }
+
+    int numberOfRows() {
+        return numberOfRows;
+    }
+
+    /**
+     * @return the cells, row r starting at {@link #offset(int) offset(r)};
+     *         a new array after rows have been added
+     */
+    int[] cells() {
+        return cells;
+    }
+
+    int offset(int row) {
+        return row * numberOfColumns;
+    }
+
+    int get(int row, int position) {
+        return cells[row * numberOfColumns + position];
+    }
+
+    void set(int row, int position, int value) {
+        cells[row * numberOfColumns + position] = value;
+    }
+
+    /**
+     * @return the index of the new row, which only contains don't-care values
+     */
+    int addRow() {
+        long length = (numberOfRows + 1L) * numberOfColumns;
+        if (length > cells.length) {
+            Preconditions.checkArgument(length <= MAX_LENGTH, Preconditions.TABLE_TOO_LARGE);
+            cells = Arrays.copyOf(cells, (int) Math.min(Math.max(2L * cells.length, length), MAX_LENGTH));
+        }
+        int offset = numberOfRows * numberOfColumns;
+        Arrays.fill(cells, offset, offset + numberOfColumns, DONT_CARE_VALUE);
+        return numberOfRows++;
+    }
+
+    /**
+     * @param row a row in the internal order
+     * @return the index of the new row
+     */
+    int addRow(int[] row) {
+        int index = addRow();
+        System.arraycopy(row, 0, cells, offset(index), numberOfColumns);
+        return index;
+    }
+
+    /**
+     * @param row a row in the order of the parameters
+     * @return the index of the new row
+     */
+    int addRow(int[] row, int[] originalOrder) {
+        int index = addRow();
+        int offset = offset(index);
+        for (int i = 0; i < numberOfColumns; i++) {
+            cells[offset + i] = row[originalOrder[i]];
+        }
+        return index;
+    }
+
+    void clear() {
+        numberOfRows = 0;
+    }
+
+    /**
+     * @return the rows in the order of the parameters
+     */
+    List<int[]> toRows(int[] originalOrder) {
+        List<int[]> rows = new ArrayList<>(numberOfRows);
+        for (int row = 0, offset = 0; row < numberOfRows; row++, offset += numberOfColumns) {
+            int[] values = new int[numberOfColumns];
+            for (int i = 0; i < numberOfColumns; i++) {
+                values[originalOrder[i]] = cells[offset + i];
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    /**
+     * Copies the first positions of a row in the order of the parameters into a row in the internal order.
+     * @param internalRow the positions 0, ..., internalRow.length - 1 are copied into it
+     * @return internalRow
+     */
+    static int[] toInternalOrder(int[] row, int[] originalOrder, int[] internalRow) {
+        for (int i = 0; i < internalRow.length; i++) {
+            internalRow[i] = row[originalOrder[i]];
+        }
+        return internalRow;
+    }
+}
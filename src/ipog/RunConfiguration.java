@@ -1,12 +1,28 @@
 package ipog;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 public class RunConfiguration {
     private final List<Parameter<?>> parameters;
     private final int strength;
     private final BaseAlgorithm baseAlgorithm;
-    private final boolean enhanceHorizontal, adaptVertical, fullHorizontal;
+    private final boolean enhanceHorizontal, adaptVertical, fullHorizontal, removeRedundantRows, mergeDontCareRows,
+            fillDontCaresForHigherStrength;
+    private final ProgressListener progressListener;
+    private final Duration timeout;
+    private final Long seed;
+    private final Path checkpoint;
+    private final List<int[]> seedRows;
+    private final List<Constraint> constraints;
+    private final List<SubModel> subModels;
+    private final CoveringArrayCache cache;
+    private final ParameterOrdering parameterOrdering;
+    private final int orderingAttempts;
+    private final AlgebraicConstruction algebraicConstruction;
+    private final Duration timeBudget;
+    private final boolean pilotRun;
 
     public static Builder builder(List<Parameter<?>> parameters, int strength, BaseAlgorithm baseAlgorithm) {
         return new Builder(parameters, strength, baseAlgorithm);
@@ -19,6 +35,65 @@ public class RunConfiguration {
         this.enhanceHorizontal = builder.enhanceHorizontal;
         this.fullHorizontal = builder.fullHorizontal;
         this.adaptVertical = builder.adaptVertical;
+        this.removeRedundantRows = builder.removeRedundantRows;
+        this.mergeDontCareRows = builder.mergeDontCareRows;
+        this.fillDontCaresForHigherStrength = builder.fillDontCaresForHigherStrength;
+        this.progressListener = builder.progressListener;
+        this.timeout = builder.timeout;
+        this.seed = builder.seed;
+        this.checkpoint = builder.checkpoint;
+        this.seedRows = builder.seedRows;
+        this.constraints = List.copyOf(builder.constraints);
+        this.subModels = List.copyOf(builder.subModels);
+        this.cache = builder.cache;
+        this.parameterOrdering = builder.parameterOrdering;
+        this.orderingAttempts = builder.orderingAttempts;
+        this.algebraicConstruction = builder.algebraicConstruction;
+        this.timeBudget = builder.timeBudget;
+        this.pilotRun = builder.pilotRun;
+    }
+
+    /**
+     * @return a builder with all the settings of this run configuration (e.g. to vary one of them)
+     */
+    public Builder toBuilder() {
+        return toBuilder(baseAlgorithm);
+    }
+
+    /**
+     * @return a copy of this run configuration with another base algorithm and other options
+     */
+    RunConfiguration withBaseAlgorithm(BaseAlgorithm baseAlgorithm, boolean enhanceHorizontal,
+                                       boolean fullHorizontal, boolean adaptVertical) {
+        Builder builder = toBuilder(baseAlgorithm);
+        builder.enhanceHorizontal = enhanceHorizontal;
+        builder.fullHorizontal = fullHorizontal;
+        builder.adaptVertical = adaptVertical;
+        return builder.build();
+    }
+
+    private Builder toBuilder(BaseAlgorithm baseAlgorithm) {
+        Builder builder = new Builder(parameters, strength, baseAlgorithm);
+        builder.enhanceHorizontal = enhanceHorizontal;
+        builder.fullHorizontal = fullHorizontal;
+        builder.adaptVertical = adaptVertical;
+        builder.removeRedundantRows = removeRedundantRows;
+        builder.mergeDontCareRows = mergeDontCareRows;
+        builder.fillDontCaresForHigherStrength = fillDontCaresForHigherStrength;
+        builder.progressListener = progressListener;
+        builder.timeout = timeout;
+        builder.seed = seed;
+        builder.checkpoint = checkpoint;
+        builder.seedRows = seedRows;
+        builder.constraints.addAll(constraints);
+        builder.subModels.addAll(subModels);
+        builder.cache = cache;
+        builder.parameterOrdering = parameterOrdering;
+        builder.orderingAttempts = orderingAttempts;
+        builder.algebraicConstruction = algebraicConstruction;
+        builder.timeBudget = timeBudget;
+        builder.pilotRun = pilotRun;
+        return builder;
     }
 
     public List<Parameter<?>> getParameters() {
@@ -45,11 +120,113 @@ public class RunConfiguration {
         return fullHorizontal;
     }
 
+    public boolean isRemoveRedundantRows() {
+        return removeRedundantRows;
+    }
+
+    public boolean isMergeDontCareRows() {
+        return mergeDontCareRows;
+    }
+
+    public boolean isFillDontCaresForHigherStrength() {
+        return fillDontCaresForHigherStrength;
+    }
+
+    public Optional<ProgressListener> getProgressListener() {
+        return Optional.ofNullable(progressListener);
+    }
+
+    public Optional<Duration> getTimeout() {
+        return Optional.ofNullable(timeout);
+    }
+
+    public OptionalLong getSeed() {
+        return seed == null ? OptionalLong.empty() : OptionalLong.of(seed);
+    }
+
+    public Optional<Path> getCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+
+    public List<int[]> getSeedRows() {
+        return seedRows;
+    }
+
+    public List<Constraint> getConstraints() {
+        return constraints;
+    }
+
+    public List<SubModel> getSubModels() {
+        return subModels;
+    }
+
+    public Optional<CoveringArrayCache> getCache() {
+        return Optional.ofNullable(cache);
+    }
+
+    public ParameterOrdering getParameterOrdering() {
+        return parameterOrdering;
+    }
+
+    public int getOrderingAttempts() {
+        return orderingAttempts;
+    }
+
+    public AlgebraicConstruction getAlgebraicConstruction() {
+        return algebraicConstruction;
+    }
+
+    public Optional<Duration> getTimeBudget() {
+        return Optional.ofNullable(timeBudget);
+    }
+
+    public boolean isPilotRun() {
+        return pilotRun;
+    }
+
+    /**
+     * Parameters whose value combinations need to be covered with a higher strength than the rest of the model.
+     */
+    public static final class SubModel {
+        private final int[] columns;
+        private final int strength;
+
+        private SubModel(int[] columns, int strength) {
+            this.columns = columns;
+            this.strength = strength;
+        }
+
+        /**
+         * @return the indices of the parameters of the sub-model (sorted)
+         */
+        public int[] getColumns() {
+            return columns.clone();
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+    }
+
     public static class Builder {
         private final List<Parameter<?>> parameters;
         private final int strength;
         private final BaseAlgorithm baseAlgorithm;
-        private boolean enhanceHorizontal, adaptVertical, fullHorizontal;
+        private boolean enhanceHorizontal, adaptVertical, fullHorizontal, removeRedundantRows, mergeDontCareRows,
+                fillDontCaresForHigherStrength;
+        private ProgressListener progressListener;
+        private Duration timeout;
+        private Long seed;
+        private Path checkpoint;
+        private List<int[]> seedRows = List.of();
+        private final List<Constraint> constraints = new ArrayList<>();
+        private final List<SubModel> subModels = new ArrayList<>();
+        private CoveringArrayCache cache;
+        private ParameterOrdering parameterOrdering = ParameterOrdering.sizeDescending();
+        private int orderingAttempts = 1;
+        private AlgebraicConstruction algebraicConstruction = AlgebraicConstruction.EXACT;
+        private Duration timeBudget;
+        private boolean pilotRun;
 
         private Builder(List<Parameter<?>> parameters, int strength, BaseAlgorithm baseAlgorithm) {
             this.parameters = parameters;
@@ -79,6 +256,208 @@ public class RunConfiguration {
             return this;
         }
 
+        /**
+         * Merges rows that only differ in cells in which one of them has a don't-care value
+         * after the generation (before the redundant rows are removed, if enabled).
+         * Has potential for smaller covering arrays at a small cost compared to the generation,
+         * mostly with {@link BaseAlgorithm#IPOG_F2} and SIPO (e.g. 10^2 2^10 at t = 3 with IPOG_F2: 279 instead
+         * of 391 rows), since the vertical growth of IPOG already puts the combinations into the rows that fit them.
+         */
+        public Builder mergeDontCareRows() {
+            mergeDontCareRows = true;
+            return this;
+        }
+
+        /**
+         * Replaces the don't-care values after the generation (and after merging and removing rows, if enabled)
+         * by the values that cover the most (t + 1)-way value combinations, instead of random values.
+         * Makes the values of the don't-care cells deterministic and the rows more likely to detect faults
+         * that involve t + 1 parameters, in exchange for the memory of the coverage maps of strength t + 1.
+         */
+        public Builder fillDontCaresForHigherStrength() {
+            fillDontCaresForHigherStrength = true;
+            return this;
+        }
+
+        /**
+         * Removes the rows whose value combinations are all covered by other rows (or by the seed rows)
+         * after the generation. Has potential for smaller covering arrays in exchange for a longer runtime
+         * and the memory of the coverage maps of all columns at once.
+         */
+        public Builder removeRedundantRows() {
+            removeRedundantRows = true;
+            return this;
+        }
+
+        /**
+         * Reports the progress after each phase (horizontal, SIPO and vertical) of every column.
+         */
+        public Builder progressListener(ProgressListener progressListener) {
+            this.progressListener = Preconditions.checkNotNull(progressListener);
+            return this;
+        }
+
+        /**
+         * Aborts the generation with a {@link GenerationAbortedException}
+         * once the given time (measured from the start of the generation) has passed.
+         */
+        public Builder timeout(Duration timeout) {
+            Preconditions.checkNotNull(timeout);
+            Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), Preconditions.TIMEOUT_NOT_POSITIVE);
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Seeds the random choices (of SIPO), so that the generation becomes reproducible.
+         * If no seed is provided, a random one is used.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Writes a binary checkpoint of the generation state to the given file after every column,
+         * from which an interrupted generation can be continued with {@link IpogRunner#resume(Path)}.
+         */
+        public Builder checkpoint(Path checkpoint) {
+            this.checkpoint = Preconditions.checkNotNull(checkpoint);
+            return this;
+        }
+
+        /**
+         * Rows (e.g. historical test runs that are executed anyway) whose value combinations
+         * count as already covered, so that rows are only generated for the missing combinations.
+         * The seed rows are not part of the generated covering array.
+         * @param seedRows the value indices in the order of the parameters;
+         *                 {@link CoveringArray#DONT_CARE_VALUE} for unknown values
+         */
+        public Builder seedRows(List<int[]> seedRows) {
+            Preconditions.checkNotNull(seedRows);
+            // copies the rows as well, so that later changes of the caller do not change the configuration
+            List<int[]> copiedSeedRows = new ArrayList<>(seedRows.size());
+            for (int[] originalSeedRow : seedRows) {
+                int[] seedRow = originalSeedRow.clone();
+                Preconditions.checkArgument(seedRow.length == parameters.size(), Preconditions.INVALID_SEED_ROW);
+                for (int column = 0; column < seedRow.length; column++) {
+                    Preconditions.checkArgument(seedRow[column] >= CoveringArray.DONT_CARE_VALUE
+                            && seedRow[column] < parameters.get(column).size(), Preconditions.INVALID_SEED_ROW);
+                }
+                copiedSeedRows.add(seedRow);
+            }
+            this.seedRows = Collections.unmodifiableList(copiedSeedRows);
+            return this;
+        }
+
+        /**
+         * Same as {@link #seedRows(List)}, but the seed rows are given by their values.
+         * Parameters that are missing in a seed test count as unknown.
+         * @param seedTests maps from parameter names to values
+         */
+        public Builder seedTests(List<? extends Map<String, ?>> seedTests) {
+            Preconditions.checkNotNull(seedTests);
+            List<int[]> rows = new ArrayList<>(seedTests.size());
+            for (Map<String, ?> seedTest : seedTests) {
+                int[] row = new int[parameters.size()];
+                for (int column = 0; column < row.length; column++) {
+                    Parameter<?> parameter = parameters.get(column);
+                    row[column] = seedTest.containsKey(parameter.getName())
+                            ? parameter.getValues().indexOf(seedTest.get(parameter.getName()))
+                            : CoveringArray.DONT_CARE_VALUE;
+                    Preconditions.checkArgument(!seedTest.containsKey(parameter.getName())
+                            || row[column] != CoveringArray.DONT_CARE_VALUE, Preconditions.INVALID_SEED_ROW);
+                }
+                rows.add(row);
+            }
+            return seedRows(rows);
+        }
+
+        /**
+         * Value combinations that violate the constraint never occur in the covering array
+         * and do not need to be covered.
+         */
+        public Builder constraint(Constraint constraint) {
+            constraints.add(Preconditions.checkNotNull(constraint));
+            return this;
+        }
+
+        /**
+         * Requires all the value combinations of the given strength among the given parameters,
+         * while the rest of the model is only covered with the strength of the run configuration
+         * (variable-strength covering array).
+         */
+        public Builder subModel(Collection<String> parameterNames, int strength) {
+            Preconditions.checkNotNull(parameterNames);
+            SortedSet<Integer> columns = new TreeSet<>();
+            for (String parameterName : parameterNames) {
+                int column = 0;
+                while (column < parameters.size() && !parameters.get(column).getName().equals(parameterName)) {
+                    column++;
+                }
+                Preconditions.checkArgument(column < parameters.size(), Preconditions.UNKNOWN_PARAMETER);
+                columns.add(column);
+            }
+            Preconditions.checkArgument(strength > 0, Preconditions.STRENGTH_TOO_SMALL);
+            Preconditions.checkArgument(strength <= columns.size(), Preconditions.STRENGTH_TOO_BIG);
+            subModels.add(new SubModel(columns.stream().mapToInt(Integer::intValue).toArray(), strength));
+            return this;
+        }
+
+        /**
+         * Looks the covering array up in the given cache before generating it and stores it afterwards.
+         * Only runs whose result solely depends on the parameter sizes are cached, i.e. runs without
+         * seed rows, constraints and sub-models and - if SIPO is enabled - with a fixed {@link #seed(long)}.
+         */
+        public Builder cache(CoveringArrayCache cache) {
+            this.cache = Preconditions.checkNotNull(cache);
+            return this;
+        }
+
+        /**
+         * Adds the parameters in the order of the given strategy
+         * instead of in descending order of their domain sizes.
+         */
+        public Builder parameterOrdering(ParameterOrdering parameterOrdering) {
+            return parameterOrdering(parameterOrdering, 1);
+        }
+
+        /**
+         * Generates the covering array once for every attempt (each with its own order of the given,
+         * usually randomized, strategy) and keeps the smallest one.
+         */
+        public Builder parameterOrdering(ParameterOrdering parameterOrdering, int attempts) {
+            Preconditions.checkArgument(attempts > 0, Preconditions.ATTEMPTS_NOT_POSITIVE);
+            this.parameterOrdering = Preconditions.checkNotNull(parameterOrdering);
+            this.orderingAttempts = attempts;
+            return this;
+        }
+
+        /**
+         * Whether uniform models are covered by an orthogonal array instead of IPOG
+         * (default: {@link AlgebraicConstruction#EXACT}).
+         */
+        public Builder algebraicConstruction(AlgebraicConstruction algebraicConstruction) {
+            this.algebraicConstruction = Preconditions.checkNotNull(algebraicConstruction);
+            return this;
+        }
+
+        /**
+         * The time that the generation should take with {@link BaseAlgorithm#AUTO}
+         * (default: the {@link #timeout(Duration)} if there is one, 10 seconds otherwise).
+         * Unlike the timeout, the budget does not abort the generation.
+         * @param pilotRun calibrates the estimate by generating a covering array
+         *                 for a part of the parameters first, instead of assuming a fixed speed
+         */
+        public Builder timeBudget(Duration timeBudget, boolean pilotRun) {
+            Preconditions.checkNotNull(timeBudget);
+            Preconditions.checkArgument(!timeBudget.isNegative() && !timeBudget.isZero(),
+                    Preconditions.TIME_BUDGET_NOT_POSITIVE);
+            this.timeBudget = timeBudget;
+            this.pilotRun = pilotRun;
+            return this;
+        }
+
         public RunConfiguration build() {
             return new RunConfiguration(this);
         }
@@ -0,0 +1,518 @@
+package ipog;
+
+import java.util.*;
+
+import static ipog.CoveringArray.DONT_CARE_VALUE;
+
+/**
+ * Coverage map for very high strengths (t >= 6), where the objects and bit sets that {@link GenericCoverageMap}
+ * keeps for each of the C(i, t - 1) column selections take more memory than the combinations themselves.
+ * The covered value combinations are bits in an open-addressing hash map of 64-bit words, which is keyed by
+ * (rank of the column selection, rank of the value combination / 64); apart from that there is one counter
+ * per selection. Words without covered combinations are not stored, and neither are the words of the selections
+ * whose combinations are all covered, which are most of them after a few rows.
+ * The occurrences are counted (if at all) in a second hash map that is keyed by (rank of the column selection,
+ * rank of the value combination).
+ * The column selections are enumerated instead of stored, the uncovered combinations are found
+ * by skipping the complete selections and the complete words of the others.
+ * The ranks are the same as in {@link GenericCoverageMap}, so both produce the same covering arrays.
+ */
+final class SparseCoverageMap implements CoverageMap {
+    private final int[] parameterSizes;
+    private final int strength;
+    private final CombinatoricUtils.BinomialCoefficient binomCoeffs;
+    private final int[] originalOrder;
+    private final int[] internalRow;  // a row in the order of the parameters, copied into the internal order
+    private final boolean countOccurrences;
+    private final int fixedParameter;
+    private final int numberOfSelections;
+    private final int wordsPerSelection;  // enough for the value combinations of every column selection
+    private final int[] coveredCombinationsCounts;  // [rank of the column selection]
+    private final LongHashMap coveredWords;
+    private final LongHashMap occurrencesCounts;
+    private int coveredCombinationsCount;
+    private final int combinationsCount;
+
+    SparseCoverageMap(int[] parameterSizes, int strength, CombinatoricUtils.BinomialCoefficient binomCoeffs,
+                      int[] originalOrder, boolean countOccurrences) {
+        Preconditions.checkNotNull(parameterSizes);
+        Preconditions.checkNotNull(binomCoeffs);
+        Preconditions.checkNotNull(originalOrder);
+        Preconditions.checkArgument(strength > 1 && strength <= parameterSizes.length);
+        this.parameterSizes = parameterSizes;
+        this.strength = strength;
+        this.binomCoeffs = binomCoeffs;
+        this.originalOrder = originalOrder;
+        internalRow = new int[parameterSizes.length];
+        this.countOccurrences = countOccurrences;
+        fixedParameter = parameterSizes.length - 1;
+        numberOfSelections = binomCoeffs.choose(fixedParameter, strength - 1);
+        int[] sizes = Arrays.copyOf(parameterSizes, fixedParameter);
+        Arrays.sort(sizes);
+        double largestProduct = parameterSizes[fixedParameter];
+        for (int j = 0; j < strength - 1; j++) {
+            largestProduct *= sizes[fixedParameter - 1 - j];
+        }
+        Preconditions.checkArgument(largestProduct <= Integer.MAX_VALUE);
+        wordsPerSelection = (int) ((largestProduct + Long.SIZE - 1) / Long.SIZE);
+        // the sum of the products of the sizes of all the selections (elementary symmetric polynomial)
+        double[] sums = new double[strength];
+        sums[0] = 1;
+        for (int j = 0; j < fixedParameter; j++) {
+            for (int k = strength - 1; k > 0; k--) {
+                sums[k] += sums[k - 1] * parameterSizes[j];
+            }
+        }
+        Preconditions.checkArgument(sums[strength - 1] * parameterSizes[fixedParameter] <= Integer.MAX_VALUE);
+        combinationsCount = (int) (sums[strength - 1] * parameterSizes[fixedParameter]);
+        coveredCombinationsCounts = new int[numberOfSelections];
+        coveredWords = new LongHashMap();
+        occurrencesCounts = countOccurrences ? new LongHashMap() : null;
+    }
+
+    // column selections without the fixed parameter, in the order of their ranks
+    private int[] firstParameterCombination() {
+        int[] parameterCombination = new int[strength - 1];
+        for (int k = 0; k < parameterCombination.length; k++) {
+            parameterCombination[k] = k;
+        }
+        return parameterCombination;
+    }
+
+    private boolean nextParameterCombination(int[] parameterCombination) {
+        return CombinatoricUtils.nextKCombination(parameterCombination, fixedParameter);
+    }
+
+    private int rankOf(int[] parameterCombination) {
+        Preconditions.checkArgument(parameterCombination.length == strength - 1, Preconditions.FALSE_ARRAY_LENGTH);
+        return CombinatoricUtils.kSubsetLexRank(parameterCombination, fixedParameter, binomCoeffs);
+    }
+
+    private int numberOfCombinations(int[] parameterCombination) {
+        int count = parameterSizes[fixedParameter];
+        for (int parameter : parameterCombination) {
+            count *= parameterSizes[parameter];
+        }
+        return count;
+    }
+
+    // the first value has the multiplier 1, the value of the fixed parameter the largest one
+    private int valueRank(int[] parameterCombination, int[] valueCombination) {
+        Preconditions.checkArgument(valueCombination.length == strength, Preconditions.FALSE_ARRAY_LENGTH);
+        int rank = 0, multiplier = 1;
+        for (int k = 0; k < strength; k++) {
+            int size = parameterSizes[k < strength - 1 ? parameterCombination[k] : fixedParameter];
+            if (valueCombination[k] < 0 || valueCombination[k] >= size) {
+                throw new IllegalArgumentException();
+            }
+            rank += valueCombination[k] * multiplier;
+            multiplier *= size;
+        }
+        return rank;
+    }
+
+    private int[] valueCombination(int[] parameterCombination, int valueRank) {
+        int[] valueCombination = new int[strength];
+        for (int k = 0; k < strength; k++) {
+            int size = parameterSizes[k < strength - 1 ? parameterCombination[k] : fixedParameter];
+            valueCombination[k] = valueRank % size;
+            valueRank /= size;
+        }
+        return valueCombination;
+    }
+
+    private int[] columnSelection(int[] parameterCombination) {
+        int[] columnSelection = Arrays.copyOf(parameterCombination, strength);
+        columnSelection[strength - 1] = fixedParameter;
+        return columnSelection;
+    }
+
+    private long wordKey(int rank, int valueRank) {
+        return (long) rank * wordsPerSelection + valueRank / Long.SIZE;
+    }
+
+    private long occurrencesKey(int rank, int valueRank) {
+        return (long) rank * wordsPerSelection * Long.SIZE + valueRank;
+    }
+
+    // the bits of the value combinations that exist in the word
+    private static long validBits(int numberOfCombinations, int word) {
+        int bits = numberOfCombinations - word * Long.SIZE;
+        return bits >= Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    private boolean isComplete(int rank, int numberOfCombinations) {
+        return coveredCombinationsCounts[rank] == numberOfCombinations;
+    }
+
+    private boolean isCovered(int rank, int numberOfCombinations, int valueRank) {
+        return isComplete(rank, numberOfCombinations)
+                || (coveredWords.get(wordKey(rank, valueRank)) & 1L << valueRank) != 0;
+    }
+
+    private void markAsCovered(int rank, int numberOfCombinations, int valueRank) {
+        if (countOccurrences && occurrencesCounts.add(occurrencesKey(rank, valueRank), 1) > 1
+                || isCovered(rank, numberOfCombinations, valueRank)) {
+            return;
+        }
+        coveredCombinationsCount++;
+        if (++coveredCombinationsCounts[rank] == numberOfCombinations) {
+            for (int word = 0; word * Long.SIZE < numberOfCombinations; word++) {
+                coveredWords.remove(wordKey(rank, word * Long.SIZE));
+            }
+        }
+        else {
+            coveredWords.add(wordKey(rank, valueRank), 1L << valueRank);
+        }
+    }
+
+    private void markAsUncovered(int rank, int numberOfCombinations, int valueRank) {
+        if (!isCovered(rank, numberOfCombinations, valueRank)
+                || countOccurrences && occurrencesCounts.add(occurrencesKey(rank, valueRank), -1) > 0) {
+            return;
+        }
+        if (isComplete(rank, numberOfCombinations)) {
+            for (int word = 0; word * Long.SIZE < numberOfCombinations; word++) {
+                coveredWords.put(wordKey(rank, word * Long.SIZE), validBits(numberOfCombinations, word));
+            }
+        }
+        coveredWords.add(wordKey(rank, valueRank), -(1L << valueRank));
+        coveredCombinationsCount--;
+        coveredCombinationsCounts[rank]--;
+    }
+
+    @Override
+    public List<int[]> getColumnSelections() {
+        List<int[]> selections = new ArrayList<>(numberOfSelections);
+        int[] parameterCombination = firstParameterCombination();
+        do {
+            selections.add(columnSelection(parameterCombination));
+        }
+        while (nextParameterCombination(parameterCombination));
+        return selections;
+    }
+
+    @Override
+    public boolean mayHaveUncoveredCombinations() {
+        return coveredCombinationsCount < combinationsCount;
+    }
+
+    @Override
+    public int occurrenceCount(int[] parameterCombination, int[] valueCombination) {
+        if (!countOccurrences) {
+            throw new IllegalStateException(Preconditions.OCC_NOT_COUNTED);
+        }
+        return (int) occurrencesCounts.get(occurrencesKey(rankOf(parameterCombination),
+                valueRank(parameterCombination, valueCombination)));
+    }
+
+    @Override
+    public boolean isCovered(int[] parameterCombination, int[] valueCombination, int fixedParameterValue) {
+        Preconditions.checkArgument(parameterCombination.length == valueCombination.length,
+                Preconditions.FALSE_ARRAY_LENGTH);
+        int[] valueCombinationIncludingTheFixedParameterValue = Arrays.copyOf(valueCombination,
+                valueCombination.length + 1);
+        valueCombinationIncludingTheFixedParameterValue[valueCombination.length] = fixedParameterValue;
+        return isCovered(rankOf(parameterCombination), numberOfCombinations(parameterCombination),
+                valueRank(parameterCombination, valueCombinationIncludingTheFixedParameterValue));
+    }
+
+    @Override
+    public void markAsCovered(int[] parameterCombination, int[] valueCombination, int fixedParameterValue) {
+        Preconditions.checkArgument(parameterCombination.length == valueCombination.length,
+                Preconditions.FALSE_ARRAY_LENGTH);
+        int[] valueCombinationIncludingTheFixedParameterValue = Arrays.copyOf(valueCombination,
+                valueCombination.length + 1);
+        valueCombinationIncludingTheFixedParameterValue[valueCombination.length] = fixedParameterValue;
+        markAsCovered(rankOf(parameterCombination), numberOfCombinations(parameterCombination),
+                valueRank(parameterCombination, valueCombinationIncludingTheFixedParameterValue));
+    }
+
+    @Override
+    public void markAsCovered(int[] row) {
+        markAsCovered(RowStore.toInternalOrder(row, originalOrder, internalRow), 0);
+    }
+
+    @Override
+    public void markAsCovered(RowStore rows, int row) {
+        markAsCovered(rows.cells(), rows.offset(row));
+    }
+
+    // the value of position j is cells[offset + j]
+    private void markAsCovered(int[] cells, int offset) {
+        int fixedParameterValue = cells[offset + fixedParameter];
+        if (fixedParameterValue == DONT_CARE_VALUE) {
+            return;
+        }
+        int[] parameterCombination = firstParameterCombination();
+        int rank = 0;
+        k_subset_loop:
+        do {
+            int valueRank = 0, multiplier = 1;
+            for (int parameter : parameterCombination) {
+                int value = cells[offset + parameter];
+                if (value == DONT_CARE_VALUE) {
+                    continue k_subset_loop;
+                }
+                valueRank += value * multiplier;
+                multiplier *= parameterSizes[parameter];
+            }
+            markAsCovered(rank, multiplier * parameterSizes[fixedParameter],
+                    valueRank + fixedParameterValue * multiplier);
+        }
+        while (++rank < numberOfSelections && nextParameterCombination(parameterCombination));
+    }
+
+    @Override
+    public void markAsUncovered(int[] parameterCombination, int[] valueCombination) {
+        markAsUncovered(rankOf(parameterCombination), numberOfCombinations(parameterCombination),
+                valueRank(parameterCombination, valueCombination));
+    }
+
+    @Override
+    public void update(List<int[]> coveringArray, int chosenRow, int chosenColumn, int beforeValue) {
+        update(RowStore.toInternalOrder(coveringArray.get(chosenRow), originalOrder, internalRow), 0,
+                chosenColumn, beforeValue);
+    }
+
+    @Override
+    public void update(RowStore rows, int chosenRow, int chosenColumn, int beforeValue) {
+        update(rows.cells(), rows.offset(chosenRow), chosenColumn, beforeValue);
+    }
+
+    private void update(int[] cells, int offset, int chosenColumn, int beforeValue) {
+        if (beforeValue != DONT_CARE_VALUE || chosenColumn != fixedParameter) {
+            // the combinations with the value before are not covered by this row anymore
+            int[] parameterCombination = firstParameterCombination();
+            int[] valueCombination = new int[strength];
+            int rank = 0;
+            k_subset_loop:
+            do {
+                boolean isValidColumnSelection = chosenColumn == fixedParameter;  // we need to have the chosen column in it
+                for (int k = 0; k < strength; k++) {
+                    int parameter = k < strength - 1 ? parameterCombination[k] : fixedParameter;
+                    if (parameter == chosenColumn) {
+                        valueCombination[k] = beforeValue;
+                        isValidColumnSelection = true;
+                    }
+                    else {
+                        valueCombination[k] = cells[offset + parameter];
+                    }
+                    if (valueCombination[k] == DONT_CARE_VALUE) {
+                        continue k_subset_loop;
+                    }
+                }
+                if (!isValidColumnSelection && cells[offset + chosenColumn] == DONT_CARE_VALUE) {
+                    continue;  // the current tuple will stay covered anyway
+                }
+                markAsUncovered(rank, numberOfCombinations(parameterCombination),
+                        valueRank(parameterCombination, valueCombination));
+            }
+            while (++rank < numberOfSelections && nextParameterCombination(parameterCombination));
+        }
+        if (cells[offset + chosenColumn] == DONT_CARE_VALUE) {
+            return;  // there won't be any newly covered tuples
+        }
+        markAsCovered(cells, offset);
+    }
+
+    @Override
+    public int[] computeGainsOfFixedParameter(int[] row, int[] best) {
+        return computeGainsOfFixedParameter(RowStore.toInternalOrder(row, originalOrder, internalRow), 0, best);
+    }
+
+    @Override
+    public int[] computeGainsOfFixedParameter(RowStore rows, int row, int[] best) {
+        return computeGainsOfFixedParameter(rows.cells(), rows.offset(row), best);
+    }
+
+    private int[] computeGainsOfFixedParameter(int[] cells, int offset, int[] best) {
+        Preconditions.checkArgument(best.length == 2);
+        int[] gains = new int[parameterSizes[fixedParameter]];
+        int[] parameterCombination = firstParameterCombination();
+        int rank = 0;
+        outer:
+        do {
+            int baseRank = 0, multiplier = 1;  // the first value of the fixed parameter is 0
+            for (int parameter : parameterCombination) {
+                int value = cells[offset + parameter];
+                if (value == DONT_CARE_VALUE) {
+                    continue outer;
+                }
+                baseRank += value * multiplier;
+                multiplier *= parameterSizes[parameter];
+            }
+            int numberOfCombinations = multiplier * gains.length;
+            if (isComplete(rank, numberOfCombinations)) {  // t-column selection level search pruning
+                continue;
+            }
+            for (int value = 0; value < gains.length; value++) {
+                if (!isCovered(rank, numberOfCombinations, baseRank + value * multiplier)) {
+                    gains[value]++;
+                    if (gains[value] > best[1] || gains[value] == best[1] && value < best[0]) {
+                        best[1] = gains[value];
+                        best[0] = value;
+                    }
+                }
+            }
+        }
+        while (++rank < numberOfSelections && nextParameterCombination(parameterCombination));
+        return gains;
+    }
+
+    @Override
+    public Optional<int[][]> getUncoveredCombination() {
+        return getUncoveredCombination(0, 0).map(combination -> new int[][]{combination[0], combination[1]});
+    }
+
+    @Override
+    public Optional<int[][]> getUncoveredCombination(int startingRankOfParameterCombination,
+                                                     int startingRankOfValueCombination) {
+        if (startingRankOfParameterCombination >= numberOfSelections || !mayHaveUncoveredCombinations()) {
+            return Optional.empty();
+        }
+        int[] parameterCombination = CombinatoricUtils.kSubsetLexUnrank(startingRankOfParameterCombination,
+                strength - 1, fixedParameter, binomCoeffs);
+        int rank = startingRankOfParameterCombination;
+        do {
+            int numberOfCombinations = numberOfCombinations(parameterCombination);
+            if (!isComplete(rank, numberOfCombinations)) {
+                for (int word = startingRankOfValueCombination / Long.SIZE;
+                     word * Long.SIZE < numberOfCombinations; word++) {
+                    long uncoveredBits = ~coveredWords.get(wordKey(rank, word * Long.SIZE))
+                            & validBits(numberOfCombinations, word);
+                    if (word == startingRankOfValueCombination / Long.SIZE) {
+                        uncoveredBits &= -1L << startingRankOfValueCombination;
+                    }
+                    if (uncoveredBits != 0) {
+                        int valueRank = word * Long.SIZE + Long.numberOfTrailingZeros(uncoveredBits);
+                        return Optional.of(new int[][]{columnSelection(parameterCombination),
+                                valueCombination(parameterCombination, valueRank), new int[]{rank, valueRank}});
+                    }
+                }
+            }
+            startingRankOfValueCombination = 0;
+        }
+        while (++rank < numberOfSelections && nextParameterCombination(parameterCombination));
+        return Optional.empty();
+    }
+
+    @Override
+    public int totalCoveredValueCombinationsCount() {
+        return coveredCombinationsCount;
+    }
+
+    @Override
+    public int valueCombinationsCount() {
+        return combinationsCount;
+    }
+
+    @Override
+    public int uncoveredValueCombinationsCount() {
+        return combinationsCount - coveredCombinationsCount;
+    }
+
+    @Override
+    public boolean areOccurrencesCounted() {
+        return countOccurrences;
+    }
+
+    /**
+     * Open-addressing hash map from non-negative longs to longs with linear probing,
+     * in which a key that is mapped to 0 is removed.
+     */
+    private static final class LongHashMap {
+        private static final long FREE = -1;
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        private LongHashMap() {
+            keys = new long[16];
+            Arrays.fill(keys, FREE);
+            values = new long[keys.length];
+        }
+
+        // the keys are visited in ascending order, which stays cache-friendly without scattering them
+        private int slot(long key) {
+            return (int) (key ^ key >>> 32) & (keys.length - 1);
+        }
+
+        private int find(long key) {
+            int slot = slot(key);
+            while (keys[slot] != FREE && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return slot;
+        }
+
+        private long get(long key) {
+            int slot = find(key);
+            return keys[slot] == key ? values[slot] : 0;
+        }
+
+        /**
+         * @return the value after adding the delta (the value of a missing key being 0)
+         */
+        private long add(long key, long delta) {
+            long value = get(key) + delta;
+            put(key, value);
+            return value;
+        }
+
+        private void put(long key, long value) {
+            int slot = find(key);
+            if (keys[slot] == key) {
+                if (value == 0) {
+                    remove(slot);
+                }
+                else {
+                    values[slot] = value;
+                }
+            }
+            else if (value != 0) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+            }
+        }
+
+        private void remove(long key) {
+            put(key, 0);
+        }
+
+        // shifts the following keys back into the gap, so that no probing sequence is interrupted
+        private void remove(int slot) {
+            int gap = slot, mask = keys.length - 1;
+            for (int next = (slot + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = FREE;
+            size--;
+            if (size * 8 < keys.length && keys.length > 16) {
+                resize(keys.length / 2);
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys, oldValues = values;
+            keys = new long[capacity];
+            Arrays.fill(keys, FREE);
+            values = new long[capacity];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != FREE) {
+                    int newSlot = find(oldKeys[slot]);
+                    keys[newSlot] = oldKeys[slot];
+                    values[newSlot] = oldValues[slot];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package main;
+
+import ipog.*;
+
+import java.util.*;
+
+/**
+ * Compares the number of rows and the runtime of the parameter orderings on a model.
+ * Usage: {@code java main.OrderingBenchmark "3^4 2^6" <strength> [<base algorithm>] [<attempts>]}
+ */
+public final class OrderingBenchmark {
+    private OrderingBenchmark() {
+    }
+
+    public static final class Result {
+        private final String ordering;
+        private final int numberOfRows;
+        private final long runtimeMillis;
+
+        private Result(String ordering, int numberOfRows, long runtimeMillis) {
+            this.ordering = ordering;
+            this.numberOfRows = numberOfRows;
+            this.runtimeMillis = runtimeMillis;
+        }
+
+        public String getOrdering() {
+            return ordering;
+        }
+
+        public int getNumberOfRows() {
+            return numberOfRows;
+        }
+
+        /**
+         * @return the median runtime of the repetitions
+         */
+        public long getRuntimeMillis() {
+            return runtimeMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %8d rows %8d ms", ordering, numberOfRows, runtimeMillis);
+        }
+    }
+
+    /**
+     * @return the built-in orderings (the randomized one with the given number of attempts)
+     */
+    public static Map<String, RunConfiguration> builtInOrderings(RunConfiguration runConfiguration, int attempts) {
+        Map<String, RunConfiguration> runConfigurations = new LinkedHashMap<>();
+        runConfigurations.put("size descending", runConfiguration.toBuilder()
+                .parameterOrdering(ParameterOrdering.sizeDescending()).build());
+        runConfigurations.put("size ascending after first t", runConfiguration.toBuilder()
+                .parameterOrdering(ParameterOrdering.sizeAscendingAfterFirstT()).build());
+        runConfigurations.put("constraint density", runConfiguration.toBuilder()
+                .parameterOrdering(ParameterOrdering.constraintDensity()).build());
+        runConfigurations.put("random (" + attempts + " attempts)", runConfiguration.toBuilder()
+                .parameterOrdering(ParameterOrdering.random(), attempts).build());
+        return runConfigurations;
+    }
+
+    /**
+     * Generates the covering array of every run configuration (the first repetition warms up the JIT).
+     */
+    public static List<Result> compare(Map<String, RunConfiguration> runConfigurations, int repetitions) {
+        if (repetitions <= 0) {
+            throw new IllegalArgumentException("The number of repetitions must be positive!");
+        }
+        List<Result> results = new ArrayList<>(runConfigurations.size());
+        for (Map.Entry<String, RunConfiguration> entry : runConfigurations.entrySet()) {
+            long[] runtimes = new long[repetitions];
+            int numberOfRows = 0;
+            for (int repetition = 0; repetition <= repetitions; repetition++) {
+                long startTime = System.nanoTime();
+                numberOfRows = new IpogRunner(entry.getValue()).generate().numberOfRows();
+                if (repetition > 0) {
+                    runtimes[repetition - 1] = (System.nanoTime() - startTime) / 1_000_000;
+                }
+            }
+            Arrays.sort(runtimes);
+            results.add(new Result(entry.getKey(), numberOfRows, runtimes[repetitions / 2]));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: OrderingBenchmark <parameter configuration, e.g. \"3^4 2^6\"> <strength>"
+                    + " [<base algorithm>] [<attempts>]");
+            System.exit(1);
+        }
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate(args[0]);
+        int strength = Integer.parseInt(args[1]);
+        BaseAlgorithm baseAlgorithm = args.length > 2 ? BaseAlgorithm.valueOf(args[2]) : BaseAlgorithm.IPOG;
+        int attempts = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        RunConfiguration runConfiguration = RunConfiguration.builder(parameters, strength, baseAlgorithm)
+                .seed(0).build();
+        for (Result result : compare(builtInOrderings(runConfiguration, attempts), 3)) {
+            System.out.println(result);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package test;
+
+import ipog.*;
+
+import java.time.Duration;
+import java.util.List;
+
+public class AlgorithmSelectorTest {
+    public static void main(String[] args) {
+        // warms up the JVM, like the estimate assumes
+        new IpogRunner(RunConfiguration.builder(ParameterConfigurationParser.generate("3^10"), 2, BaseAlgorithm.IPOG)
+                .build()).generate();
+        selectionStaysWithinTheBudget("4^15", 3, Duration.ofSeconds(2));
+        selectionStaysWithinTheBudget("2^40", 3, Duration.ofSeconds(2));
+        selectionStaysWithinTheBudget("2^20", 3, Duration.ofMillis(500));
+        selectionStaysWithinTheBudget("5^12", 3, Duration.ofSeconds(2));
+        tooSmallBudgetStillGivesACoveringArray();
+    }
+
+    static void selectionStaysWithinTheBudget(String model, int strength, Duration timeBudget) {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate(model);
+        IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, strength, BaseAlgorithm.AUTO)
+                .timeBudget(timeBudget, false).seed(1).build());
+        long startTime = System.nanoTime();
+        CoveringArray coveringArray = ipogRunner.generate();
+        Duration runtime = Duration.ofNanos(System.nanoTime() - startTime);
+        String selection = ipogRunner.getReport().getAlgorithmSelection().orElseThrow();
+        if (runtime.compareTo(timeBudget) > 0) {
+            throw new AssertionError(model + " took " + runtime.toMillis() + " ms: " + selection);
+        }
+        System.out.println(model + ", t=" + strength + ": " + coveringArray.numberOfRows() + " rows in "
+                + runtime.toMillis() + " ms, " + selection);
+        System.out.println("Test passed!");
+    }
+
+    static void tooSmallBudgetStillGivesACoveringArray() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("3^30");
+        IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, 3, BaseAlgorithm.AUTO)
+                .timeBudget(Duration.ofMillis(1), false).build());
+        CoveringArray coveringArray = ipogRunner.generate();
+        if (!CoveringArrayUtils.isStrengthCovered(coveringArray, 3)
+                || !ipogRunner.getReport().getAlgorithmSelection().orElseThrow().startsWith("IPOG_D")) {
+            throw new AssertionError();
+        }
+        System.out.println("Test passed!");
+    }
+}
@@ -0,0 +1,97 @@
+package test;
+
+import ipog.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class CheckpointTest {
+    public static void main(String[] args) throws IOException {
+        resumedGenerationEqualsUninterruptedGeneration(BaseAlgorithm.IPOG);
+        resumedGenerationEqualsUninterruptedGeneration(BaseAlgorithm.IPOG_F);
+        resumeRejectsOtherConfigurationsAndTruncatedCheckpoints();
+    }
+
+    static void resumedGenerationEqualsUninterruptedGeneration(BaseAlgorithm baseAlgorithm) throws IOException {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("4^3 3^5 2^4");
+        Path checkpoint = Files.createTempFile("ipog", ".checkpoint");
+        try {
+            CoveringArray uninterrupted = new IpogRunner(configuration(parameters, baseAlgorithm)
+                    .build()).generate();
+            IpogRunner[] interruptedRunner = new IpogRunner[1];
+            interruptedRunner[0] = new IpogRunner(configuration(parameters, baseAlgorithm)
+                    .checkpoint(checkpoint)
+                    .progressListener((column, numberOfParameters, phase, numberOfRows, uncovered) -> {
+                        if (column == 7) {
+                            interruptedRunner[0].cancel();
+                        }
+                    })
+                    .build());
+            try {
+                interruptedRunner[0].generate();
+                throw new AssertionError();
+            }
+            catch (GenerationAbortedException ignored) {
+                // simulates the pre-emption of the node
+            }
+            CoveringArray resumed = new IpogRunner(configuration(parameters, baseAlgorithm).build())
+                    .resume(checkpoint);
+            if (!resumed.toCsv(false).equals(uninterrupted.toCsv(false))) {
+                throw new AssertionError();
+            }
+            if (!CoveringArrayUtils.isStrengthCovered(resumed, 3)) {
+                throw new AssertionError();
+            }
+        }
+        finally {
+            Files.deleteIfExists(checkpoint);
+        }
+        System.out.println("Test passed!");
+    }
+
+    static void resumeRejectsOtherConfigurationsAndTruncatedCheckpoints() throws IOException {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("4^3 3^5 2^4");
+        Path checkpoint = Files.createTempFile("ipog", ".checkpoint");
+        try {
+            new IpogRunner(configuration(parameters, BaseAlgorithm.IPOG).checkpoint(checkpoint).build()).generate();
+            List<RunConfiguration.Builder> otherConfigurations = List.of(
+                    configuration(parameters, BaseAlgorithm.IPOG).seedRows(List.of(new int[12])),
+                    configuration(parameters, BaseAlgorithm.IPOG)
+                            .constraint(Constraint.forbid(Map.of("p0", "0", "p1", "0"))),
+                    configuration(parameters, BaseAlgorithm.IPOG).subModel(List.of("p0", "p1", "p2", "p3"), 4));
+            for (RunConfiguration.Builder otherConfiguration : otherConfigurations) {
+                try {
+                    new IpogRunner(otherConfiguration.build()).resume(checkpoint);
+                    throw new AssertionError("resumed a checkpoint of another configuration");
+                }
+                catch (IllegalArgumentException expected) {
+                    // as expected
+                }
+            }
+            byte[] bytes = Files.readAllBytes(checkpoint);
+            Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length - 3));
+            try {
+                new IpogRunner(configuration(parameters, BaseAlgorithm.IPOG).build()).resume(checkpoint);
+                throw new AssertionError("resumed a truncated checkpoint");
+            }
+            catch (IllegalArgumentException expected) {
+                // as expected
+            }
+        }
+        finally {
+            Files.deleteIfExists(checkpoint);
+        }
+        System.out.println("Test passed!");
+    }
+
+    private static RunConfiguration.Builder configuration(List<Parameter<?>> parameters, BaseAlgorithm baseAlgorithm) {
+        return RunConfiguration.builder(parameters, 3, baseAlgorithm)
+                .enhanceHorizontal(false)
+                .adaptVertical()
+                .seed(42);
+    }
+}
@@ -0,0 +1,182 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+public class ConstraintTest {
+    public static void main(String[] args) {
+        for (BaseAlgorithm baseAlgorithm : List.of(BaseAlgorithm.IPOG, BaseAlgorithm.IPOG_F, BaseAlgorithm.IPOG_F2)) {
+            constraintsAreSatisfiedAndFeasibleTuplesCovered(
+                    RunConfiguration.builder(parameters(), 2, baseAlgorithm));
+            constraintsAreSatisfiedAndFeasibleTuplesCovered(
+                    RunConfiguration.builder(parameters(), 3, baseAlgorithm).adaptVertical());
+            constraintsAreSatisfiedAndFeasibleTuplesCovered(
+                    RunConfiguration.builder(parameters(), 3, baseAlgorithm).enhanceHorizontal(true));
+            constraintsAreSatisfiedAndFeasibleTuplesCovered(
+                    RunConfiguration.builder(parameters(), 3, baseAlgorithm).adaptVertical()
+                            .mergeDontCareRows().removeRedundantRows());
+            constraintsAreSatisfiedAndFeasibleTuplesCovered(
+                    RunConfiguration.builder(parameters(), 2, baseAlgorithm).fillDontCaresForHigherStrength());
+            rowsThatCannotSatisfyTheConstraintsAreReplaced(baseAlgorithm);
+        }
+    }
+
+    static List<Parameter<?>> parameters() {
+        return List.of(
+                new Parameter<>("JRE", 7, 8, 11, 17),
+                new Parameter<>("OS", "Linux", "Mac", "Windows"),
+                new Parameter<>("JDK Distribution", "Java SE Development Kit", "OpenJDK", "Corretto", "GraalVM"),
+                new Parameter<>("Build Tool", "Ant", "Maven", "Gradle"),
+                new Parameter<>("IDE", "Intellij", "Eclipse", "VSC", "NetBeans"),
+                new Parameter<>("JUnit", "3.1.3", "4.3.1", "5.8.2"),
+                new Parameter<>("Dev Mode", true, false));
+    }
+
+    static void constraintsAreSatisfiedAndFeasibleTuplesCovered(RunConfiguration.Builder builder) {
+        List<Constraint> constraints = List.of(
+                Constraint.forbid(Map.of("OS", "Windows", "JDK Distribution", "Corretto")),
+                Constraint.forbid(Map.of("JRE", 7, "JUnit", "5.8.2")),
+                Constraint.forbid(Map.of("JRE", 17, "OS", "Mac", "Build Tool", "Ant")),
+                Constraint.require(List.of("IDE", "Build Tool"),
+                        values -> !values.get(0).equals("VSC") || !values.get(1).equals("Ant")));
+        constraints.forEach(builder::constraint);
+        RunConfiguration runConfiguration = builder.build();
+        IpogRunner ipogRunner = new IpogRunner(runConfiguration);
+        CoveringArray coveringArray = ipogRunner.generate();
+        List<Map<String, Object>> rows = new ArrayList<>(coveringArray.getCoveringArrayAsLinkedHashMap(false));
+        for (Map<String, Object> row : rows) {
+            if (!isValid(row)) {
+                throw new AssertionError("invalid row " + row);
+            }
+        }
+        List<Parameter<?>> parameters = runConfiguration.getParameters();
+        int strength = runConfiguration.getStrength();
+        int[] parameterCombination = new int[strength];
+        for (int i = 0; i < strength; i++) {
+            parameterCombination[i] = i;
+        }
+        int missing = 0;
+        do {
+            int[] sizes = new int[strength];
+            for (int i = 0; i < strength; i++) {
+                sizes[i] = parameters.get(parameterCombination[i]).size();
+            }
+            tuple_loop:
+            for (int[] tuple : new CombinatoricUtils.CartesianProduct(sizes)) {
+                Map<String, Object> values = new HashMap<>();
+                for (int i = 0; i < strength; i++) {
+                    Parameter<?> parameter = parameters.get(parameterCombination[i]);
+                    values.put(parameter.getName(), parameter.getValues().get(tuple[i]));
+                }
+                if (!isValid(values)) {
+                    continue;
+                }
+                row_loop:
+                for (Map<String, Object> row : rows) {
+                    for (Map.Entry<String, Object> entry : values.entrySet()) {
+                        if (!row.get(entry.getKey()).equals(entry.getValue())) {
+                            continue row_loop;
+                        }
+                    }
+                    continue tuple_loop;
+                }
+                missing++;
+            }
+        }
+        while (CombinatoricUtils.nextKCombination(parameterCombination, parameters.size()));
+        if (missing > 0) {
+            throw new AssertionError(missing + " feasible tuples are not covered");
+        }
+        System.out.println(runConfiguration.getBaseAlgorithm() + ", t=" + strength
+                + ": rows = " + coveringArray.numberOfRows() + ", " + ipogRunner.getReport());
+        System.out.println("Test passed!");
+    }
+
+    // Windows can neither be combined with OpenJDK nor with Corretto, so a row with Windows and without
+    // a distribution (which the forbidden pairs do not rule out on their own) cannot be completed;
+    // such a row gets dropped and the feasible combinations that only it covered have to be covered by other rows
+    static void rowsThatCannotSatisfyTheConstraintsAreReplaced(BaseAlgorithm baseAlgorithm) {
+        List<Parameter<?>> parameters = List.of(
+                new Parameter<>("OS", "Linux", "Mac", "Windows"),
+                new Parameter<>("JDK Distribution", "OpenJDK", "Corretto"),
+                new Parameter<>("Build Tool", "Ant", "Maven", "Gradle"),
+                new Parameter<>("Dev Mode", true, false),
+                new Parameter<>("Locale", "de", "en", "ja"));
+        RunConfiguration.Builder builder = RunConfiguration.builder(parameters, 2, baseAlgorithm)
+                .constraint(Constraint.forbid(Map.of("OS", "Windows", "JDK Distribution", "OpenJDK")))
+                .constraint(Constraint.forbid(Map.of("OS", "Windows", "JDK Distribution", "Corretto")));
+        IpogRunner ipogRunner = new IpogRunner(builder.build());
+        CoveringArray coveringArray = ipogRunner.generate();
+        if (ipogRunner.getReport().getUnsatisfiableRowsCount() == 0) {
+            throw new AssertionError("no row has been dropped");
+        }
+        for (int[] row : coveringArray.getTable()) {
+            if (row[0] == 2) {
+                throw new AssertionError("invalid row " + Arrays.toString(row));
+            }
+            if (Arrays.stream(row).anyMatch(value -> value == CoveringArray.DONT_CARE_VALUE)) {
+                throw new AssertionError("a row of a constrained covering array has a don't-care value");
+            }
+        }
+        int missing = missingFeasiblePairs(parameters, coveringArray.getTable(), row -> row[0] != 2);
+        if (missing > 0) {
+            throw new AssertionError(missing + " feasible pairs are not covered");
+        }
+        CoveringArray partialCoveringArray = ipogRunner.generatePartial(100);
+        long[] coverageCurve = ipogRunner.getReport().getCoverageCurve();
+        if (partialCoveringArray.getTable().stream().anyMatch(row -> row[0] == 2)
+                || coverageCurve.length != partialCoveringArray.numberOfRows()
+                || missingFeasiblePairs(parameters, partialCoveringArray.getTable(), row -> row[0] != 2) > 0) {
+            throw new AssertionError();
+        }
+        for (int row = 1; row < coverageCurve.length; row++) {
+            if (coverageCurve[row] <= coverageCurve[row - 1]) {
+                throw new AssertionError(Arrays.toString(coverageCurve));
+            }
+        }
+        System.out.println(baseAlgorithm + ": rows = " + coveringArray.numberOfRows() + ", dropped rows = "
+                + ipogRunner.getReport().getUnsatisfiableRowsCount());
+        System.out.println("Test passed!");
+    }
+
+    // the number of pairs that some complete valid row contains, but none of the given rows
+    private static int missingFeasiblePairs(List<Parameter<?>> parameters, List<int[]> rows,
+                                            Predicate<int[]> isValidRow) {
+        int[] sizes = parameters.stream().mapToInt(Parameter::size).toArray();
+        Set<List<Integer>> feasiblePairs = new HashSet<>(), coveredPairs = new HashSet<>();
+        for (int[] row : new CombinatoricUtils.CartesianProduct(sizes)) {
+            if (isValidRow.test(row)) {
+                feasiblePairs.addAll(pairs(row));
+            }
+        }
+        for (int[] row : rows) {
+            coveredPairs.addAll(pairs(row));
+        }
+        feasiblePairs.removeAll(coveredPairs);
+        return feasiblePairs.size();
+    }
+
+    private static List<List<Integer>> pairs(int[] row) {
+        List<List<Integer>> pairs = new ArrayList<>();
+        for (int first = 0; first < row.length; first++) {
+            for (int second = first + 1; second < row.length; second++) {
+                pairs.add(List.of(first, row[first], second, row[second]));
+            }
+        }
+        return pairs;
+    }
+
+    // valid if no forbidden combination is (completely) contained in the given values
+    private static boolean isValid(Map<String, Object> values) {
+        return !(matches(values, "OS", "Windows", "JDK Distribution", "Corretto")
+                || matches(values, "JRE", 7, "JUnit", "5.8.2")
+                || matches(values, "JRE", 17, "OS", "Mac") && matches(values, "Build Tool", "Ant", "Build Tool", "Ant")
+                || matches(values, "IDE", "VSC", "Build Tool", "Ant"));
+    }
+
+    private static boolean matches(Map<String, Object> values, String nameA, Object valueA, String nameB, Object valueB) {
+        return valueA.equals(values.get(nameA)) && valueB.equals(values.get(nameB));
+    }
+}
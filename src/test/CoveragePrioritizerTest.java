@@ -0,0 +1,60 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+
+public class CoveragePrioritizerTest {
+    public static void main(String[] args) {
+        List<Parameter<?>> parameters = new ArrayList<>();
+        for (int column = 0; column < 12; column++) {
+            parameters.add(new Parameter<>("p" + column, 1, 2, 3));
+        }
+        CoveringArray coveringArray = new IpogRunner(
+                RunConfiguration.builder(parameters, 3, BaseAlgorithm.IPOG).build()).generate();
+        CoveragePrioritizer prioritizer = new CoveragePrioritizer(parameters, 3);
+        CoveringArray prioritized = prioritizer.prioritize(coveringArray);
+        long[] coverageCurve = prioritizer.getCoverageCurve();
+        // the same rows in a different order
+        Map<String, Integer> rowCounts = new HashMap<>();
+        coveringArray.getTable().forEach(row -> rowCounts.merge(Arrays.toString(row), 1, Integer::sum));
+        prioritized.getTable().forEach(row -> rowCounts.merge(Arrays.toString(row), -1, Integer::sum));
+        if (prioritized.numberOfRows() != coveringArray.numberOfRows()
+                || rowCounts.values().stream().anyMatch(count -> count != 0)) {
+            throw new AssertionError("the prioritized rows are not a permutation of the rows");
+        }
+        if (coverageCurve.length != prioritized.numberOfRows()
+                || coverageCurve[coverageCurve.length - 1] != prioritizer.getNumberOfValueCombinations()
+                || coverageCurve[0] != 220) {
+            throw new AssertionError("unexpected coverage curve " + Arrays.toString(coverageCurve));
+        }
+        // every row covers at most as many new combinations as the row before
+        for (int row = 1; row < coverageCurve.length; row++) {
+            if (coverageCurve[row] - coverageCurve[row - 1] > coverageCurve[row - 1] - (row > 1 ? coverageCurve[row - 2] : 0)) {
+                throw new AssertionError("the gains are not decreasing: " + Arrays.toString(coverageCurve));
+            }
+        }
+        // every row ends up in exactly one shard, no shard costs more than the average plus the largest row cost
+        List<CoveringArray.Shard> shards = coveringArray.shard(4, row -> 1 + row % 3, prioritizer);
+        int[] shardOfRow = new int[coveringArray.numberOfRows()];
+        Arrays.fill(shardOfRow, -1);
+        double totalCost = 0;
+        for (CoveringArray.Shard shard : shards) {
+            for (int row : shard.getRowIndices()) {
+                if (shardOfRow[row] != -1) {
+                    throw new AssertionError("row " + row + " is in two shards");
+                }
+                shardOfRow[row] = shard.getIndex();
+            }
+            totalCost += shard.getCost();
+        }
+        double maximumCost = shards.stream().mapToDouble(CoveringArray.Shard::getCost).max().orElse(0);
+        if (Arrays.stream(shardOfRow).anyMatch(shard -> shard == -1) || maximumCost > totalCost / 4 + 3) {
+            throw new AssertionError("unbalanced shards " + shards);
+        }
+        int half = coveringArray.numberOfRows() / 2;
+        System.out.println("coverage after half of the rows = " + coverageCurve[half - 1]
+                + " of " + prioritizer.getNumberOfValueCombinations());
+        System.out.println("Test passed!");
+    }
+}
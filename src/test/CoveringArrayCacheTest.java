@@ -0,0 +1,70 @@
+package test;
+
+import ipog.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class CoveringArrayCacheTest {
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("ipca");
+        CoveringArrayCache cache = new CoveringArrayCache(4, directory);
+        List<Parameter<?>> parameters = List.of(
+                new Parameter<>("a", 1, 2, 3), new Parameter<>("b", true, false),
+                new Parameter<>("c", "x", "y", "z"), new Parameter<>("d", 'p', 'q'),
+                new Parameter<>("e", 4, 5, 6), new Parameter<>("f", 'r', 's'));
+        // same size signature (3^3 2^3), different order and names
+        List<Parameter<?>> permutedParameters = List.of(
+                new Parameter<>("u", 0, 1), new Parameter<>("v", "l", "m", "n"),
+                new Parameter<>("w", 0, 1), new Parameter<>("x", 7, 8, 9),
+                new Parameter<>("y", false, true), new Parameter<>("z", 'a', 'b', 'c'));
+        CoveringArray generated = generate(parameters, cache, false);
+        CoveringArray cached = generate(permutedParameters, cache, true);
+        if (generated.numberOfRows() != cached.numberOfRows()
+                || !CoveringArrayUtils.isStrengthCovered(cached, 3)) {
+            throw new AssertionError("cache hit does not fit the permuted parameters");
+        }
+        // a new cache instance only has the disk entries
+        CoveringArray fromDisk = generate(parameters, new CoveringArrayCache(1, directory), true);
+        for (int row = 0; row < generated.numberOfRows(); row++) {
+            if (!Arrays.equals(generated.getTable().get(row), fromDisk.getTable().get(row))) {
+                throw new AssertionError("disk entry differs from the generated covering array");
+            }
+        }
+        if (cache.getHitCount() != 1 || cache.getMissCount() != 1) {
+            throw new AssertionError("unexpected hit or miss count");
+        }
+        System.out.println("Test passed!");
+        diskEntriesOfRandomOrdersKeepLargeValues();
+    }
+
+    // with a random order, the large domain is not necessarily the first one in the internal order
+    static void diskEntriesOfRandomOrdersKeepLargeValues() throws Exception {
+        Path directory = Files.createTempDirectory("ipca");
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("300^1 2^4");
+        for (long seed = 0; seed < 20; seed++) {
+            RunConfiguration runConfiguration = RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                    .parameterOrdering(ParameterOrdering.random()).seed(seed)
+                    .cache(new CoveringArrayCache(1, directory)).build();
+            new IpogRunner(runConfiguration).generate();
+            IpogRunner ipogRunner = new IpogRunner(runConfiguration.toBuilder()
+                    .cache(new CoveringArrayCache(1, directory)).build());
+            CoveringArray fromDisk = ipogRunner.generate();
+            if (!ipogRunner.getReport().isCacheHit() || !CoveringArrayUtils.isStrengthCovered(fromDisk, 2)) {
+                throw new AssertionError("seed " + seed);
+            }
+        }
+        System.out.println("Test passed!");
+    }
+
+    static CoveringArray generate(List<Parameter<?>> parameters, CoveringArrayCache cache, boolean expectHit) {
+        IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, 3, BaseAlgorithm.IPOG_F)
+                .enhanceHorizontal(false).seed(7).cache(cache).build());
+        CoveringArray coveringArray = ipogRunner.generate();
+        if (ipogRunner.getReport().isCacheHit() != expectHit) {
+            throw new AssertionError("expected cache hit: " + expectHit);
+        }
+        return coveringArray;
+    }
+}
@@ -0,0 +1,66 @@
+package test;
+
+import ipog.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class CoveringArrayFileTest {
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("covering-array-file");
+        List<Parameter<?>> binary = new ArrayList<>();
+        for (int column = 0; column < 70; column++) {
+            binary.add(new Parameter<>("flag " + column, true, false));
+        }
+        List<Parameter<?>> mixed = List.of(
+                new Parameter<>("JRE", 8, 11, 17, 21),
+                new Parameter<>("OS", "Linux", "Mac, Intel", "Windows \"11\""),
+                new Parameter<>("Heap", 256L, 1024L),
+                new Parameter<>("Ratio", 0.5, 0.75, 1.0),
+                new Parameter<>("Level", 'a', 'b'),
+                new Parameter<>("Assertions", true, false));
+        // values of several types, some of which need quoting in CSV, and 2 bits per cell over several longs per row
+        for (RunConfiguration runConfiguration : List.of(
+                RunConfiguration.builder(mixed, 2, BaseAlgorithm.IPOG_F).seed(1).build(),
+                RunConfiguration.builder(binary, 3, BaseAlgorithm.IPOG).build())) {
+            CoveringArray coveringArray = new IpogRunner(runConfiguration).generate();
+            for (PackedTable.Layout layout : PackedTable.Layout.values()) {
+                Path file = directory.resolve(layout + ".ipcf");
+                CoveringArrayFile.write(coveringArray.withLayout(layout), runConfiguration, file);
+                CoveringArrayFile opened = CoveringArrayFile.open(file);
+                CoveringArray read = opened.getCoveringArray();
+                if (opened.getStrength() != runConfiguration.getStrength()
+                        || !opened.getGeneratorOptions().startsWith(runConfiguration.getBaseAlgorithm().name())) {
+                    throw new AssertionError("unexpected header " + opened.getStrength() + " " + opened.getGeneratorOptions());
+                }
+                for (int column = 0; column < coveringArray.numberOfColumns(); column++) {
+                    if (!read.getParameter(column).getValues().equals(coveringArray.getParameter(column).getValues())) {
+                        throw new AssertionError("values differ: " + read.getParameter(column).getValues());
+                    }
+                }
+                for (int row = 0; row < coveringArray.numberOfRows(); row++) {
+                    if (!Arrays.equals(read.getTable().get(row), coveringArray.getTable().get(row))) {
+                        throw new AssertionError("row " + row + " differs");
+                    }
+                }
+                // the streaming writer produces the same text as toCsv, also with several threads
+                ByteArrayOutputStream csv = new ByteArrayOutputStream();
+                new CoveringArrayWriter(CoveringArrayWriter.Format.CSV).threads(2).write(read, csv);
+                if (!csv.toString("UTF-8").equals(coveringArray.toCsv(false))) {
+                    throw new AssertionError("the CSV of the file differs");
+                }
+            }
+        }
+        try {
+            Path notACoveringArray = Files.write(directory.resolve("empty.ipcf"), new byte[12]);
+            CoveringArrayFile.open(notACoveringArray);
+            throw new AssertionError("opened a file that is not a covering array file");
+        }
+        catch (IllegalArgumentException expected) {
+            // as expected
+        }
+        System.out.println("Test passed!");
+    }
+}
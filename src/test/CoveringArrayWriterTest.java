@@ -0,0 +1,127 @@
+package test;
+
+import ipog.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class CoveringArrayWriterTest {
+    public static void main(String[] args) throws IOException {
+        valuesAreQuotedAsInRfc4180();
+        chunksWrittenInParallelAreTheSameAsWrittenOneByOne();
+    }
+
+    static void valuesAreQuotedAsInRfc4180() throws IOException {
+        List<Parameter<?>> parameters = List.of(
+                new Parameter<>("OS, Version", "Linux", "Mac, Intel", "Windows \"11\""),
+                new Parameter<>("Locale\tRegion", "de\tAT", "en", "Zürich"),
+                new Parameter<>("Motto", "multi\nline", "carriage\rreturn", "plain"));
+        CoveringArray coveringArray = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                .build()).generate();
+        String csv = write(new CoveringArrayWriter(CoveringArrayWriter.Format.CSV), coveringArray);
+        String tsv = write(new CoveringArrayWriter(CoveringArrayWriter.Format.TSV), coveringArray);
+        if (!csv.equals(expected(coveringArray, ',')) || !tsv.equals(expected(coveringArray, '\t'))) {
+            throw new AssertionError(csv + "\n" + tsv);
+        }
+        // only the values that contain the delimiter of the format, a quote or a line break are quoted
+        for (String text : List.of("\"OS, Version\",Locale\tRegion,Motto\n", "\n\"Mac, Intel\",",
+                "\"Windows \"\"11\"\"\"", ",de\tAT,", "\"multi\nline\"", "\"carriage\rreturn\"", ",Zürich,")) {
+            if (!csv.contains(text)) {
+                throw new AssertionError("the CSV does not contain " + text);
+            }
+        }
+        for (String text : List.of("OS, Version\t\"Locale\tRegion\"\tMotto\n", "\nMac, Intel\t",
+                "\"Windows \"\"11\"\"\"", "\t\"de\tAT\"\t", "\"multi\nline\"", "\"carriage\rreturn\"")) {
+            if (!tsv.contains(text)) {
+                throw new AssertionError("the TSV does not contain " + text);
+            }
+        }
+        if (!csv.equals(coveringArray.toCsv(false))) {
+            throw new AssertionError("the CSV differs from toCsv");
+        }
+        System.out.println("Test passed!");
+    }
+
+    // rows for three chunks, with don't-care values in the columns of the smaller domains
+    static void chunksWrittenInParallelAreTheSameAsWrittenOneByOne() throws IOException {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("100^2 4^1 3^2 2^3");
+        CoveringArray coveringArray = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                .build()).generate();
+        if (coveringArray.numberOfRows() <= 2 * 4096 || coveringArray.getTable().stream()
+                .noneMatch(row -> Arrays.stream(row).anyMatch(value -> value == CoveringArray.DONT_CARE_VALUE))) {
+            throw new AssertionError(coveringArray.numberOfRows() + " rows");
+        }
+        for (CoveringArrayWriter.Format format : CoveringArrayWriter.Format.values()) {
+            char delimiter = format == CoveringArrayWriter.Format.CSV ? ',' : '\t';
+            byte[] expected = expected(coveringArray, delimiter).getBytes(StandardCharsets.UTF_8);
+            byte[] expectedWithRandomValues = writeToStream(new CoveringArrayWriter(format).randomizeDontCares(7),
+                    coveringArray);
+            for (int threads : new int[]{1, 2, 3, 8}) {
+                CoveringArrayWriter writer = new CoveringArrayWriter(format).threads(threads);
+                if (!Arrays.equals(writeToStream(writer, coveringArray), expected)
+                        || !Arrays.equals(writeToChannel(writer, coveringArray), expected)
+                        || !Arrays.equals(write(writer, coveringArray).getBytes(StandardCharsets.UTF_8), expected)) {
+                    throw new AssertionError(format + " with " + threads + " threads differs");
+                }
+                byte[] withRandomValues = writeToStream(new CoveringArrayWriter(format).randomizeDontCares(7)
+                        .threads(threads), coveringArray);
+                if (!Arrays.equals(withRandomValues, expectedWithRandomValues)
+                        || Arrays.equals(withRandomValues, expected)) {
+                    throw new AssertionError(format + " with random values and " + threads + " threads differs");
+                }
+            }
+            System.out.println(format + ": " + coveringArray.numberOfRows() + " rows, " + expected.length + " bytes");
+        }
+        System.out.println("Test passed!");
+    }
+
+    private static byte[] writeToStream(CoveringArrayWriter writer, CoveringArray coveringArray) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(coveringArray, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] writeToChannel(CoveringArrayWriter writer, CoveringArray coveringArray) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(coveringArray, Channels.newChannel(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    private static String write(CoveringArrayWriter writer, CoveringArray coveringArray) throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        writer.write(coveringArray, stringWriter);
+        return stringWriter.toString();
+    }
+
+    // the text is built cell by cell, independently of the chunks of the writer
+    private static String expected(CoveringArray coveringArray, char delimiter) {
+        StringBuilder text = new StringBuilder();
+        for (int column = 0; column < coveringArray.numberOfColumns(); column++) {
+            text.append(column > 0 ? String.valueOf(delimiter) : "")
+                    .append(quote(coveringArray.getParameter(column).getName(), delimiter));
+        }
+        text.append('\n');
+        for (int[] row : coveringArray.getTable()) {
+            for (int column = 0; column < row.length; column++) {
+                text.append(column > 0 ? String.valueOf(delimiter) : "")
+                        .append(row[column] == CoveringArray.DONT_CARE_VALUE ? String.valueOf(CoveringArray.DONT_CARE_SYMBOL)
+                                : quote(coveringArray.getParameter(column).getValues().get(row[column]), delimiter));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String quote(Object value, char delimiter) {
+        String text = String.valueOf(value);
+        if (text.indexOf(delimiter) < 0 && !text.contains("\"") && !text.contains("\n") && !text.contains("\r")) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
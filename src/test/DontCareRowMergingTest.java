@@ -0,0 +1,136 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+
+public class DontCareRowMergingTest {
+    public static void main(String[] args) {
+        // the horizontal growth of SIPO and of IPOG_F2 leaves rows with don't-care values that fit together
+        mergedRowsContainTheRowsOfTheGeneration(RunConfiguration.builder(
+                ParameterConfigurationParser.generate("4^2 3^3 2^2"), 3, BaseAlgorithm.IPOG)
+                .enhanceHorizontal(false).seed(1), true);
+        mergedRowsContainTheRowsOfTheGeneration(RunConfiguration.builder(
+                ParameterConfigurationParser.generate("10^2 2^10"), 3, BaseAlgorithm.IPOG_F2), true);
+        mergedRowsContainTheRowsOfTheGeneration(RunConfiguration.builder(
+                ParameterConfigurationParser.generate("8^1 2^12"), 2, BaseAlgorithm.IPOG_F2), true);
+        // the vertical growth of IPOG puts the combinations into the rows that fit them already
+        mergedRowsContainTheRowsOfTheGeneration(RunConfiguration.builder(
+                ParameterConfigurationParser.generate("5^2 4^3 3^4 2^3"), 3, BaseAlgorithm.IPOG), false);
+        mergedRowsSatisfyTheConstraints();
+    }
+
+    static void mergedRowsContainTheRowsOfTheGeneration(RunConfiguration.Builder builder, boolean rowsAreMerged) {
+        RunConfiguration runConfiguration = builder.build();
+        int strength = runConfiguration.getStrength();
+        List<int[]> rows = new IpogRunner(runConfiguration).generate().getTable();
+        IpogRunner ipogRunner = new IpogRunner(builder.mergeDontCareRows().build());
+        CoveringArray coveringArray = ipogRunner.generate();
+        int mergedRowsCount = ipogRunner.getReport().getMergedRowsCount();
+        if (!CoveringArrayUtils.isStrengthCovered(coveringArray, strength)) {
+            throw new AssertionError("the merged rows are no covering array");
+        }
+        if ((mergedRowsCount > 0) != rowsAreMerged || coveringArray.numberOfRows() != rows.size() - mergedRowsCount) {
+            throw new AssertionError(rows.size() + " rows, " + coveringArray.numberOfRows() + " after merging "
+                    + mergedRowsCount + " of them");
+        }
+        List<int[]> mergedRows = coveringArray.getTable();
+        for (int[] row : rows) {
+            if (mergedRows.stream().noneMatch(mergedRow -> contains(mergedRow, row))) {
+                throw new AssertionError("no merged row contains " + Arrays.toString(row));
+            }
+        }
+        System.out.println(runConfiguration.getBaseAlgorithm() + ", t=" + strength + ": " + rows.size()
+                + " rows, " + coveringArray.numberOfRows() + " after merging");
+        System.out.println("Test passed!");
+    }
+
+    // the merged rows are checked after their don't-care values have been replaced by valid values
+    static void mergedRowsSatisfyTheConstraints() {
+        List<Parameter<?>> parameters = new ArrayList<>(List.of(
+                new Parameter<>("Browser", "Chrome", "Firefox", "Safari", "Edge", "Opera", "Brave", "Vivaldi",
+                        "Tor", "Lynx", "IE"),
+                new Parameter<>("Locale", "de", "en", "fr", "ja", "es", "it", "pt", "nl", "sv", "pl")));
+        for (String flag : List.of("Dark Mode", "Offline", "Ads", "Cookies", "JavaScript", "Images", "Zoom", "Sync",
+                "Touch", "Proxy")) {
+            parameters.add(new Parameter<>(flag, true, false));
+        }
+        // every combination without a forbidden one can be completed to a valid row
+        List<Map<String, Object>> forbiddenCombinations = List.of(
+                Map.of("Browser", "Safari", "Touch", false),
+                Map.of("Browser", "Lynx", "Images", true),
+                Map.of("Offline", true, "Sync", true, "Proxy", true));
+        int strength = 3;
+        RunConfiguration.Builder builder = RunConfiguration.builder(parameters, strength, BaseAlgorithm.IPOG_F2);
+        forbiddenCombinations.forEach(combination -> builder.constraint(Constraint.forbid(combination)));
+        int numberOfRows = new IpogRunner(builder.build()).generate().numberOfRows();
+        IpogRunner ipogRunner = new IpogRunner(builder.mergeDontCareRows().build());
+        CoveringArray coveringArray = ipogRunner.generate();
+        if (ipogRunner.getReport().getMergedRowsCount() == 0 || coveringArray.numberOfRows() >= numberOfRows) {
+            throw new AssertionError(numberOfRows + " rows, " + coveringArray.numberOfRows() + " after merging");
+        }
+        List<int[]> rows = coveringArray.getTable();
+        for (int[] row : rows) {
+            if (Arrays.stream(row).anyMatch(value -> value == CoveringArray.DONT_CARE_VALUE)
+                    || containsForbiddenCombination(parameters, forbiddenCombinations, row)) {
+                throw new AssertionError("invalid row " + Arrays.toString(row));
+            }
+        }
+        int[] parameterCombination = new int[strength];
+        for (int i = 0; i < strength; i++) {
+            parameterCombination[i] = i;
+        }
+        int missing = 0;
+        do {
+            int[] sizes = new int[strength];
+            for (int i = 0; i < strength; i++) {
+                sizes[i] = parameters.get(parameterCombination[i]).size();
+            }
+            for (int[] tuple : new CombinatoricUtils.CartesianProduct(sizes)) {
+                int[] values = new int[parameters.size()];
+                Arrays.fill(values, CoveringArray.DONT_CARE_VALUE);
+                for (int i = 0; i < strength; i++) {
+                    values[parameterCombination[i]] = tuple[i];
+                }
+                if (!containsForbiddenCombination(parameters, forbiddenCombinations, values)
+                        && rows.stream().noneMatch(row -> contains(row, values))) {
+                    missing++;
+                }
+            }
+        }
+        while (CombinatoricUtils.nextKCombination(parameterCombination, parameters.size()));
+        if (missing > 0) {
+            throw new AssertionError(missing + " feasible tuples are not covered");
+        }
+        System.out.println("constraints, t=" + strength + ": " + numberOfRows + " rows, "
+                + coveringArray.numberOfRows() + " after merging");
+        System.out.println("Test passed!");
+    }
+
+    // whether the row has the values of all the fixed cells of the other row
+    private static boolean contains(int[] row, int[] otherRow) {
+        for (int column = 0; column < row.length; column++) {
+            if (otherRow[column] != CoveringArray.DONT_CARE_VALUE && otherRow[column] != row[column]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsForbiddenCombination(List<Parameter<?>> parameters,
+                                                        List<Map<String, Object>> forbiddenCombinations, int[] row) {
+        combination_loop:
+        for (Map<String, Object> forbiddenCombination : forbiddenCombinations) {
+            for (int column = 0; column < parameters.size(); column++) {
+                Parameter<?> parameter = parameters.get(column);
+                Object forbiddenValue = forbiddenCombination.get(parameter.getName());
+                if (forbiddenValue != null && (row[column] == CoveringArray.DONT_CARE_VALUE
+                        || !forbiddenValue.equals(parameter.getValues().get(row[column])))) {
+                    continue combination_loop;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package test;
+
+import ipog.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class ExtendTest {
+    public static void main(String[] args) {
+        extendedCoveringArrayKeepsTheExistingValues(BaseAlgorithm.IPOG, false);
+        extendedCoveringArrayKeepsTheExistingValues(BaseAlgorithm.IPOG_F, false);
+        extendedCoveringArrayKeepsTheExistingValues(BaseAlgorithm.IPOG_F2, false);
+        extendedCoveringArrayKeepsTheExistingValues(BaseAlgorithm.IPOG_D, false);
+        extendedCoveringArrayKeepsTheExistingValues(BaseAlgorithm.IPOG, true);
+    }
+
+    static void extendedCoveringArrayKeepsTheExistingValues(BaseAlgorithm baseAlgorithm, boolean sipoAndSlo) {
+        int strength = 3;
+        List<Parameter<?>> parameters = new ArrayList<>(ParameterConfigurationParser.generate("4^2 3^4 2^3"));
+        CoveringArray existing = new IpogRunner(configuration(parameters, strength, baseAlgorithm, sipoAndSlo)
+                .build()).generate();
+        List<int[]> rowsBefore = existing.getTable();
+        parameters.add(new Parameter<>("Locale", "de", "en", "fr", "ja"));
+        parameters.add(new Parameter<>("Headless", true, false));
+        IpogRunner ipogRunner = new IpogRunner(configuration(parameters, strength, baseAlgorithm, sipoAndSlo).build());
+        CoveringArray extended = ipogRunner.extend(existing);
+        if (!CoveringArrayUtils.isStrengthCovered(extended, strength)) {
+            throw new AssertionError();
+        }
+        if (extended.numberOfColumns() != parameters.size() || extended.numberOfRows() < rowsBefore.size()) {
+            throw new AssertionError();
+        }
+        for (int row = 0; row < rowsBefore.size(); row++) {
+            int[] rowAfter = extended.getPackedTable().getRow(row);
+            for (int column = 0; column < existing.numberOfColumns(); column++) {
+                int valueBefore = rowsBefore.get(row)[column];
+                if (valueBefore != CoveringArray.DONT_CARE_VALUE && valueBefore != rowAfter[column]) {
+                    throw new AssertionError();
+                }
+            }
+        }
+        // the extension does not change the order of the columns for later runs
+        List<int[]> generatedRows = ipogRunner.generate().getTable();
+        List<int[]> expectedRows = new IpogRunner(configuration(parameters, strength, baseAlgorithm, sipoAndSlo)
+                .build()).generate().getTable();
+        if (generatedRows.size() != expectedRows.size()
+                || !IntStream.range(0, expectedRows.size())
+                .allMatch(row -> Arrays.equals(generatedRows.get(row), expectedRows.get(row)))) {
+            throw new AssertionError("a generation after the extension differs from a fresh one");
+        }
+        System.out.println(baseAlgorithm + (sipoAndSlo ? " + SIPO + SLO" : "") + ": rows before = "
+                + rowsBefore.size() + ", rows after = " + extended.numberOfRows());
+        System.out.println("Test passed!");
+    }
+
+    private static RunConfiguration.Builder configuration(List<Parameter<?>> parameters, int strength,
+                                                          BaseAlgorithm baseAlgorithm, boolean sipoAndSlo) {
+        RunConfiguration.Builder builder = RunConfiguration.builder(parameters, strength, baseAlgorithm).seed(7);
+        if (sipoAndSlo) {
+            builder.enhanceHorizontal(false).adaptVertical();
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,107 @@
+package test;
+
+import ipog.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class GeneratePartialTest {
+    public static void main(String[] args) {
+        for (int strength = 2; strength <= 3; strength++) {
+            rowBudgetIsRespected("4^3 3^4 2^3", strength);
+            largeBudgetGivesACoveringArray("4^3 3^4 2^3", strength);
+        }
+        rowBudgetIsRespected("5^1 3^8 2^6", 2);
+        largeBudgetGivesACoveringArray("5^1 3^8 2^6", 2);
+        runsOfTheSameRunnerStartFromScratch();
+    }
+
+    static void rowBudgetIsRespected(String model, int strength) {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate(model);
+        int coveringArraySize = new IpogRunner(RunConfiguration.builder(parameters, strength, BaseAlgorithm.IPOG)
+                .build()).generate().numberOfRows();
+        long numberOfCombinations = numberOfCombinations(parameters, strength);
+        for (int budget : List.of(1, 2, coveringArraySize / 2, coveringArraySize - 1)) {
+            IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, strength, BaseAlgorithm.IPOG)
+                    .build());
+            CoveringArray partialCoveringArray = ipogRunner.generatePartial(budget);
+            long[] coverageCurve = ipogRunner.getReport().getCoverageCurve();
+            if (partialCoveringArray.numberOfRows() != budget || coverageCurve.length != budget) {
+                throw new AssertionError("budget " + budget + ": " + partialCoveringArray.numberOfRows() + " rows");
+            }
+            assertIncreasing(coverageCurve);
+            if (coverageCurve[budget - 1] > numberOfCombinations) {
+                throw new AssertionError("covered more combinations than there are");
+            }
+            System.out.println(model + ", t=" + strength + ", budget " + budget + ": covered "
+                    + coverageCurve[budget - 1] + " of " + numberOfCombinations);
+        }
+        System.out.println("Test passed!");
+    }
+
+    static void largeBudgetGivesACoveringArray(String model, int strength) {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate(model);
+        int budget = 100_000;
+        IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, strength, BaseAlgorithm.IPOG)
+                .build());
+        CoveringArray coveringArray = ipogRunner.generatePartial(budget);
+        long[] coverageCurve = ipogRunner.getReport().getCoverageCurve();
+        if (!CoveringArrayUtils.isStrengthCovered(coveringArray, strength)
+                || coveringArray.numberOfRows() >= budget
+                || coverageCurve.length != coveringArray.numberOfRows()
+                || coverageCurve[coverageCurve.length - 1] != numberOfCombinations(parameters, strength)) {
+            throw new AssertionError(Arrays.toString(coverageCurve));
+        }
+        assertIncreasing(coverageCurve);
+        System.out.println(model + ", t=" + strength + ": rows = " + coveringArray.numberOfRows());
+        System.out.println("Test passed!");
+    }
+
+    static void runsOfTheSameRunnerStartFromScratch() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("4^3 3^4 2^3");
+        RunConfiguration runConfiguration = RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG).build();
+        CoveringArray expected = new IpogRunner(runConfiguration).generate();
+        IpogRunner ipogRunner = new IpogRunner(runConfiguration);
+        ipogRunner.generatePartial(5);
+        CoveringArray coveringArray = ipogRunner.generate();
+        if (coveringArray.numberOfRows() != expected.numberOfRows()
+                || ipogRunner.getReport().getCoverageCurve().length != 0
+                || ipogRunner.getReport().getRequiredCombinationsCount() != numberOfCombinations(parameters, 2)) {
+            throw new AssertionError(coveringArray.numberOfRows() + " rows instead of " + expected.numberOfRows());
+        }
+        CoveringArray partialCoveringArray = ipogRunner.generatePartial(5);
+        if (partialCoveringArray.numberOfRows() != 5 || ipogRunner.getReport().getCoverageCurve().length != 5) {
+            throw new AssertionError(partialCoveringArray.numberOfRows() + " rows instead of 5");
+        }
+        System.out.println("Test passed!");
+    }
+
+    // every row starts with an uncovered combination, so it covers at least one more
+    private static void assertIncreasing(long[] coverageCurve) {
+        if (coverageCurve[0] <= 0) {
+            throw new AssertionError(Arrays.toString(coverageCurve));
+        }
+        for (int row = 1; row < coverageCurve.length; row++) {
+            if (coverageCurve[row] <= coverageCurve[row - 1]) {
+                throw new AssertionError(Arrays.toString(coverageCurve));
+            }
+        }
+    }
+
+    private static long numberOfCombinations(List<Parameter<?>> parameters, int strength) {
+        int[] parameterCombination = new int[strength];
+        for (int i = 0; i < strength; i++) {
+            parameterCombination[i] = i;
+        }
+        long count = 0;
+        do {
+            long product = 1;
+            for (int parameter : parameterCombination) {
+                product *= parameters.get(parameter).size();
+            }
+            count += product;
+        }
+        while (CombinatoricUtils.nextKCombination(parameterCombination, parameters.size()));
+        return count;
+    }
+}
@@ -0,0 +1,70 @@
+package test;
+
+import ipog.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GenerationAbortTest {
+    public static void main(String[] args) {
+        progressIsReportedForEveryColumn();
+        cancelledRunnerAborts();
+        timeoutAborts();
+    }
+
+    static void progressIsReportedForEveryColumn() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("3^6 2^4");
+        AtomicInteger lastColumn = new AtomicInteger(-1);
+        AtomicInteger lastUncovered = new AtomicInteger(-1);
+        RunConfiguration runConfiguration = RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                .progressListener((column, numberOfParameters, phase, numberOfRows, uncovered) -> {
+                    if (column < lastColumn.get() || numberOfParameters != 10) {
+                        throw new AssertionError();
+                    }
+                    lastColumn.set(column);
+                    lastUncovered.set(uncovered);
+                })
+                .build();
+        new IpogRunner(runConfiguration).generate();
+        if (lastColumn.get() != 9 || lastUncovered.get() != 0) {
+            throw new AssertionError();
+        }
+        System.out.println("Test passed!");
+    }
+
+    static void cancelledRunnerAborts() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("3^6 2^4");
+        IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG).build());
+        ipogRunner.cancel();
+        try {
+            ipogRunner.generate();
+            throw new AssertionError();
+        }
+        catch (GenerationAbortedException exception) {
+            if (exception.getReason() != GenerationAbortedException.Reason.CANCELLED) {
+                throw new AssertionError();
+            }
+        }
+        System.out.println("Test passed!");
+    }
+
+    static void timeoutAborts() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("6^20");
+        RunConfiguration runConfiguration = RunConfiguration.builder(parameters, 4, BaseAlgorithm.IPOG)
+                .timeout(Duration.ofMillis(50))
+                .build();
+        long startTime = System.currentTimeMillis();
+        try {
+            new IpogRunner(runConfiguration).generate();
+            throw new AssertionError();
+        }
+        catch (GenerationAbortedException exception) {
+            if (exception.getReason() != GenerationAbortedException.Reason.DEADLINE_EXCEEDED) {
+                throw new AssertionError();
+            }
+        }
+        System.out.println("aborted after " + (System.currentTimeMillis() - startTime) + " ms");
+        System.out.println("Test passed!");
+    }
+}
@@ -0,0 +1,29 @@
+package test;
+
+import ipog.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HighStrengthTest {
+    public static void main(String[] args) {
+        List<Parameter<?>> parameters = new ArrayList<>(List.of(
+                new Parameter<>("a", 1, 2, 3), new Parameter<>("b", 1, 2, 3)));
+        for (int column = 0; column < 8; column++) {
+            parameters.add(new Parameter<>("c" + column, true, false));
+        }
+        // t >= 6 uses the sparse coverage map, with and without counting the occurrences
+        List<RunConfiguration> runConfigurations = List.of(
+                RunConfiguration.builder(parameters, 6, BaseAlgorithm.IPOG).build(),
+                RunConfiguration.builder(parameters, 6, BaseAlgorithm.IPOG_F).seed(1).enhanceHorizontal(false)
+                        .adaptVertical().removeRedundantRows().build());
+        for (RunConfiguration runConfiguration : runConfigurations) {
+            CoveringArray coveringArray = new IpogRunner(runConfiguration).generate();
+            System.out.println("coveringArray.numberOfRows() = " + coveringArray.numberOfRows());
+            if (!CoveringArrayUtils.isStrengthCovered(coveringArray, 6)) {
+                throw new AssertionError("not all 6-way combinations are covered");
+            }
+        }
+        System.out.println("Test passed!");
+    }
+}
@@ -0,0 +1,68 @@
+package test;
+
+import ipog.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IpogDTest {
+    public static void main(String[] args) {
+        eachDoublingAddsFewerRowsThanItCopies("2^64", 3, 2);
+        eachDoublingAddsFewerRowsThanItCopies("4^16 3^16 2^32", 3, 2);
+        eachDoublingAddsFewerRowsThanItCopies("3^70", 3, 2);  // the halves are rounded up
+        eachDoublingAddsFewerRowsThanItCopies("5^2 4^6 3^8 2^48", 2, 2);
+        eachDoublingAddsFewerRowsThanItCopies("2^200", 3, 3);
+    }
+
+    // the parameters are ordered by their domain sizes, so that every copy fits the domain of its original
+    static void eachDoublingAddsFewerRowsThanItCopies(String model, int strength, int numberOfDoublings) {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate(model);
+        List<int[]> progress = new ArrayList<>();  // {column, phase, number of rows}
+        CoveringArray coveringArray = new IpogRunner(RunConfiguration.builder(parameters, strength,
+                BaseAlgorithm.IPOG_D).progressListener((column, numberOfParameters, phase, numberOfRows,
+                uncoveredCombinationsCount) -> progress.add(new int[]{column, phase.ordinal(), numberOfRows}))
+                .build()).generate();
+        if (!CoveringArrayUtils.isStrengthCovered(coveringArray, strength)) {
+            throw new AssertionError(model + " is not covered");
+        }
+        // the first half is doubled again as long as it has at least 16 parameters
+        List<Integer> endColumns = new ArrayList<>(List.of(parameters.size()));
+        for (int half = (parameters.size() + 1) / 2; endColumns.size() == 1 || half >= 16; half = (half + 1) / 2) {
+            endColumns.add(0, half);
+        }
+        if (endColumns.size() - 1 != numberOfDoublings) {
+            throw new AssertionError(model + ": " + (endColumns.size() - 1) + " doublings");
+        }
+        // IPOG only extends the columns of the first copied half horizontally
+        int firstDoubledColumn = endColumns.get(0);
+        if (progress.stream().anyMatch(event -> event[0] >= firstDoubledColumn
+                && event[1] == ProgressListener.Phase.HORIZONTAL.ordinal())) {
+            throw new AssertionError(model + ": columns after " + firstDoubledColumn + " are extended horizontally");
+        }
+        int rowsBefore = numberOfRowsBefore(progress, firstDoubledColumn);
+        StringBuilder rows = new StringBuilder().append(rowsBefore);
+        for (int doubling = 1; doubling < endColumns.size(); doubling++) {
+            int rowsAfter = doubling == endColumns.size() - 1
+                    ? coveringArray.numberOfRows() : numberOfRowsBefore(progress, endColumns.get(doubling));
+            if (rowsAfter >= 2 * rowsBefore) {
+                throw new AssertionError(model + ": doubling " + doubling + " from " + rowsBefore + " to "
+                        + rowsAfter + " rows");
+            }
+            rows.append(" -> ").append(rowsAfter);
+            rowsBefore = rowsAfter;
+        }
+        System.out.println(model + ", t=" + strength + ": " + rows + " rows");
+        System.out.println("Test passed!");
+    }
+
+    // the rows only change in the phases that are reported
+    private static int numberOfRowsBefore(List<int[]> progress, int column) {
+        int numberOfRows = 0;
+        for (int[] event : progress) {
+            if (event[0] < column) {
+                numberOfRows = event[2];
+            }
+        }
+        return numberOfRows;
+    }
+}
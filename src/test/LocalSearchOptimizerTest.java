@@ -0,0 +1,30 @@
+package test;
+
+import ipog.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LocalSearchOptimizerTest {
+    public static void main(String[] args) {
+        List<Parameter<?>> parameters = new ArrayList<>();
+        for (int column = 0; column < 10; column++) {
+            parameters.add(new Parameter<>("p" + column, "a", "b", "c"));
+        }
+        IpogRunner ipogRunner = new IpogRunner(
+                RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG_F).seed(1).build());
+        CoveringArray coveringArray = ipogRunner.generate();
+        int numberOfRows = coveringArray.numberOfRows();
+        CoveringArray optimized = ipogRunner.optimize(coveringArray, Duration.ofSeconds(2), 2);
+        if (optimized.numberOfRows() >= numberOfRows
+                || ipogRunner.getReport().getRemovedRowsCount() != numberOfRows - optimized.numberOfRows()) {
+            throw new AssertionError("expected fewer rows than " + numberOfRows);
+        }
+        if (!CoveringArrayUtils.isStrengthCovered(optimized, 2)) {
+            throw new AssertionError("the optimized covering array has lost coverage");
+        }
+        System.out.println("rows before = " + numberOfRows + ", rows after = " + optimized.numberOfRows());
+        System.out.println("Test passed!");
+    }
+}
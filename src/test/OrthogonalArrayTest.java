@@ -0,0 +1,57 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+
+public class OrthogonalArrayTest {
+    public static void main(String[] args) {
+        for (int q : new int[]{2, 3, 4, 5, 7, 8, 9}) {
+            for (int strength = 2; strength <= Math.min(q, 3); strength++) {
+                List<Parameter<?>> parameters = ParameterConfigurationParser.generate(q + "^" + (q + 1));
+                for (BaseAlgorithm baseAlgorithm : BaseAlgorithm.values()) {
+                    CoveringArray coveringArray = new IpogRunner(
+                            RunConfiguration.builder(parameters, strength, baseAlgorithm).build()).generate();
+                    if (!isOrthogonalArray(coveringArray, q, strength)) {
+                        throw new AssertionError("no orthogonal array for " + q + "^" + (q + 1) + ", t = " + strength);
+                    }
+                }
+            }
+        }
+        // more columns than the orthogonal array has: the remaining ones are added by IPOG
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("5^9");
+        CoveringArray coveringArray = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG_F)
+                .algebraicConstruction(AlgebraicConstruction.EXACT_OR_SEED).build()).generate();
+        if (!CoveringArrayUtils.isStrengthCovered(coveringArray, 2)) {
+            throw new AssertionError("seeded covering array is incomplete");
+        }
+        System.out.println("Test passed!");
+    }
+
+    // q^t rows and every t columns contain q^t different value combinations
+    static boolean isOrthogonalArray(CoveringArray coveringArray, int q, int strength) {
+        int numberOfRows = (int) Math.pow(q, strength);
+        if (coveringArray.numberOfRows() != numberOfRows) {
+            return false;
+        }
+        int[] columns = new int[strength];
+        for (int j = 0; j < strength; j++) {
+            columns[j] = j;
+        }
+        do {
+            BitSet occurring = new BitSet(numberOfRows);
+            for (int[] row : coveringArray.getTable()) {
+                int index = 0;
+                for (int column : columns) {
+                    index = index * q + row[column];
+                }
+                occurring.set(index);
+            }
+            if (occurring.cardinality() != numberOfRows) {
+                return false;
+            }
+        }
+        while (CombinatoricUtils.nextKCombination(columns, coveringArray.numberOfColumns()));
+        return true;
+    }
+}
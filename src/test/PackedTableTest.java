@@ -0,0 +1,57 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+
+public class PackedTableTest {
+    public static void main(String[] args) {
+        // the largest domain decides the width of the cells (one more value for the don't-care value)
+        int[][] domainSizes = {{1, 1}, {2, 3, 2}, {3, 15, 4}, {16, 2, 255}, {256, 3}, {65536, 2}};
+        int[] expectedBitsPerCell = {1, 2, 4, 8, 16, 32};
+        SplittableRandom random = new SplittableRandom(1);
+        for (int j = 0; j < domainSizes.length; j++) {
+            int[] alphabetSizes = domainSizes[j];
+            List<int[]> rows = new ArrayList<>();
+            for (int row = 0; row < 101; row++) {
+                int[] values = new int[alphabetSizes.length];
+                for (int column = 0; column < values.length; column++) {
+                    values[column] = random.nextInt(-1, alphabetSizes[column]);
+                }
+                rows.add(values);
+            }
+            for (PackedTable.Layout layout : PackedTable.Layout.values()) {
+                PackedTable table = PackedTable.of(rows, alphabetSizes, layout);
+                if (table.getBitsPerCell() != expectedBitsPerCell[j]) {
+                    throw new AssertionError("expected " + expectedBitsPerCell[j] + " bits per cell for "
+                            + Arrays.toString(alphabetSizes) + ", got " + table.getBitsPerCell());
+                }
+                for (PackedTable other : List.of(table, table.withLayout(PackedTable.Layout.ROW_MAJOR),
+                        table.withLayout(PackedTable.Layout.COLUMN_MAJOR))) {
+                    for (int row = 0; row < rows.size(); row++) {
+                        if (!Arrays.equals(other.getRow(row), rows.get(row))
+                                || other.get(row, alphabetSizes.length - 1) != rows.get(row)[alphabetSizes.length - 1]) {
+                            throw new AssertionError("row " + row + " differs: " + Arrays.toString(other.getRow(row))
+                                    + " instead of " + Arrays.toString(rows.get(row)));
+                        }
+                    }
+                }
+            }
+        }
+        // a covering array returns copies of its packed rows
+        List<Parameter<?>> parameters = new ArrayList<>();
+        for (int column = 0; column < 20; column++) {
+            parameters.add(new Parameter<>("p" + column, true, false));
+        }
+        CoveringArray coveringArray = new IpogRunner(
+                RunConfiguration.builder(parameters, 3, BaseAlgorithm.IPOG).build()).generate();
+        coveringArray.getTable().get(0)[0] = 1 - coveringArray.getTable().get(0)[0];
+        CoveringArray columnMajor = coveringArray.withLayout(PackedTable.Layout.COLUMN_MAJOR);
+        if (coveringArray.getPackedTable().getBitsPerCell() != 2
+                || !CoveringArrayUtils.isStrengthCovered(coveringArray, 3)
+                || !CoveringArrayUtils.isStrengthCovered(columnMajor, 3)) {
+            throw new AssertionError("the packed covering array has changed");
+        }
+        System.out.println("Test passed!");
+    }
+}
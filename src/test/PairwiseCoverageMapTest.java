@@ -0,0 +1,246 @@
+package test;
+
+import ipog.CombinatoricUtils;
+import ipog.CoveringArray;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The coverage maps are package-private, so they are created and called by reflection:
+ * every call goes to the pairwise and to the generic coverage map,
+ * which have to agree on the result and on the changes of the array arguments.
+ */
+public class PairwiseCoverageMapTest {
+    // the methods of ipog.CoverageMap
+    public interface CoverageMap {
+        List<int[]> getColumnSelections();
+
+        boolean mayHaveUncoveredCombinations();
+
+        int occurrenceCount(int[] parameterCombination, int[] valueCombination);
+
+        boolean isCovered(int[] parameterCombination, int[] valueCombination, int fixedParameterValue);
+
+        void markAsCovered(int[] parameterCombination, int[] valueCombination, int fixedParameterValue);
+
+        void markAsCovered(int[] row);
+
+        void markAsUncovered(int[] parameterCombination, int[] valueCombination);
+
+        void update(List<int[]> coveringArray, int chosenRow, int chosenColumn, int beforeValue);
+
+        int[] computeGainsOfFixedParameter(int[] row, int[] best);
+
+        Optional<int[][]> getUncoveredCombination();
+
+        Optional<int[][]> getUncoveredCombination(int startingRankOfParameterCombination,
+                                                  int startingRankOfValueCombination);
+
+        int totalCoveredValueCombinationsCount();
+
+        int valueCombinationsCount();
+
+        int uncoveredValueCombinationsCount();
+
+        boolean areOccurrencesCounted();
+    }
+
+    public static void main(String[] args) {
+        // fixed parameters with more than one word of values, and more columns than fit in a single counter bit
+        int[][] models = {{2, 2}, {3, 4, 2}, {5, 1, 3, 4}, {2, 3, 4, 5, 6, 7, 8, 9, 10}, {3, 70}, {65, 2, 64},
+                {4, 3, 2, 2, 3, 4, 5, 3, 2, 2, 3, 4, 5, 6, 2, 3, 2, 129}};
+        SplittableRandom random = new SplittableRandom(1);
+        for (int[] parameterSizes : models) {
+            for (boolean countOccurrences : new boolean[]{true, false}) {
+                rowsAreCoveredAlike(parameterSizes, countOccurrences, random);
+                singleCombinationsAreCoveredAlike(parameterSizes, countOccurrences, random);
+            }
+        }
+    }
+
+    // markAsCovered(row) and update(...) on the same random rows, which are stored in another order
+    static void rowsAreCoveredAlike(int[] parameterSizes, boolean countOccurrences, SplittableRandom random) {
+        int numberOfColumns = parameterSizes.length + 2;
+        int[] originalOrder = permutation(numberOfColumns, random);
+        CoverageMap coverageMap = create(parameterSizes, originalOrder, countOccurrences);
+        compareQueries(coverageMap, parameterSizes, originalOrder, countOccurrences, random);
+        List<int[]> rows = new ArrayList<>();
+        for (int step = 0; step < 200 && coverageMap.mayHaveUncoveredCombinations(); step++) {
+            // update is only used with the occurrences counted: without them, both coverage maps lose
+            // the pairs that other rows still contain, but not the same ones
+            if (rows.isEmpty() || !countOccurrences || random.nextInt(3) != 0) {
+                int[] row = randomRow(parameterSizes, originalOrder, numberOfColumns, random);
+                coverageMap.computeGainsOfFixedParameter(row, new int[2]);
+                rows.add(row);
+                coverageMap.markAsCovered(row);
+            }
+            else {
+                int chosenRow = random.nextInt(rows.size());
+                int chosenColumn = random.nextInt(parameterSizes.length);
+                int[] row = rows.get(chosenRow);
+                int beforeValue = row[originalOrder[chosenColumn]];
+                row[originalOrder[chosenColumn]] = random.nextInt(-1, parameterSizes[chosenColumn]);
+                coverageMap.update(rows, chosenRow, chosenColumn, beforeValue);
+            }
+            compareQueries(coverageMap, parameterSizes, originalOrder, countOccurrences, random);
+        }
+        walkUncoveredCombinations(coverageMap);
+        System.out.println(Arrays.toString(parameterSizes) + ", occurrences counted = " + countOccurrences
+                + ": " + rows.size() + " rows, " + coverageMap.uncoveredValueCombinationsCount() + " of "
+                + coverageMap.valueCombinationsCount() + " pairs uncovered");
+        System.out.println("Test passed!");
+    }
+
+    static void singleCombinationsAreCoveredAlike(int[] parameterSizes, boolean countOccurrences,
+                                                  SplittableRandom random) {
+        int fixedParameter = parameterSizes.length - 1;
+        int[] originalOrder = permutation(parameterSizes.length, random);
+        CoverageMap coverageMap = create(parameterSizes, originalOrder, countOccurrences);
+        for (int step = 0; step < 300; step++) {
+            int column = random.nextInt(fixedParameter);
+            int value = random.nextInt(parameterSizes[column]);
+            int fixedParameterValue = random.nextInt(parameterSizes[fixedParameter]);
+            if (random.nextInt(3) != 0) {
+                coverageMap.markAsCovered(new int[]{column}, new int[]{value}, fixedParameterValue);
+            }
+            else {
+                coverageMap.markAsUncovered(new int[]{column}, new int[]{value, fixedParameterValue});
+            }
+            compareQueries(coverageMap, parameterSizes, originalOrder, countOccurrences, random);
+        }
+        walkUncoveredCombinations(coverageMap);
+        System.out.println("Test passed!");
+    }
+
+    // the answers are compared by the proxy
+    private static void compareQueries(CoverageMap coverageMap, int[] parameterSizes, int[] originalOrder,
+                                       boolean countOccurrences, SplittableRandom random) {
+        int fixedParameter = parameterSizes.length - 1;
+        coverageMap.getColumnSelections();
+        coverageMap.mayHaveUncoveredCombinations();
+        coverageMap.totalCoveredValueCombinationsCount();
+        coverageMap.valueCombinationsCount();
+        coverageMap.uncoveredValueCombinationsCount();
+        coverageMap.areOccurrencesCounted();
+        coverageMap.getUncoveredCombination();
+        for (int column = 0; column < fixedParameter; column++) {
+            int value = random.nextInt(parameterSizes[column]);
+            int fixedParameterValue = random.nextInt(parameterSizes[fixedParameter]);
+            coverageMap.isCovered(new int[]{column}, new int[]{value}, fixedParameterValue);
+            if (countOccurrences) {
+                coverageMap.occurrenceCount(new int[]{column}, new int[]{value, fixedParameterValue});
+            }
+            coverageMap.getUncoveredCombination(column, random.nextInt(parameterSizes[column]
+                    * parameterSizes[fixedParameter] + 1));
+        }
+        // a best value that is given, as after the constraints restricted the values
+        coverageMap.computeGainsOfFixedParameter(randomRow(parameterSizes, originalOrder, originalOrder.length, random),
+                new int[]{random.nextInt(parameterSizes[fixedParameter]), random.nextInt(3)});
+    }
+
+    // all uncovered combinations in the order of their ranks, as in the vertical extension
+    private static void walkUncoveredCombinations(CoverageMap coverageMap) {
+        int count = 0;
+        Optional<int[][]> uncoveredCombination = coverageMap.getUncoveredCombination(0, 0);
+        while (uncoveredCombination.isPresent()) {
+            int[] ranks = uncoveredCombination.get()[2];
+            count++;
+            uncoveredCombination = coverageMap.getUncoveredCombination(ranks[0], ranks[1] + 1);
+        }
+        if (count != coverageMap.uncoveredValueCombinationsCount()) {
+            throw new AssertionError(count + " uncovered combinations found instead of "
+                    + coverageMap.uncoveredValueCombinationsCount());
+        }
+    }
+
+    private static int[] randomRow(int[] parameterSizes, int[] originalOrder, int numberOfColumns,
+                                   SplittableRandom random) {
+        int[] row = new int[numberOfColumns];
+        Arrays.fill(row, CoveringArray.DONT_CARE_VALUE);
+        for (int column = 0; column < parameterSizes.length; column++) {
+            row[originalOrder[column]] = random.nextInt(5) == 0
+                    ? CoveringArray.DONT_CARE_VALUE : random.nextInt(parameterSizes[column]);
+        }
+        return row;
+    }
+
+    private static int[] permutation(int length, SplittableRandom random) {
+        int[] permutation = new int[length];
+        for (int i = 0; i < length; i++) {
+            int j = random.nextInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+        return permutation;
+    }
+
+    private static CoverageMap create(int[] parameterSizes, int[] originalOrder, boolean countOccurrences) {
+        try {
+            Constructor<?> pairwise = Class.forName("ipog.PairwiseCoverageMap")
+                    .getDeclaredConstructor(int[].class, int[].class, boolean.class);
+            Constructor<?> generic = Class.forName("ipog.GenericCoverageMap").getDeclaredConstructor(int[].class,
+                    int.class, CombinatoricUtils.BinomialCoefficient.class, int[].class, boolean.class);
+            pairwise.setAccessible(true);
+            generic.setAccessible(true);
+            return agreeing(pairwise.newInstance(parameterSizes, originalOrder, countOccurrences),
+                    generic.newInstance(parameterSizes, 2,
+                            new CombinatoricUtils.BinomialCoefficient(parameterSizes.length - 1, 1),
+                            originalOrder, countOccurrences));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static CoverageMap agreeing(Object pairwise, Object generic) {
+        return (CoverageMap) Proxy.newProxyInstance(CoverageMap.class.getClassLoader(),
+                new Class<?>[]{CoverageMap.class}, (proxy, method, args) -> {
+                    Object[] genericArgs = args == null ? null : Arrays.stream(args)
+                            .map(arg -> arg instanceof int[] ? ((int[]) arg).clone() : arg).toArray();
+                    String arguments = describe(args);
+                    Object expected = invoke(generic, method, genericArgs);
+                    Object actual = invoke(pairwise, method, args);
+                    if (!describe(expected).equals(describe(actual))
+                            || !describe(genericArgs).equals(describe(args))) {
+                        throw new AssertionError(method.getName() + arguments + ": generic "
+                                + describe(expected) + describe(genericArgs) + ", pairwise "
+                                + describe(actual) + describe(args));
+                    }
+                    return actual;
+                });
+    }
+
+    private static Object invoke(Object coverageMap, Method method, Object[] args) throws Throwable {
+        Method target = coverageMap.getClass().getMethod(method.getName(), method.getParameterTypes());
+        target.setAccessible(true);
+        try {
+            return target.invoke(coverageMap, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String describe(Object object) {
+        if (object instanceof int[]) {
+            return Arrays.toString((int[]) object);
+        }
+        if (object instanceof int[][]) {
+            return Arrays.deepToString((int[][]) object);
+        }
+        if (object instanceof Optional) {
+            return ((Optional<?>) object).map(PairwiseCoverageMapTest::describe).orElse("empty");
+        }
+        if (object instanceof Object[]) {
+            return Arrays.stream((Object[]) object).map(PairwiseCoverageMapTest::describe)
+                    .collect(Collectors.joining(", ", "(", ")"));
+        }
+        if (object instanceof List) {
+            return ((List<?>) object).stream().map(PairwiseCoverageMapTest::describe)
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+        return String.valueOf(object);
+    }
+}
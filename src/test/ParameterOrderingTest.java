@@ -0,0 +1,70 @@
+package test;
+
+import ipog.*;
+
+import java.util.List;
+import java.util.Map;
+
+public class ParameterOrderingTest {
+    public static void main(String[] args) {
+        everyOrderingGeneratesACoveringArray();
+        moreAttemptsNeverGiveMoreRows();
+        invalidOrdersAreRejected();
+    }
+
+    static void everyOrderingGeneratesACoveringArray() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("2^3 5^1 3^4");
+        Map<String, ParameterOrdering> orderings = Map.of(
+                "size descending", ParameterOrdering.sizeDescending(),
+                "size ascending after first t", ParameterOrdering.sizeAscendingAfterFirstT(),
+                "constraint density", ParameterOrdering.constraintDensity(),
+                "random", ParameterOrdering.random());
+        for (Map.Entry<String, ParameterOrdering> ordering : orderings.entrySet()) {
+            for (BaseAlgorithm baseAlgorithm : List.of(BaseAlgorithm.IPOG, BaseAlgorithm.IPOG_F)) {
+                CoveringArray coveringArray = new IpogRunner(RunConfiguration.builder(parameters, 3, baseAlgorithm)
+                        .parameterOrdering(ordering.getValue()).seed(3).build()).generate();
+                if (!CoveringArrayUtils.isStrengthCovered(coveringArray, 3)) {
+                    throw new AssertionError(ordering.getKey() + " with " + baseAlgorithm);
+                }
+                System.out.println(ordering.getKey() + ", " + baseAlgorithm + ": rows = "
+                        + coveringArray.numberOfRows());
+            }
+        }
+        System.out.println("Test passed!");
+    }
+
+    // the first attempt uses the same order as a run with a single attempt
+    static void moreAttemptsNeverGiveMoreRows() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("4^2 3^3 2^5");
+        for (long seed = 0; seed < 5; seed++) {
+            CoveringArray oneAttempt = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                    .parameterOrdering(ParameterOrdering.random(), 1).seed(seed).build()).generate();
+            CoveringArray tenAttempts = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                    .parameterOrdering(ParameterOrdering.random(), 10).seed(seed).build()).generate();
+            if (!CoveringArrayUtils.isStrengthCovered(tenAttempts, 2)
+                    || tenAttempts.numberOfRows() > oneAttempt.numberOfRows()) {
+                throw new AssertionError("seed " + seed);
+            }
+        }
+        System.out.println("Test passed!");
+    }
+
+    static void invalidOrdersAreRejected() {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("3^4");
+        List<ParameterOrdering> invalidOrderings = List.of(
+                (p, strength, constraints, random) -> new int[]{0, 1, 2},
+                (p, strength, constraints, random) -> new int[]{0, 1, 1, 2},
+                (p, strength, constraints, random) -> new int[]{0, 1, 2, 4});
+        for (ParameterOrdering invalidOrdering : invalidOrderings) {
+            try {
+                new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                        .parameterOrdering(invalidOrdering).build());
+                throw new AssertionError("accepted an invalid order");
+            }
+            catch (IllegalArgumentException expected) {
+                // as expected
+            }
+        }
+        System.out.println("Test passed!");
+    }
+}
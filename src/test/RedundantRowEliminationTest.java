@@ -0,0 +1,33 @@
+package test;
+
+import ipog.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RedundantRowEliminationTest {
+    public static void main(String[] args) {
+        List<Parameter<?>> parameters = new ArrayList<>(List.of(
+                new Parameter<>("a", 1, 2, 3, 4, 5, 6), new Parameter<>("b", 1, 2, 3, 4, 5),
+                new Parameter<>("c", 1, 2, 3, 4), new Parameter<>("d", 1, 2, 3),
+                new Parameter<>("e", 1, 2, 3), new Parameter<>("f", 1, 2, 3)));
+        for (int column = 0; column < 6; column++) {
+            parameters.add(new Parameter<>("g" + column, true, false));
+        }
+        // the doubled rows of IPOG-D leave some rows without any combination of their own
+        CoveringArray coveringArray = new IpogRunner(
+                RunConfiguration.builder(parameters, 3, BaseAlgorithm.IPOG_D).build()).generate();
+        IpogRunner ipogRunner = new IpogRunner(
+                RunConfiguration.builder(parameters, 3, BaseAlgorithm.IPOG_D).removeRedundantRows().build());
+        CoveringArray reduced = ipogRunner.generate();
+        int removedRowsCount = ipogRunner.getReport().getRemovedRowsCount();
+        if (removedRowsCount == 0 || reduced.numberOfRows() != coveringArray.numberOfRows() - removedRowsCount) {
+            throw new AssertionError("expected removed rows");
+        }
+        if (!CoveringArrayUtils.isStrengthCovered(reduced, 3)) {
+            throw new AssertionError("removing the rows has lost coverage");
+        }
+        System.out.println("rows before = " + coveringArray.numberOfRows() + ", rows after = " + reduced.numberOfRows());
+        System.out.println("Test passed!");
+    }
+}
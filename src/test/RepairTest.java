@@ -0,0 +1,60 @@
+package test;
+
+import ipog.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class RepairTest {
+    public static void main(String[] args) {
+        repairedCoveringArrayCoversTheAddedValue();
+    }
+
+    static void repairedCoveringArrayCoversTheAddedValue() {
+        List<Parameter<?>> parameters = new ArrayList<>(List.of(
+                new Parameter<>("JRE", 8, 11, 17),
+                new Parameter<>("OS", "Linux", "Mac", "Windows"),
+                new Parameter<>("Build Tool", "Ant", "Maven", "Gradle"),
+                new Parameter<>("JUnit", "4", "5"),
+                new Parameter<>("Dev Mode", true, false)));
+        CoveringArray coveringArray = new IpogRunner(
+                RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG).build()).generate();
+        List<int[]> rowsBefore = new ArrayList<>();
+        for (int[] row : coveringArray.getTable()) {
+            rowsBefore.add(row.clone());
+        }
+        @SuppressWarnings("unchecked")
+        Parameter<Integer> jre = (Parameter<Integer>) parameters.get(0);
+        jre.addValue(21);
+        if (CoveringArrayUtils.isStrengthCovered(coveringArray, 2)) {
+            throw new AssertionError();
+        }
+        IpogRunner ipogRunner = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG).build());
+        CoveringArray repaired = ipogRunner.repair(coveringArray);
+        if (!CoveringArrayUtils.isStrengthCovered(repaired, 2)) {
+            throw new AssertionError();
+        }
+        for (int row = 0; row < rowsBefore.size(); row++) {
+            for (int column = 0; column < parameters.size(); column++) {
+                int valueBefore = rowsBefore.get(row)[column];
+                if (valueBefore != CoveringArray.DONT_CARE_VALUE
+                        && valueBefore != repaired.getTable().get(row)[column]) {
+                    throw new AssertionError();
+                }
+            }
+        }
+        // the repair does not change the order of the columns for later runs
+        List<int[]> generatedRows = ipogRunner.generate().getTable();
+        List<int[]> expectedRows = new IpogRunner(RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                .build()).generate().getTable();
+        if (generatedRows.size() != expectedRows.size()
+                || !IntStream.range(0, expectedRows.size())
+                .allMatch(row -> Arrays.equals(generatedRows.get(row), expectedRows.get(row)))) {
+            throw new AssertionError("a generation after the repair differs from a fresh one");
+        }
+        System.out.println("rows before = " + rowsBefore.size() + ", rows after = " + repaired.numberOfRows());
+        System.out.println("Test passed!");
+    }
+}
@@ -0,0 +1,102 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+
+public class SeedRowsTest {
+    public static void main(String[] args) {
+        seedRowsAreExcludedFromTheCoveringArray(BaseAlgorithm.IPOG);
+        seedRowsAreExcludedFromTheCoveringArray(BaseAlgorithm.IPOG_F);
+        seedTestsWithMissingParametersAreUnknownValues();
+    }
+
+    static void seedRowsAreExcludedFromTheCoveringArray(BaseAlgorithm baseAlgorithm) {
+        List<Parameter<?>> parameters = ParameterConfigurationParser.generate("4^2 3^3 2^3");
+        List<int[]> seedRows = new ArrayList<>();
+        Random random = new Random(5);
+        for (int row = 0; row < 8; row++) {
+            int[] seedRow = new int[parameters.size()];
+            for (int column = 0; column < seedRow.length; column++) {
+                seedRow[column] = column == row % seedRow.length ? CoveringArray.DONT_CARE_VALUE
+                        : random.nextInt(parameters.get(column).size());
+            }
+            seedRows.add(seedRow);
+        }
+        RunConfiguration runConfiguration = RunConfiguration.builder(parameters, 2, baseAlgorithm)
+                .seedRows(seedRows).build();
+        // the configuration keeps its own copies of the seed rows
+        int firstValue = seedRows.get(1)[0];
+        seedRows.get(1)[0] = (firstValue + 1) % parameters.get(0).size();
+        if (runConfiguration.getSeedRows().get(1)[0] != firstValue) {
+            throw new AssertionError();
+        }
+        seedRows.get(1)[0] = firstValue;
+        IpogRunner ipogRunner = new IpogRunner(runConfiguration);
+        CoveringArray coveringArray = ipogRunner.generate();
+
+        for (int[] row : coveringArray.getTable()) {
+            for (int[] seedRow : seedRows) {
+                if (Arrays.equals(row, seedRow)) {
+                    throw new AssertionError("the covering array contains a seed row");
+                }
+            }
+        }
+        List<int[]> rowsWithSeedRows = new ArrayList<>(coveringArray.getTable());
+        rowsWithSeedRows.addAll(seedRows);
+        long numberOfPairs = 0;
+        for (int first = 0; first < parameters.size(); first++) {
+            for (int second = first + 1; second < parameters.size(); second++) {
+                numberOfPairs += parameters.get(first).size() * parameters.get(second).size();
+            }
+        }
+        if (coveredPairs(rowsWithSeedRows).size() != numberOfPairs) {
+            throw new AssertionError();
+        }
+        GenerationReport report = ipogRunner.getReport();
+        if (report.getNumberOfSeedRows() != seedRows.size()
+                || report.getSeedCoveredCombinationsCount() != coveredPairs(seedRows).size()) {
+            throw new AssertionError(report.toString());
+        }
+        CoveringArray withoutSeedRows = new IpogRunner(RunConfiguration.builder(parameters, 2, baseAlgorithm)
+                .build()).generate();
+        System.out.println(baseAlgorithm + ": rows without seed rows = " + withoutSeedRows.numberOfRows()
+                + ", rows with " + seedRows.size() + " seed rows = " + coveringArray.numberOfRows());
+        System.out.println("Test passed!");
+    }
+
+    static void seedTestsWithMissingParametersAreUnknownValues() {
+        List<Parameter<?>> parameters = List.of(
+                new Parameter<>("OS", "Linux", "Mac", "Windows"),
+                new Parameter<>("JRE", 11, 17, 21),
+                new Parameter<>("Headless", true, false));
+        RunConfiguration runConfiguration = RunConfiguration.builder(parameters, 2, BaseAlgorithm.IPOG)
+                .seedTests(List.of(Map.of("OS", "Mac", "JRE", 17), Map.of("OS", "Linux", "Headless", false)))
+                .build();
+        if (!Arrays.equals(runConfiguration.getSeedRows().get(0), new int[]{1, 1, CoveringArray.DONT_CARE_VALUE})
+                || !Arrays.equals(runConfiguration.getSeedRows().get(1), new int[]{0, CoveringArray.DONT_CARE_VALUE, 1})) {
+            throw new AssertionError();
+        }
+        IpogRunner ipogRunner = new IpogRunner(runConfiguration);
+        ipogRunner.generate();
+        if (ipogRunner.getReport().getSeedCoveredCombinationsCount() != 2) {
+            throw new AssertionError();
+        }
+        System.out.println("Test passed!");
+    }
+
+    // the value pairs (columns and values) of the rows without don't-care values
+    private static Set<List<Integer>> coveredPairs(List<int[]> rows) {
+        Set<List<Integer>> pairs = new HashSet<>();
+        for (int[] row : rows) {
+            for (int first = 0; first < row.length; first++) {
+                for (int second = first + 1; second < row.length; second++) {
+                    if (row[first] != CoveringArray.DONT_CARE_VALUE && row[second] != CoveringArray.DONT_CARE_VALUE) {
+                        pairs.add(List.of(first, row[first], second, row[second]));
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+}
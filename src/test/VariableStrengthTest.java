@@ -0,0 +1,49 @@
+package test;
+
+import ipog.*;
+
+import java.util.*;
+
+public class VariableStrengthTest {
+    public static void main(String[] args) {
+        List<String> subModel = List.of("JRE", "OS", "IDE");
+        for (BaseAlgorithm baseAlgorithm : List.of(BaseAlgorithm.IPOG, BaseAlgorithm.IPOG_F, BaseAlgorithm.IPOG_F2)) {
+            subModelIsCoveredWithHigherStrength(RunConfiguration.builder(ConstraintTest.parameters(), 2, baseAlgorithm)
+                    .subModel(subModel, 3), subModel);
+            subModelIsCoveredWithHigherStrength(RunConfiguration.builder(ConstraintTest.parameters(), 2, baseAlgorithm)
+                    .subModel(subModel, 3).adaptVertical(), subModel);
+            subModelIsCoveredWithHigherStrength(RunConfiguration.builder(ConstraintTest.parameters(), 2, baseAlgorithm)
+                    .subModel(subModel, 3).enhanceHorizontal(false).seed(42), subModel);
+        }
+        System.out.println("Test passed!");
+    }
+
+    static void subModelIsCoveredWithHigherStrength(RunConfiguration.Builder builder, List<String> subModel) {
+        RunConfiguration runConfiguration = builder.build();
+        CoveringArray coveringArray = new IpogRunner(runConfiguration).generate();
+        if (!CoveringArrayUtils.isStrengthCovered(coveringArray, 2)) {
+            throw new AssertionError("base strength is not covered");
+        }
+        List<Parameter<?>> parameters = runConfiguration.getParameters();
+        int[] columns = runConfiguration.getSubModels().get(0).getColumns();
+        Set<List<Integer>> coveredTuples = new HashSet<>();
+        for (int[] row : coveringArray.getTable()) {
+            List<Integer> tuple = List.of(row[columns[0]], row[columns[1]], row[columns[2]]);
+            if (!tuple.contains(CoveringArray.DONT_CARE_VALUE)) {
+                coveredTuples.add(tuple);
+            }
+        }
+        int expected = 1;
+        for (int column : columns) {
+            expected *= parameters.get(column).size();
+        }
+        if (coveredTuples.size() != expected) {
+            throw new AssertionError("sub-model " + subModel + " is not 3-way covered");
+        }
+        int rowsOfFullStrength = new IpogRunner(RunConfiguration.builder(parameters, 3,
+                runConfiguration.getBaseAlgorithm()).build()).generate().numberOfRows();
+        if (coveringArray.numberOfRows() >= rowsOfFullStrength) {
+            throw new AssertionError("variable strength is not smaller than the full strength");
+        }
+    }
+}